@@ -0,0 +1,104 @@
+package org.apache.maven.plugin.eclipse.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.ArtifactCollector;
+import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.ide.AbstractIdeSupportMojo;
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.plugin.testing.SilentLog;
+
+/**
+ * IDE mojo resolving the dependencies of a {@link SyntheticGraph} with the legacy engine, without writing anything. A
+ * mojo resolves the dependencies only once, so a new mojo is needed for each measurement.
+ *
+ * @version $Id$
+ */
+public class BenchmarkMojo
+    extends AbstractIdeSupportMojo
+{
+
+    /**
+     * @param graph the graph to resolve
+     * @param collector the collector returning the nodes of the graph
+     * @param resolver the resolver looking up the jars
+     * @param threads the number of resolver threads
+     */
+    public BenchmarkMojo( SyntheticGraph graph, ArtifactCollector collector, ArtifactResolver resolver, int threads )
+    {
+        SilentLog log = new SilentLog();
+        setLog( log );
+        enableLogging( log );
+
+        project = graph.createRootProject( "jar" );
+        executedProject = project;
+        artifactFactory = graph.getArtifactFactory();
+        artifactCollector = collector;
+        artifactResolver = resolver;
+        localRepository = graph.getLocalRepository();
+        remoteArtifactRepositories = Collections.EMPTY_LIST;
+        reactorProjects = new ArrayList( graph.getReactorProjects() );
+        reactorProjects.add( project );
+        resolutionEngine = "legacy";
+        resolverThreads = threads;
+        useResolutionCache = false;
+    }
+
+    /**
+     * @return the resolved dependencies
+     * @throws MojoExecutionException if the resolution fails
+     */
+    public IdeDependency[] resolve()
+        throws MojoExecutionException
+    {
+        return doDependencyResolution();
+    }
+
+    protected boolean getUseProjectReferences()
+    {
+        return true;
+    }
+
+    protected boolean setup()
+    {
+        return true;
+    }
+
+    protected void writeConfiguration( IdeDependency[] deps )
+    {
+        // nothing to write
+    }
+
+    public String getProjectNameForArifact( Artifact artifact )
+    {
+        return artifact.getArtifactId();
+    }
+
+    public List getExcludes()
+    {
+        return null;
+    }
+}
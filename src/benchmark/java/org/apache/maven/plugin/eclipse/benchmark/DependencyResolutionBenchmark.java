@@ -0,0 +1,94 @@
+package org.apache.maven.plugin.eclipse.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.resolver.ArtifactCollector;
+import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of <code>doDependencyResolution()</code> for a synthetic dependency graph, with a stubbed collector and a
+ * resolver reading the local repository. The manifest index of the local repository is written by the first
+ * invocation, so the measurements are those of a build with a warm local repository.
+ *
+ * @version $Id$
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class DependencyResolutionBenchmark
+{
+
+    @Param( { "10", "100", "1000", "5000" } )
+    int nodes;
+
+    @Param( { "0", "50" } )
+    int reactorSize;
+
+    @Param( { "1", "4" } )
+    int resolverThreads;
+
+    private SyntheticGraph graph;
+
+    private ArtifactCollector collector;
+
+    private ArtifactResolver resolver;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        graph = new SyntheticGraph( nodes, Math.min( reactorSize, nodes ) );
+        collector = new SyntheticArtifactCollector( graph );
+        resolver = new LocalArtifactResolver();
+    }
+
+    @TearDown
+    public void tearDown()
+        throws Exception
+    {
+        graph.delete();
+    }
+
+    @Benchmark
+    public IdeDependency[] doDependencyResolution()
+        throws MojoExecutionException
+    {
+        return new BenchmarkMojo( graph, collector, resolver, resolverThreads ).resolve();
+    }
+}
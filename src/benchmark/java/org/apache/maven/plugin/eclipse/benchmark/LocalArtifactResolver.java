@@ -0,0 +1,50 @@
+package org.apache.maven.plugin.eclipse.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
+import org.apache.maven.artifact.resolver.DefaultArtifactResolver;
+
+/**
+ * Artifact resolver looking up artifacts in the local repository only, it never accesses the network.
+ *
+ * @version $Id$
+ */
+public class LocalArtifactResolver
+    extends DefaultArtifactResolver
+{
+
+    public void resolve( Artifact artifact, List remoteRepositories, ArtifactRepository localRepository )
+        throws ArtifactNotFoundException
+    {
+        File file = new File( localRepository.getBasedir(), localRepository.pathOf( artifact ) );
+        if ( !file.isFile() )
+        {
+            throw new ArtifactNotFoundException( "Not in the local repository", artifact );
+        }
+        artifact.setFile( file );
+        artifact.setResolved( true );
+    }
+}
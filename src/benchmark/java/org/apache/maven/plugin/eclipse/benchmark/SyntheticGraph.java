@@ -0,0 +1,303 @@
+package org.apache.maven.plugin.eclipse.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.factory.DefaultArtifactFactory;
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.handler.manager.DefaultArtifactHandlerManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.DefaultArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.artifact.resolver.ResolutionNode;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.ReflectionUtils;
+
+/**
+ * A synthetic dependency graph in a local file repository, used by the benchmarks instead of a real project. The graph
+ * is a tree with {@link #FANOUT} dependencies per artifact, every {@link #TEST_SCOPE_EVERY}th artifact is in test scope
+ * and every {@link #BUNDLE_EVERY}th jar is an OSGi bundle. The first <code>reactorSize</code> artifacts are also
+ * modules of a synthetic reactor.
+ *
+ * @version $Id$
+ */
+public class SyntheticGraph
+{
+
+    /**
+     * Number of dependencies of the project and of each artifact of the graph.
+     */
+    public static final int FANOUT = 8;
+
+    public static final int TEST_SCOPE_EVERY = 7;
+
+    public static final int BUNDLE_EVERY = 10;
+
+    private static final String GROUP_PREFIX = "org.example.benchmark.group";
+
+    private static final int GROUP_COUNT = 50;
+
+    private final File baseDir;
+
+    private final ArtifactFactory artifactFactory;
+
+    private final ArtifactRepository localRepository;
+
+    private final Artifact[] artifacts;
+
+    private final int[] parents;
+
+    private final int[] depths;
+
+    private final List<MavenProject> reactorProjects;
+
+    /**
+     * Creates the graph and writes the jars of its artifacts to a new local repository.
+     *
+     * @param nodes the number of artifacts of the graph
+     * @param reactorSize the number of artifacts which are also reactor modules
+     * @throws Exception if the repository can't be written
+     */
+    public SyntheticGraph( int nodes, int reactorSize )
+        throws Exception
+    {
+        baseDir = File.createTempFile( "eclipse-benchmark", "" );
+        baseDir.delete();
+        baseDir.mkdirs();
+
+        artifactFactory = createArtifactFactory();
+        localRepository =
+            new DefaultArtifactRepository( "local", "file://" + new File( baseDir, "repository" ).getAbsolutePath(),
+                                           new DefaultRepositoryLayout() );
+
+        artifacts = new Artifact[nodes];
+        parents = new int[nodes];
+        depths = new int[nodes];
+        reactorProjects = new ArrayList<MavenProject>();
+        for ( int i = 0; i < nodes; i++ )
+        {
+            // the project is the parent of the first FANOUT artifacts
+            parents[i] = i / FANOUT - 1;
+            depths[i] = parents[i] < 0 ? 1 : depths[parents[i]] + 1;
+            String scope = i % TEST_SCOPE_EVERY == TEST_SCOPE_EVERY - 1 ? Artifact.SCOPE_TEST : Artifact.SCOPE_COMPILE;
+            artifacts[i] =
+                artifactFactory.createArtifact( getGroupId( i ), getArtifactId( i ), getVersion( i ), scope, "jar" );
+            writeJar( getFile( artifacts[i] ), i % BUNDLE_EVERY == 0 ? artifacts[i].getArtifactId() : null );
+
+            if ( i < reactorSize )
+            {
+                reactorProjects.add( createProject( getGroupId( i ), getArtifactId( i ), getVersion( i ), "jar" ) );
+            }
+        }
+    }
+
+    private static ArtifactFactory createArtifactFactory()
+        throws IllegalAccessException
+    {
+        DefaultArtifactHandler jarHandler = new DefaultArtifactHandler( "jar" );
+        ReflectionUtils.setVariableValueInObject( jarHandler, "language", "java" );
+        ReflectionUtils.setVariableValueInObject( jarHandler, "addedToClasspath", Boolean.TRUE );
+        Map<String, ArtifactHandler> handlers = new HashMap<String, ArtifactHandler>();
+        handlers.put( "jar", jarHandler );
+
+        DefaultArtifactHandlerManager handlerManager = new DefaultArtifactHandlerManager();
+        ReflectionUtils.setVariableValueInObject( handlerManager, "artifactHandlers", handlers );
+        DefaultArtifactFactory factory = new DefaultArtifactFactory();
+        ReflectionUtils.setVariableValueInObject( factory, "artifactHandlerManager", handlerManager );
+        return factory;
+    }
+
+    private static String getGroupId( int i )
+    {
+        return GROUP_PREFIX + ( i % GROUP_COUNT );
+    }
+
+    private static String getArtifactId( int i )
+    {
+        return "artifact" + i;
+    }
+
+    private static String getVersion( int i )
+    {
+        return "1." + ( i % 10 ) + ".0";
+    }
+
+    private static void writeJar( File jar, String bundleSymbolicName )
+        throws IOException
+    {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put( Attributes.Name.MANIFEST_VERSION, "1.0" );
+        if ( bundleSymbolicName != null )
+        {
+            manifest.getMainAttributes().putValue( "Bundle-SymbolicName", bundleSymbolicName );
+        }
+        jar.getParentFile().mkdirs();
+        new JarOutputStream( new FileOutputStream( jar ), manifest ).close();
+    }
+
+    /**
+     * @param artifact an artifact of the graph
+     * @return the jar of the artifact in the local repository
+     */
+    public File getFile( Artifact artifact )
+    {
+        return new File( localRepository.getBasedir(), localRepository.pathOf( artifact ) );
+    }
+
+    /**
+     * Creates a project depending on the first {@link #FANOUT} artifacts of the graph.
+     *
+     * @param packaging the packaging of the project
+     * @return the project
+     */
+    public MavenProject createRootProject( String packaging )
+    {
+        MavenProject project = createProject( GROUP_PREFIX, "root", "1.0.0", packaging );
+        project.setFile( new File( baseDir, "root/pom.xml" ) );
+        project.setRemoteArtifactRepositories( Collections.EMPTY_LIST );
+        for ( int i = 0; i < Math.min( FANOUT, artifacts.length ); i++ )
+        {
+            Dependency dependency = new Dependency();
+            dependency.setGroupId( artifacts[i].getGroupId() );
+            dependency.setArtifactId( artifacts[i].getArtifactId() );
+            dependency.setVersion( artifacts[i].getVersion() );
+            dependency.setScope( artifacts[i].getScope() );
+            project.getModel().addDependency( dependency );
+        }
+        return project;
+    }
+
+    private MavenProject createProject( String groupId, String artifactId, String version, String packaging )
+    {
+        Model model = new Model();
+        model.setGroupId( groupId );
+        model.setArtifactId( artifactId );
+        model.setVersion( version );
+        model.setPackaging( packaging );
+        MavenProject project = new MavenProject( model );
+        project.setArtifact( artifactFactory.createBuildArtifact( groupId, artifactId, version, packaging ) );
+        return project;
+    }
+
+    /**
+     * Creates the resolution nodes of the graph, as returned by the artifact collector. The nodes share the artifacts
+     * of the graph, their file is set by the resolver.
+     *
+     * @return the resolution nodes, parents before their dependencies
+     */
+    public Set<ResolutionNode> createResolutionNodes()
+    {
+        ResolutionNode[] nodes = new ResolutionNode[artifacts.length];
+        ResolutionNode root =
+            new ResolutionNode( artifactFactory.createBuildArtifact( GROUP_PREFIX, "root", "1.0.0", "jar" ),
+                                Collections.EMPTY_LIST );
+        Set<ResolutionNode> result = new LinkedHashSet<ResolutionNode>();
+        for ( int i = 0; i < artifacts.length; i++ )
+        {
+            ResolutionNode parent = parents[i] < 0 ? root : nodes[parents[i]];
+            nodes[i] = new ResolutionNode( artifacts[i], Collections.EMPTY_LIST, parent );
+            result.add( nodes[i] );
+        }
+        return result;
+    }
+
+    /**
+     * Creates the resolved dependencies of the graph, as passed to the writers. Every other dependency has a sources
+     * attachment and the reactor modules are referenced projects.
+     *
+     * @return the dependencies
+     */
+    public IdeDependency[] createIdeDependencies()
+    {
+        IdeDependency[] deps = new IdeDependency[artifacts.length];
+        for ( int i = 0; i < artifacts.length; i++ )
+        {
+            Artifact art = artifacts[i];
+            boolean referencedProject = i < reactorProjects.size();
+            File file = getFile( art );
+            deps[i] =
+                new IdeDependency( art.getGroupId(), art.getArtifactId(), art.getVersion(), null, referencedProject,
+                                   Artifact.SCOPE_TEST.equals( art.getScope() ), false, false, true, file, "jar",
+                                   i % BUNDLE_EVERY == 0, null, depths[i], art.getArtifactId() );
+            if ( i % 2 == 0 )
+            {
+                deps[i].setSourceAttachment( new File( file.getParentFile(), art.getArtifactId() + "-"
+                    + art.getVersion() + "-sources.jar" ) );
+            }
+        }
+        return deps;
+    }
+
+    /**
+     * @return a new directory for the eclipse files of a project
+     */
+    public File createProjectDirectory()
+    {
+        File dir = new File( baseDir, "project" + System.nanoTime() );
+        dir.mkdirs();
+        return dir;
+    }
+
+    public ArtifactFactory getArtifactFactory()
+    {
+        return artifactFactory;
+    }
+
+    public ArtifactRepository getLocalRepository()
+    {
+        return localRepository;
+    }
+
+    public List<MavenProject> getReactorProjects()
+    {
+        return reactorProjects;
+    }
+
+    /**
+     * Delete the local repository and the project directories.
+     *
+     * @throws IOException if a file can't be deleted
+     */
+    public void delete()
+        throws IOException
+    {
+        FileUtils.deleteDirectory( baseDir );
+    }
+}
@@ -0,0 +1,142 @@
+package org.apache.maven.plugin.eclipse.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarFile;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.ResolutionNode;
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.project.MavenProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the shape of the {@link SyntheticGraph} the benchmarks run on, so that a change of the fixture doesn't
+ * silently change what is measured. Runs with the <code>benchmarks</code> profile.
+ *
+ * @version $Id$
+ */
+public class SyntheticGraphTest
+{
+
+    private static final int NODES = 100;
+
+    private static final int REACTOR_SIZE = 5;
+
+    private SyntheticGraph graph;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        graph = new SyntheticGraph( NODES, REACTOR_SIZE );
+    }
+
+    @After
+    public void tearDown()
+        throws IOException
+    {
+        graph.delete();
+    }
+
+    @Test
+    public void testResolutionNodes()
+    {
+        List<ResolutionNode> nodes = new ArrayList<ResolutionNode>( graph.createResolutionNodes() );
+
+        assertEquals( NODES, nodes.size() );
+        int testScoped = 0;
+        for ( int i = 0; i < NODES; i++ )
+        {
+            ResolutionNode node = nodes.get( i );
+            assertEquals( i < SyntheticGraph.FANOUT ? 1 : nodes.get( i / SyntheticGraph.FANOUT - 1 ).getDepth() + 1,
+                          node.getDepth() );
+            assertTrue( graph.getFile( node.getArtifact() ).isFile() );
+            if ( Artifact.SCOPE_TEST.equals( node.getArtifact().getScope() ) )
+            {
+                testScoped++;
+            }
+        }
+        assertEquals( NODES / SyntheticGraph.TEST_SCOPE_EVERY, testScoped );
+    }
+
+    @Test
+    public void testRootProjectDependsOnFirstArtifacts()
+    {
+        MavenProject project = graph.createRootProject( "jar" );
+
+        assertEquals( SyntheticGraph.FANOUT, project.getDependencies().size() );
+        assertEquals( REACTOR_SIZE, graph.getReactorProjects().size() );
+    }
+
+    @Test
+    public void testIdeDependencies()
+        throws IOException
+    {
+        IdeDependency[] deps = graph.createIdeDependencies();
+
+        assertEquals( NODES, deps.length );
+        for ( int i = 0; i < NODES; i++ )
+        {
+            assertEquals( i < REACTOR_SIZE, deps[i].isReferencedProject() );
+            assertEquals( i % SyntheticGraph.BUNDLE_EVERY == 0, deps[i].isOsgiBundle() );
+            assertEquals( i % 2 == 0, deps[i].getSourceAttachment() != null );
+        }
+        assertEquals( deps[0].getArtifactId(), getBundleSymbolicName( deps[0].getFile() ) );
+        assertNull( getBundleSymbolicName( deps[1].getFile() ) );
+    }
+
+    @Test
+    public void testDelete()
+        throws IOException
+    {
+        File repository = new File( graph.getLocalRepository().getBasedir() );
+        assertTrue( repository.isDirectory() );
+
+        graph.delete();
+
+        assertFalse( repository.exists() );
+    }
+
+    private static String getBundleSymbolicName( File jar )
+        throws IOException
+    {
+        JarFile jarFile = new JarFile( jar );
+        try
+        {
+            return jarFile.getManifest().getMainAttributes().getValue( "Bundle-SymbolicName" );
+        }
+        finally
+        {
+            jarFile.close();
+        }
+    }
+}
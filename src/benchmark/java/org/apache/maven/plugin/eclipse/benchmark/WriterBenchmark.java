@@ -0,0 +1,157 @@
+package org.apache.maven.plugin.eclipse.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.eclipse.EclipseSourceDir;
+import org.apache.maven.plugin.eclipse.writers.EclipseClasspathWriter;
+import org.apache.maven.plugin.eclipse.writers.EclipseProjectWriter;
+import org.apache.maven.plugin.eclipse.writers.EclipseWriter;
+import org.apache.maven.plugin.eclipse.writers.EclipseWriterConfig;
+import org.apache.maven.plugin.eclipse.writers.testutils.TestEclipseWriterConfig;
+import org.apache.maven.plugin.eclipse.writers.wtp.EclipseWtpComponent15Writer;
+import org.apache.maven.plugin.eclipse.writers.wtp.EclipseWtpFacetsWriter;
+import org.apache.maven.plugin.testing.SilentLog;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the writers of the <code>.classpath</code>, <code>.project</code> and WTP files for the dependencies of
+ * a synthetic graph. Each writer rewrites the files of the same project directory, as on a repeated
+ * <code>eclipse:eclipse</code>.
+ *
+ * @version $Id$
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class WriterBenchmark
+{
+
+    @Param( { "10", "100", "1000", "5000" } )
+    int nodes;
+
+    @Param( { "0", "50" } )
+    int reactorSize;
+
+    private SyntheticGraph graph;
+
+    private EclipseWriterConfig jarConfig;
+
+    private EclipseWriterConfig earConfig;
+
+    private EclipseWriterConfig warConfig;
+
+    private final SilentLog log = new SilentLog();
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        graph = new SyntheticGraph( nodes, Math.min( reactorSize, nodes ) );
+        jarConfig = createConfig( "jar" );
+        earConfig = createConfig( "ear" );
+        warConfig = createConfig( "war" );
+    }
+
+    private EclipseWriterConfig createConfig( String packaging )
+    {
+        File projectDir = graph.createProjectDirectory();
+        MavenProject project = graph.createRootProject( packaging );
+        project.setFile( new File( projectDir, "pom.xml" ) );
+
+        TestEclipseWriterConfig config = new TestEclipseWriterConfig();
+        config.setProject( project );
+        config.setProjectBaseDir( projectDir );
+        config.setEclipseProjectDirectory( projectDir );
+        config.setEclipseProjectName( project.getArtifactId() );
+        config.setPackaging( packaging );
+        config.setLocalRepository( graph.getLocalRepository() );
+        config.setBuildOutputDirectory( new File( projectDir, "target/classes" ) );
+        config.setSourceDirs( new EclipseSourceDir[] {
+            new EclipseSourceDir( "src/main/java", null, false, false, Collections.EMPTY_LIST,
+                                  Collections.EMPTY_LIST, false ),
+            new EclipseSourceDir( "src/test/java", "target/test-classes", false, true, Collections.EMPTY_LIST,
+                                  Collections.EMPTY_LIST, false ) } );
+        config.setDeps( graph.createIdeDependencies() );
+        config.setWtpVersion( 1.5f );
+        config.setJeeVersion( "5.0" );
+        return config;
+    }
+
+    @TearDown
+    public void tearDown()
+        throws Exception
+    {
+        graph.delete();
+    }
+
+    private void write( EclipseWriter writer, EclipseWriterConfig config )
+        throws MojoExecutionException
+    {
+        writer.init( log, config ).write();
+    }
+
+    @Benchmark
+    public void classpathWriter()
+        throws MojoExecutionException
+    {
+        write( new EclipseClasspathWriter(), jarConfig );
+    }
+
+    @Benchmark
+    public void projectWriter()
+        throws MojoExecutionException
+    {
+        write( new EclipseProjectWriter(), jarConfig );
+    }
+
+    @Benchmark
+    public void wtpComponentWriter()
+        throws MojoExecutionException
+    {
+        write( new EclipseWtpComponent15Writer(), earConfig );
+    }
+
+    @Benchmark
+    public void wtpFacetsWriter()
+        throws MojoExecutionException
+    {
+        write( new EclipseWtpFacetsWriter(), warConfig );
+    }
+}
@@ -0,0 +1,282 @@
+package org.apache.maven.plugin.eclipse;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.eclipse.writers.EclipseWriterConfig;
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.plugin.ide.IdeUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
+import org.codehaus.plexus.util.xml.XMLWriter;
+
+/**
+ * Fingerprint of the inputs of the writers of an Eclipse project, stored in the <code>.settings</code> directory of the
+ * project, so that the writers can be skipped when nothing changed since the last run. The sources and javadoc
+ * attachments have a fingerprint of their own, as they are only known after the background downloads. The size and
+ * modification time of the files output by the writers are stored as well, so the writers run again when one of them
+ * was changed or deleted since.
+ *
+ * @version $Id$
+ */
+class ConfigurationFingerprint
+{
+
+    /**
+     * Location of the fingerprint, relative to the Eclipse project directory.
+     */
+    static final String FILE_NAME = ".settings/eclipse-maven-plugin.fingerprint";
+
+    /**
+     * Changed when the inputs of the fingerprint change.
+     */
+    private static final String FORMAT = "2";
+
+    private static final String CONFIGURATION = "configuration=";
+
+    private static final String ATTACHMENTS = "attachments=";
+
+    private static final String OUTPUT = "output=";
+
+    private final File file;
+
+    private final String configuration;
+
+    private String attachments;
+
+    private final Set<File> outputs = new LinkedHashSet<File>();
+
+    /**
+     * Creates the fingerprint of a writer configuration.
+     *
+     * @param config the configuration of the writers
+     * @param executedProject the project, the model of which holds the plugin configurations read by the writers
+     * @param additionalConfig the additional configuration files, may be <code>null</code>
+     * @param additionalConfigContents the resolved content of each additional configuration file, before filtering
+     * @param extras further inputs of the mojo, e.g. its class and the plugin version
+     */
+    ConfigurationFingerprint( EclipseWriterConfig config, MavenProject executedProject,
+                              EclipseConfigFile[] additionalConfig, byte[][] additionalConfigContents, String extras )
+    {
+        file = new File( config.getEclipseProjectDirectory(), FILE_NAME );
+
+        StringBuilder value = new StringBuilder( FORMAT ).append( '\n' ).append( extras ).append( '\n' );
+        StringWriter model = new StringWriter();
+        try
+        {
+            new MavenXpp3Writer().write( model, executedProject.getModel() );
+        }
+        catch ( IOException e )
+        {
+            // can't happen with a StringWriter
+            throw new IllegalStateException( e );
+        }
+        value.append( model ).append( '\n' );
+
+        value.append( config.getEclipseProjectName() ).append( '\n' );
+        value.append( config.getProjectNameTemplate() ).append( '\n' );
+        value.append( config.getEclipseProjectDirectory() ).append( '\n' );
+        value.append( config.getProjectBaseDir() ).append( '\n' );
+        value.append( config.getBuildOutputDirectory() ).append( '\n' );
+        value.append( config.getPackaging() ).append( '\n' );
+        value.append( config.getWtpVersion() ).append( ':' ).append( config.getWtpapplicationxml() ).append( ':' );
+        value.append( config.getAjdtVersion() ).append( ':' ).append( config.getJeeVersion() ).append( ':' );
+        value.append( config.getContextName() ).append( ':' ).append( config.isClasspathContainersLast() );
+        value.append( '\n' ).append( config.getOSGIManifestFile() ).append( '\n' );
+        if ( config.getLocalRepository() != null )
+        {
+            value.append( config.getLocalRepository().getBasedir() );
+        }
+        value.append( '\n' );
+        if ( config.getWorkspaceConfiguration() != null )
+        {
+            WorkspaceConfiguration workspace = config.getWorkspaceConfiguration();
+            value.append( workspace.getWorkspaceDirectory() ).append( ':' ).append( workspace.getCodeStylesURL() );
+            value.append( ':' ).append( workspace.getActiveStyleProfileName() ).append( ':' );
+            value.append( workspace.getDefaultClasspathContainer() ).append( ':' );
+            value.append( workspace.getDefaultDeployServerId() ).append( ':' );
+            value.append( workspace.getDefaultDeployServerName() ).append( ':' );
+            value.append( workspace.getWebsphereVersion() );
+        }
+        value.append( '\n' );
+
+        value.append( config.getProjectnatures() ).append( '\n' );
+        value.append( config.getClasspathContainers() ).append( '\n' );
+        value.append( config.getProjectFacets() ).append( '\n' );
+        StringWriter xml = new StringWriter();
+        XMLWriter writer = new PrettyPrintXMLWriter( xml );
+        writer.startElement( "fingerprint" );
+        if ( config.getBuildCommands() != null )
+        {
+            for ( Object command : config.getBuildCommands() )
+            {
+                ( (BuildCommand) command ).print( writer );
+            }
+        }
+        if ( config.getLinkedResources() != null )
+        {
+            for ( Object resource : config.getLinkedResources() )
+            {
+                ( (LinkedResource) resource ).print( writer );
+            }
+        }
+        writer.endElement();
+        value.append( xml ).append( '\n' );
+
+        if ( config.getSourceDirs() != null )
+        {
+            for ( EclipseSourceDir dir : config.getSourceDirs() )
+            {
+                value.append( dir ).append( '\n' );
+            }
+        }
+        if ( additionalConfig != null )
+        {
+            // the filtered content only depends on the resolved content and on the model
+            for ( int i = 0; i < additionalConfig.length; i++ )
+            {
+                value.append( additionalConfig[i].getName() ).append( ':' ).append( additionalConfig[i].isFiltering() );
+                value.append( ':' ).append( IdeUtils.sha1Hex( additionalConfigContents[i] ) ).append( '\n' );
+            }
+        }
+        if ( config.getDeps() != null )
+        {
+            for ( IdeDependency dep : config.getDeps() )
+            {
+                value.append( dep.getId() ).append( ':' ).append( dep.getType() ).append( ':' );
+                value.append( dep.getFile() ).append( ':' ).append( dep.isReferencedProject() ).append( ':' );
+                value.append( dep.isTestDependency() ).append( ':' ).append( dep.isSystemScoped() ).append( ':' );
+                value.append( dep.isProvided() ).append( ':' ).append( dep.isAddedToClasspath() ).append( ':' );
+                value.append( dep.isOsgiBundle() ).append( ':' ).append( dep.getEclipseProjectName() ).append( ':' );
+                value.append( dep.isAjdtDependency() ).append( ':' ).append( dep.isAjdtWeaveDependency() );
+                value.append( '\n' );
+            }
+        }
+        configuration = IdeUtils.sha1Hex( value.toString() );
+        updateAttachments( config.getDeps() );
+    }
+
+    /**
+     * Compute the fingerprint of the sources and javadoc attachments again, after they were updated in place.
+     *
+     * @param deps the dependencies
+     */
+    void updateAttachments( IdeDependency[] deps )
+    {
+        StringBuilder value = new StringBuilder();
+        if ( deps != null )
+        {
+            for ( IdeDependency dep : deps )
+            {
+                value.append( dep.getSourceAttachment() ).append( ':' ).append( dep.getJavadocAttachment() );
+                value.append( '\n' );
+            }
+        }
+        attachments = IdeUtils.sha1Hex( value.toString() );
+    }
+
+    /**
+     * Add files output by the writers, their size and modification time are stored with the fingerprint.
+     *
+     * @param files the files
+     */
+    void addOutputs( Collection<File> files )
+    {
+        outputs.addAll( files );
+    }
+
+    /**
+     * @param withAttachments whether the attachments must be unchanged as well
+     * @param log the mojo log
+     * @return <code>true</code> if the stored fingerprint is the same and the files output by the writers were not
+     *         changed since it was stored
+     */
+    boolean isUnchanged( boolean withAttachments, Log log )
+    {
+        if ( !file.isFile() )
+        {
+            return false;
+        }
+        try
+        {
+            String stored = FileUtils.fileRead( file, "UTF-8" );
+            if ( !stored.contains( CONFIGURATION + configuration + '\n' )
+                || ( withAttachments && !stored.contains( ATTACHMENTS + attachments + '\n' ) ) )
+            {
+                return false;
+            }
+            for ( String line : stored.split( "\n" ) )
+            {
+                if ( line.startsWith( OUTPUT ) )
+                {
+                    String[] stamp = line.substring( OUTPUT.length() ).split( ":", 3 );
+                    File output = new File( stamp[2] );
+                    if ( !output.isFile() || !stamp[0].equals( String.valueOf( output.length() ) )
+                        || !stamp[1].equals( String.valueOf( output.lastModified() ) ) )
+                    {
+                        log.debug( "Changed output " + output );
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Unable to read " + file, e );
+            return false;
+        }
+    }
+
+    /**
+     * Store the fingerprint, after the writers ran.
+     *
+     * @param log the mojo log
+     */
+    void store( Log log )
+    {
+        try
+        {
+            StringBuilder value = new StringBuilder( CONFIGURATION ).append( configuration ).append( '\n' );
+            value.append( ATTACHMENTS ).append( attachments ).append( '\n' );
+            for ( File output : outputs )
+            {
+                value.append( OUTPUT ).append( output.length() ).append( ':' ).append( output.lastModified() );
+                value.append( ':' ).append( output.getAbsolutePath() ).append( '\n' );
+            }
+            file.getParentFile().mkdirs();
+            FileUtils.fileWrite( file, "UTF-8", value.toString() );
+        }
+        catch ( IOException e )
+        {
+            log.warn( Messages.getString( "EclipsePlugin.cantwritetofile", file.getAbsolutePath() ) );
+            log.debug( e.getMessage(), e );
+        }
+    }
+}
@@ -31,7 +31,7 @@ import java.io.File;
 /**
  * Deletes the .project, .classpath, .wtpmodules files and .settings folder used by Eclipse.
  */
-@Mojo( name = "clean" )
+@Mojo( name = "clean", threadSafe = true )
 public class EclipseCleanMojo
     extends AbstractMojo
 {
@@ -0,0 +1,59 @@
+package org.apache.maven.plugin.eclipse;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugins.annotations.Execute;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Generates the same eclipse configuration files as the <code>eclipse</code> goal for all projects of the reactor, in
+ * a single execution. The projects are processed concurrently on a fork-join pool and share the dependency
+ * resolution of the session, so the generation time of a large reactor scales with the number of cores instead of the
+ * number of projects.
+ * <p>
+ * All projects are generated with the plugin configuration of the execution root. Projects with a different
+ * configuration of the plugin are reported, use the <code>eclipse</code> goal for them.
+ *
+ * @since 3.2.1
+ */
+@Mojo( name = "reactor", aggregator = true, requiresProject = true, threadSafe = true )
+@Execute( phase = LifecyclePhase.GENERATE_RESOURCES )
+public class EclipseReactorPlugin
+    extends EclipsePlugin
+{
+
+    /**
+     * The number of projects processed concurrently. The default value <code>0</code> uses the number of available
+     * processors.
+     */
+    @Parameter( property = "eclipse.reactorThreads", defaultValue = "0" )
+    private int reactorThreads;
+
+    /**
+     * {@inheritDoc}
+     */
+    protected int getReactorThreads()
+    {
+        return reactorThreads > 0 ? reactorThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+}
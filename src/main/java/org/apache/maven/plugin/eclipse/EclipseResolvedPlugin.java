@@ -0,0 +1,52 @@
+package org.apache.maven.plugin.eclipse;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugins.annotations.Execute;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+/**
+ * Generates the same eclipse configuration files as the <code>eclipse</code> goal, but takes the project dependencies
+ * from the dependency resolution done by Maven instead of collecting and resolving them a second time. Project
+ * references to reactor and workspace projects are computed as with the <code>eclipse</code> goal.
+ * <p>
+ * As Maven resolves the dependencies before the goal is executed, dependencies to other reactor projects have to be
+ * available in the local repository or built in the same session.
+ *
+ * @since 3.2.1
+ */
+@Mojo( name = "eclipse-resolved", requiresProject = true, requiresDependencyResolution = ResolutionScope.TEST,
+       threadSafe = true )
+@Execute( phase = LifecyclePhase.GENERATE_RESOURCES )
+public class EclipseResolvedPlugin
+    extends EclipsePlugin
+{
+
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isUseResolvedProjectArtifacts()
+    {
+        return true;
+    }
+
+}
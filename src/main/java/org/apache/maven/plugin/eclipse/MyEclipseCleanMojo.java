@@ -31,7 +31,7 @@ import org.apache.maven.plugins.annotations.Mojo;
  * @author Olivier Jacob
  * @since 2.5
  */
-@Mojo( name = "myeclipse-clean", defaultPhase = LifecyclePhase.NONE )
+@Mojo( name = "myeclipse-clean", defaultPhase = LifecyclePhase.NONE, threadSafe = true )
 public class MyEclipseCleanMojo
     extends EclipseCleanMojo
 {
@@ -34,7 +34,7 @@ import org.codehaus.plexus.util.FileUtils;
  *
  * @author <a href="mailto:nir@cfc.at">Richard van Nieuwenhoven</a>
  */
-@Mojo( name = "rad-clean" )
+@Mojo( name = "rad-clean", threadSafe = true )
 public class RadCleanMojo
     extends EclipseCleanMojo
 {
@@ -0,0 +1,36 @@
+package org.apache.maven.plugin.eclipse;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Generates the same rad-6 configuration files as the <code>rad</code> goal without forking the lifecycle up to
+ * <code>generate-resources</code>. Only the POM of the project is used: source and resource folders added by plugins
+ * during the build, for example by code generators, are not included. Useful to regenerate the configuration quickly
+ * or to prepare the configuration in a CI build.
+ *
+ * @since 3.2.1
+ */
+@Mojo( name = "rad-generate", requiresProject = true, threadSafe = true )
+public class RadGeneratePlugin
+    extends AbstractRadPlugin
+{
+}
@@ -20,23 +20,31 @@ package org.apache.maven.plugin.eclipse;
  */
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.SuffixFileFilter;
-import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.ide.IdeUtils;
+import org.apache.maven.plugin.ide.NotAvailableIndex;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 /**
- * Removes the not-available marker files from the repository.
+ * Removes the index of the not available sources and javadoc attachments from the repository, as well as the
+ * not-available marker files written by older versions of the plugin. The repository is walked in parallel, marker
+ * files are deleted as soon as they are found and directories outside of the <code>groupIdPrefix</code> are not
+ * entered.
  *
  * @author <a href="mailto:baerrach@apache.org">Barrie Treloar</a>
  * @version $Id$
@@ -45,37 +53,108 @@ import org.apache.maven.plugins.annotations.Parameter;
 public class RemoveCacheMojo
     extends AbstractMojo
 {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
     /**
      * Local maven repository.
      */
     @Parameter( property = "localRepository", required = true, readonly = true )
     private ArtifactRepository localRepository;
 
+    /**
+     * Only remove the marker files of artifacts whose groupId starts with the given prefix, e.g.
+     * <code>org.apache</code>. The index of the not available attachments doesn't record the groupIds and is kept
+     * when a prefix is given.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.removeCache.groupIdPrefix" )
+    private String groupIdPrefix;
+
+    /**
+     * Only remove the marks which are older than the given number of days. With the default value of <code>0</code>
+     * all marks are removed.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.removeCache.olderThanDays", defaultValue = "0" )
+    private int olderThanDays;
+
+    /**
+     * Number of threads walking the local repository, <code>0</code> uses one thread per processor.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.removeCache.threads", defaultValue = "0" )
+    private int threads;
+
+    private final AtomicLong directories = new AtomicLong();
+
+    private final AtomicLong markerFiles = new AtomicLong();
+
+    private final AtomicLong deletedFiles = new AtomicLong();
+
     public void execute()
         throws MojoExecutionException, MojoFailureException
     {
         getLog().info( Messages.getString( "RemoveCacheMojo.checking" ) );
-        List notAvailableMarkerFiles = getNotAvailableMarkerFiles();
-        if ( !notAvailableMarkerFiles.isEmpty() )
+        long start = System.currentTimeMillis();
+        long markedBefore = olderThanDays > 0 ? start - olderThanDays * DAY_MILLIS : Long.MAX_VALUE;
+
+        removeFromIndex( markedBefore );
+
+        File localRepositoryBaseDirectory = new File( localRepository.getBasedir() );
+        if ( localRepositoryBaseDirectory.isDirectory() )
         {
-            deleteMarkerFiles( notAvailableMarkerFiles );
+            String prefixPath = groupIdPrefix != null ? groupIdPrefix.trim().replace( '.', '/' ) : "";
+            Path root = localRepositoryBaseDirectory.toPath();
+            ForkJoinPool pool =
+                new ForkJoinPool( threads > 0 ? threads : Runtime.getRuntime().availableProcessors() );
+            try
+            {
+                pool.invoke( new RemoveMarkerFilesAction( root, root, prefixPath, markedBefore ) );
+            }
+            finally
+            {
+                pool.shutdown();
+            }
         }
+
+        long millis = Math.max( 1, System.currentTimeMillis() - start );
+        getLog().info( Messages.getString( "RemoveCacheMojo.summary", new Object[] {
+            String.valueOf( deletedFiles.get() ), String.valueOf( markerFiles.get() ),
+            String.valueOf( directories.get() ), String.valueOf( millis ),
+            String.valueOf( directories.get() * 1000 / millis ) } ) );
         getLog().info( Messages.getString( "RemoveCacheMojo.complete" ) );
     }
 
     /**
-     * Delete each file in the notAvailableMarkerFiles list.
-     * 
-     * @param notAvailableMarkerFiles the list of marker files to delete.
+     * Remove the marks from the index of the not available attachments.
+     *
+     * @param markedBefore only marks older than this time are removed
      */
-    private void deleteMarkerFiles( List/* <File> */notAvailableMarkerFiles )
+    private void removeFromIndex( long markedBefore )
     {
-        for ( Object notAvailableMarkerFile : notAvailableMarkerFiles )
+        File indexFile = NotAvailableIndex.getIndexFile( localRepository.getBasedir() );
+        if ( !indexFile.exists() )
+        {
+            return;
+        }
+        if ( groupIdPrefix != null && groupIdPrefix.trim().length() > 0 )
+        {
+            getLog().info( Messages.getString( "RemoveCacheMojo.indexkept", indexFile ) );
+        }
+        else if ( markedBefore != Long.MAX_VALUE )
+        {
+            NotAvailableIndex index = new NotAvailableIndex( indexFile, getLog() );
+            index.removeMarkedBefore( markedBefore );
+            index.store( getLog() );
+        }
+        else
         {
-            File markerFile = (File) notAvailableMarkerFile;
             try
             {
-                IdeUtils.delete( markerFile, getLog() );
+                IdeUtils.delete( indexFile, getLog() );
             }
             catch ( MojoExecutionException e )
             {
@@ -85,26 +164,103 @@ public class RemoveCacheMojo
     }
 
     /**
-     * A list of all the not available marker <code>File</code>s in the localRepository. If there are no marker files
-     * then an empty list is returned.
-     * 
-     * @return all the not available marker files in the localRepository or an empty list.
+     * Deletes the marker files of a directory and walks its sub directories in parallel.
      */
-    private List/* <File> */getNotAvailableMarkerFiles()
+    private class RemoveMarkerFilesAction
+        extends RecursiveAction
     {
-        File localRepositoryBaseDirectory = new File( localRepository.getBasedir() );
-        List markerFiles = new ArrayList();
+        private static final long serialVersionUID = 1L;
+
+        private final Path root;
+
+        private final Path directory;
+
+        private final String prefixPath;
+
+        private final long markedBefore;
+
+        RemoveMarkerFilesAction( Path root, Path directory, String prefixPath, long markedBefore )
+        {
+            this.root = root;
+            this.directory = directory;
+            this.prefixPath = prefixPath;
+            this.markedBefore = markedBefore;
+        }
+
+        protected void compute()
+        {
+            directories.incrementAndGet();
+            String relativePath = root.relativize( directory ).toString().replace( File.separatorChar, '/' );
+            boolean inPrefix = relativePath.startsWith( prefixPath );
+
+            List<RemoveMarkerFilesAction> subActions = new ArrayList<RemoveMarkerFilesAction>();
+            DirectoryStream<Path> stream = null;
+            try
+            {
+                stream = Files.newDirectoryStream( directory );
+                for ( Path path : stream )
+                {
+                    String name = path.getFileName().toString();
+                    BasicFileAttributes attributes = Files.readAttributes( path, BasicFileAttributes.class );
+                    if ( attributes.isDirectory() )
+                    {
+                        String childPath = relativePath.length() > 0 ? relativePath + '/' + name : name;
+                        if ( !name.startsWith( "." ) && ( inPrefix || childPath.startsWith( prefixPath )
+                            || prefixPath.startsWith( childPath + '/' ) ) )
+                        {
+                            subActions.add( new RemoveMarkerFilesAction( root, path, prefixPath, markedBefore ) );
+                        }
+                    }
+                    else if ( name.endsWith( IdeUtils.NOT_AVAILABLE_MARKER_FILE_SUFFIX ) )
+                    {
+                        markerFiles.incrementAndGet();
+                        if ( inPrefix && attributes.lastModifiedTime().toMillis() < markedBefore )
+                        {
+                            deleteMarkerFile( path );
+                        }
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( e.getMessage(), e );
+            }
+            finally
+            {
+                if ( stream != null )
+                {
+                    try
+                    {
+                        stream.close();
+                    }
+                    catch ( IOException e )
+                    {
+                        // ignore
+                    }
+                }
+            }
+            invokeAll( subActions );
+        }
 
-        Iterator iterator =
-            FileUtils.iterateFiles( localRepositoryBaseDirectory,
-                                    new SuffixFileFilter( IdeUtils.NOT_AVAILABLE_MARKER_FILE_SUFFIX ),
-                                    TrueFileFilter.INSTANCE );
-        while ( iterator.hasNext() )
+        private void deleteMarkerFile( Path markerFile )
         {
-            File notAvailableMarkerFile = (File) iterator.next();
-            markerFiles.add( notAvailableMarkerFile );
+            try
+            {
+                if ( Files.deleteIfExists( markerFile ) )
+                {
+                    deletedFiles.incrementAndGet();
+                    if ( getLog().isDebugEnabled() )
+                    {
+                        getLog().debug( Messages.getString( "EclipseCleanMojo.deletingFile", markerFile ) );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( Messages.getString( "EclipseCleanMojo.failedtodelete", new Object[] {
+                    markerFile.getFileName(), markerFile } ) );
+            }
         }
-        return markerFiles;
     }
 
 }
@@ -21,6 +21,11 @@ package org.apache.maven.plugin.eclipse;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.plugin.ide.IdeDependency;
@@ -42,6 +47,8 @@ public class WorkspaceConfiguration
 
     private IdeDependency[] workspaceArtefacts;
 
+    private Map<String, List<IdeDependency>> workspaceArtefactIndex = Collections.emptyMap();
+
     private String defaultDeployServerId;
 
     private String defaultDeployServerName;
@@ -104,6 +111,35 @@ public class WorkspaceConfiguration
     public void setWorkspaceArtefacts( IdeDependency[] workspaceArtefacts )
     {
         this.workspaceArtefacts = workspaceArtefacts;
+
+        Map<String, List<IdeDependency>> index = new HashMap<String, List<IdeDependency>>();
+        if ( workspaceArtefacts != null )
+        {
+            for ( IdeDependency workspaceArtefact : workspaceArtefacts )
+            {
+                String key = workspaceArtefact.getGroupId() + ':' + workspaceArtefact.getArtifactId();
+                List<IdeDependency> artefacts = index.get( key );
+                if ( artefacts == null )
+                {
+                    artefacts = new ArrayList<IdeDependency>( 1 );
+                    index.put( key, artefacts );
+                }
+                artefacts.add( workspaceArtefact );
+            }
+        }
+        this.workspaceArtefactIndex = index;
+    }
+
+    /**
+     * @param groupId the group id
+     * @param artifactId the artifact id
+     * @return the workspace artefacts with the given group and artifact id, in the order of
+     *         {@link #getWorkspaceArtefacts()}
+     */
+    public List<IdeDependency> getWorkspaceArtefacts( String groupId, String artifactId )
+    {
+        List<IdeDependency> artefacts = workspaceArtefactIndex.get( groupId + ':' + artifactId );
+        return artefacts != null ? artefacts : Collections.<IdeDependency>emptyList();
     }
 
     public String getDefaultDeployServerId()
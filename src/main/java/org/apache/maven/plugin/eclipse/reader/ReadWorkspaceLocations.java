@@ -22,8 +22,8 @@ package org.apache.maven.plugin.eclipse.reader;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -35,6 +35,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarFile;
 
 import org.apache.maven.plugin.eclipse.Messages;
@@ -44,8 +49,11 @@ import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.pull.MXParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParser;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.eclipse.core.internal.localstore.SafeChunkyInputStream;
 
@@ -63,17 +71,36 @@ public class ReadWorkspaceLocations
     public static final String METADATA_PLUGINS_ORG_ECLIPSE_CORE_RESOURCES_PROJECTS =
         ".metadata/.plugins/org.eclipse.core.resources/.projects";
 
-    private static final String[] PARENT_VERSION = new String[] { "parent", "version" };
+    private static final String PARENT = "parent";
 
-    private static final String[] PARENT_GROUP_ID = new String[] { "parent", "groupId" };
+    private static final String PARENT_VERSION = "parent.version";
 
-    private static final String[] PACKAGING = new String[] { "packaging" };
+    private static final String PARENT_GROUP_ID = "parent.groupId";
 
-    private static final String[] VERSION = new String[] { "version" };
+    private static final String PACKAGING = "packaging";
 
-    private static final String[] GROUP_ID = new String[] { "groupId" };
+    private static final String VERSION = "version";
 
-    private static final String[] ARTEFACT_ID = new String[] { "artifactId" };
+    private static final String GROUP_ID = "groupId";
+
+    private static final String ARTEFACT_ID = "artifactId";
+
+    private static final String NAME = "name";
+
+    /**
+     * The elements of a pom after which the rest of the file is not read.
+     */
+    private static final String[] POM_LAST_VALUES = new String[] { ARTEFACT_ID, GROUP_ID, VERSION, PACKAGING };
+
+    /**
+     * The elements of a <code>.project</code> file after which the rest of the file is not read.
+     */
+    private static final String[] PROJECT_LAST_VALUES = new String[] { NAME };
+
+    /**
+     * The maximum number of workspace projects read concurrently, the reads mostly wait for the file system.
+     */
+    private static final int MAX_READ_THREADS = 2 * Runtime.getRuntime().availableProcessors();
 
     private static final String METADATA_PLUGINS_ORG_ECLIPSE_CORE_RUNTIME_LAUNCHING_PREFS =
         ".metadata/.plugins/org.eclipse.core.runtime/.settings/org.eclipse.jdt.launching.prefs";
@@ -93,6 +120,25 @@ public class ReadWorkspaceLocations
 
     private static final String CLASSPATHENTRY_FORMAT = ReadWorkspaceLocations.CLASSPATHENTRY_DEFAULT + "/{0}/{1}";
 
+    /**
+     * The index of the workspace, <code>null</code> to read the whole workspace.
+     */
+    private final WorkspaceIndex index;
+
+    public ReadWorkspaceLocations()
+    {
+        this( null );
+    }
+
+    /**
+     * @param index the index of the workspace, only the projects and preferences which changed since they were indexed
+     *            are read
+     */
+    public ReadWorkspaceLocations( WorkspaceIndex index )
+    {
+        this.index = index;
+    }
+
     public void init( Log log, WorkspaceConfiguration workspaceConfiguration, MavenProject project,
                       String wtpDefaultServer, boolean preferStandardClasspathContainer )
     {
@@ -103,6 +149,10 @@ public class ReadWorkspaceLocations
                                                                             log ) );
         readWorkspace( workspaceConfiguration, log );
         detectWTPDefaultServer( workspaceConfiguration, wtpDefaultServer, log );
+        if ( index != null )
+        {
+            index.store( log );
+        }
     }
 
     /**
@@ -324,25 +374,16 @@ public class ReadWorkspaceLocations
     }
 
     /**
-     * get a value from a dom element.
+     * get a value read from an xml file.
      * 
-     * @param element the element to get a value from
-     * @param elementNames the sub elements to get
+     * @param values the values of the file
+     * @param name the name of the value, sub elements of <code>parent</code> are prefixed with <code>parent.</code>
      * @param defaultValue teh default value if the value was null or empty
-     * @return the value of the dome element.
+     * @return the value of the element.
      */
-    private String getValue( Xpp3Dom element, String[] elementNames, String defaultValue )
+    private String getValue( Map<String, String> values, String name, String defaultValue )
     {
-        String value = null;
-        Xpp3Dom dom = element;
-        for ( int index = 0; dom != null && index < elementNames.length; index++ )
-        {
-            dom = dom.getChild( elementNames[index] );
-        }
-        if ( dom != null )
-        {
-            value = dom.getValue();
-        }
+        String value = values.get( name );
         if ( value == null || value.trim().length() == 0 )
         {
             return defaultValue;
@@ -353,6 +394,94 @@ public class ReadWorkspaceLocations
         }
     }
 
+    /**
+     * Read the values of the top level elements of an xml file and of the elements of its <code>parent</code>
+     * element. The file is streamed instead of building its dom: the content of the other elements is skipped, and
+     * the file is not read any further once all the given elements were read.
+     * 
+     * @param file the xml file
+     * @param lastValues the elements after which the rest of the file is not needed
+     * @return the trimmed values keyed by element name, <code>null</code> for elements with child elements
+     * @throws XmlPullParserException if the file is not well-formed
+     * @throws IOException if the file can't be read
+     */
+    /* package */Map<String, String> readValues( File file, String[] lastValues )
+        throws XmlPullParserException, IOException
+    {
+        Map<String, String> values = new HashMap<String, String>();
+        Reader reader = ReaderFactory.newXmlReader( file );
+        try
+        {
+            XmlPullParser parser = new MXParser();
+            parser.setInput( reader );
+            parser.nextTag();
+            int remaining = lastValues.length;
+            while ( remaining > 0 && parser.nextTag() == XmlPullParser.START_TAG )
+            {
+                String name = parser.getName();
+                if ( PARENT.equals( name ) )
+                {
+                    while ( parser.nextTag() == XmlPullParser.START_TAG )
+                    {
+                        values.put( PARENT + '.' + parser.getName(), readValue( parser ) );
+                    }
+                    continue;
+                }
+                if ( !values.containsKey( name ) )
+                {
+                    for ( String lastValue : lastValues )
+                    {
+                        if ( lastValue.equals( name ) )
+                        {
+                            remaining--;
+                        }
+                    }
+                }
+                values.put( name, readValue( parser ) );
+            }
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+        return values;
+    }
+
+    /**
+     * Read the text of the current element and skip its child elements.
+     * 
+     * @param parser the parser, on the start tag of the element
+     * @return the trimmed text, or <code>null</code> if the element has child elements
+     */
+    private String readValue( XmlPullParser parser )
+        throws XmlPullParserException, IOException
+    {
+        StringBuilder value = new StringBuilder();
+        boolean children = false;
+        for ( int depth = 1; depth > 0; )
+        {
+            int event = parser.next();
+            if ( event == XmlPullParser.START_TAG )
+            {
+                children = true;
+                depth++;
+            }
+            else if ( event == XmlPullParser.END_TAG )
+            {
+                depth--;
+            }
+            else if ( event == XmlPullParser.TEXT && depth == 1 )
+            {
+                value.append( parser.getText() );
+            }
+            else if ( event == XmlPullParser.END_DOCUMENT )
+            {
+                throw new XmlPullParserException( "unexpected end of document", parser, null );
+            }
+        }
+        return children ? null : value.toString().trim();
+    }
+
     /**
      * Read the artefact information from the pom in the project location and the eclipse project name from the .project
      * file.
@@ -370,13 +499,13 @@ public class ReadWorkspaceLocations
         String eclipseProjectName = projectLocation.getName();
         if ( projectFile.exists() )
         {
-            Xpp3Dom project = Xpp3DomBuilder.build( new FileReader( projectFile ) );
-            eclipseProjectName = getValue( project, new String[] { "name" }, eclipseProjectName );
+            Map<String, String> project = readValues( projectFile, ReadWorkspaceLocations.PROJECT_LAST_VALUES );
+            eclipseProjectName = getValue( project, ReadWorkspaceLocations.NAME, eclipseProjectName );
         }
         File pomFile = new File( projectLocation, "pom.xml" );
         if ( pomFile.exists() )
         {
-            Xpp3Dom pom = Xpp3DomBuilder.build( new FileReader( pomFile ) );
+            Map<String, String> pom = readValues( pomFile, ReadWorkspaceLocations.POM_LAST_VALUES );
 
             String artifact = getValue( pom, ReadWorkspaceLocations.ARTEFACT_ID, null );
             String group =
@@ -404,12 +533,23 @@ public class ReadWorkspaceLocations
         Map<String, String> detectedRuntimes = new HashMap<String, String>();
         if ( workspaceConfiguration.getWorkspaceDirectory() != null )
         {
+            File prefs =
+                new File( workspaceConfiguration.getWorkspaceDirectory(),
+                          ReadWorkspaceLocations.METADATA_PLUGINS_ORG_ECLIPSE_CORE_RUNTIME_SERVER_PREFS );
+            if ( index != null )
+            {
+                Map<String, String> indexedRuntimes = index.getServers( prefs );
+                if ( indexedRuntimes != null )
+                {
+                    return indexedRuntimes;
+                }
+            }
+            long stamp = prefs.lastModified();
+            boolean failed = false;
+
             Xpp3Dom runtimesElement = null;
             try
             {
-                File prefs =
-                    new File( workspaceConfiguration.getWorkspaceDirectory(),
-                              ReadWorkspaceLocations.METADATA_PLUGINS_ORG_ECLIPSE_CORE_RUNTIME_SERVER_PREFS );
                 if ( prefs.exists() )
                 {
                     Properties properties = new Properties();
@@ -425,6 +565,7 @@ public class ReadWorkspaceLocations
             catch ( Exception e )
             {
                 logger.error( "Could not read workspace wtp server runtimes preferences : " + e.getMessage() );
+                failed = true;
             }
 
             if ( runtimesElement != null )
@@ -443,6 +584,10 @@ public class ReadWorkspaceLocations
                     logger.debug( "Detected WTP runtime with id: \"" + id + "\" and name: \"" + name + "\"" );
                 }
             }
+            if ( index != null && !failed )
+            {
+                index.putServers( stamp, detectedRuntimes );
+            }
         }
         return detectedRuntimes;
     }
@@ -475,16 +620,26 @@ public class ReadWorkspaceLocations
             return jreMap;
         }
 
-        Xpp3Dom vms;
-        try
+        File prefs =
+            new File( workspaceLocation,
+                      ReadWorkspaceLocations.METADATA_PLUGINS_ORG_ECLIPSE_CORE_RUNTIME_LAUNCHING_PREFS );
+        if ( !prefs.exists() )
         {
-            File prefs =
-                new File( workspaceLocation,
-                          ReadWorkspaceLocations.METADATA_PLUGINS_ORG_ECLIPSE_CORE_RUNTIME_LAUNCHING_PREFS );
-            if ( !prefs.exists() )
+            return null;
+        }
+        if ( index != null )
+        {
+            Map<String, String> indexedJREs = index.getJREs( prefs );
+            if ( indexedJREs != null )
             {
-                return null;
+                return indexedJREs;
             }
+        }
+        long stamp = prefs.lastModified();
+
+        Xpp3Dom vms;
+        try
+        {
             Properties properties = new Properties();
             properties.load( new FileInputStream( prefs ) );
             vms =
@@ -548,6 +703,10 @@ public class ReadWorkspaceLocations
                 }
             }
         }
+        if ( index != null )
+        {
+            index.putJREs( stamp, jreMap );
+        }
         return jreMap;
     }
 
@@ -559,64 +718,197 @@ public class ReadWorkspaceLocations
     public List<File> readProjectLocations( File workspaceDirectory, Log logger )
     {
         List<File> projectLocations = new ArrayList<File>();
+        for ( File project : listMetadataProjects( workspaceDirectory ) )
+        {
+            File projectLocation = readProjectLocation( workspaceDirectory, project, logger );
+            if ( projectLocation != null )
+            {
+                projectLocations.add( projectLocation );
+            }
+        }
+        return projectLocations;
+    }
+
+    /**
+     * @param workspaceDirectory the directory of the workspace
+     * @return the directories of the projects in the workspace metadata
+     */
+    private List<File> listMetadataProjects( File workspaceDirectory )
+    {
+        List<File> projects = new ArrayList<File>();
         File projectsDirectory =
             new File( workspaceDirectory, ReadWorkspaceLocations.METADATA_PLUGINS_ORG_ECLIPSE_CORE_RESOURCES_PROJECTS );
 
-        if ( projectsDirectory.exists() )
+        File[] files = projectsDirectory.listFiles();
+        if ( files != null )
         {
-            for ( File project : projectsDirectory.listFiles() )
+            for ( File project : files )
             {
                 if ( project.isDirectory() )
                 {
-                    try
-                    {
-                        File projectLocation = getProjectLocation( workspaceDirectory, project );
-                        if ( projectLocation != null )
-                        {
-                            projectLocations.add( projectLocation );
-                        }
-                    }
-                    catch ( Exception e )
-                    {
-                        logger.warn( "could not read workspace project:" + project, e );
-                    }
+                    projects.add( project );
                 }
             }
         }
+        return projects;
+    }
 
-        return projectLocations;
+    /**
+     * @param workspaceDirectory the directory of the workspace
+     * @param project the project subdirectory in the metadata
+     * @param logger logger
+     * @return the physical location of the project, or <code>null</code> if it is not found or can't be read
+     */
+    private File readProjectLocation( File workspaceDirectory, File project, Log logger )
+    {
+        try
+        {
+            return getProjectLocation( workspaceDirectory, project );
+        }
+        catch ( Exception e )
+        {
+            logger.warn( "could not read workspace project:" + project, e );
+            return null;
+        }
+    }
+
+    /**
+     * Read the artefact of a workspace project, the failures are reported and ignored. An indexed project is only read
+     * again if one of its files changed.
+     * 
+     * @param workspaceDirectory the directory of the workspace
+     * @param project the project subdirectory in the metadata
+     * @param logger logger
+     * @return an {@link IdeDependency} or null.
+     */
+    private IdeDependency readWorkspaceProject( File workspaceDirectory, File project, Log logger )
+    {
+        if ( index != null )
+        {
+            WorkspaceIndex.ProjectEntry entry = index.getProject( project );
+            if ( entry != null )
+            {
+                return entry.getArtefact();
+            }
+        }
+
+        File projectLocation;
+        try
+        {
+            projectLocation = getProjectLocation( workspaceDirectory, project );
+        }
+        catch ( Exception e )
+        {
+            logger.warn( "could not read workspace project:" + project, e );
+            return null;
+        }
+        String stamp = index != null ? index.getProjectStamp( project, projectLocation ) : null;
+
+        IdeDependency artefact = null;
+        if ( projectLocation != null )
+        {
+            try
+            {
+                logger.debug( "read workpsace project " + projectLocation );
+                artefact = readArtefact( projectLocation, logger );
+            }
+            catch ( Exception e )
+            {
+                logger.warn( "could not read workspace project from:" + projectLocation, e );
+                return null;
+            }
+        }
+        if ( index != null )
+        {
+            index.putProject( project, stamp, projectLocation, artefact );
+        }
+        return artefact;
     }
 
     /**
-     * Scan the eclipse workspace and create a array with {@link IdeDependency} for all found artifacts.
+     * Scan the eclipse workspace and create a array with {@link IdeDependency} for all found artifacts. The projects
+     * are read concurrently, the artifacts are in the order of the workspace metadata.
      * 
      * @param workspaceConfiguration the location of the eclipse workspace.
      * @param logger the logger to report errors and debug info.
      */
-    private void readWorkspace( WorkspaceConfiguration workspaceConfiguration, Log logger )
+    /* package */void readWorkspace( WorkspaceConfiguration workspaceConfiguration, Log logger )
+    {
+        if ( index == null )
+        {
+            workspaceConfiguration.setWorkspaceArtefacts( readWorkspaceArtefacts( workspaceConfiguration, logger ) );
+            return;
+        }
+
+        // the workspace is only checked by the first project of the session
+        synchronized ( index )
+        {
+            IdeDependency[] artefacts = index.getWorkspaceArtefacts();
+            if ( artefacts == null )
+            {
+                artefacts = readWorkspaceArtefacts( workspaceConfiguration, logger );
+            }
+            else
+            {
+                logger.debug( artefacts.length + " indexed from workspace "
+                    + workspaceConfiguration.getWorkspaceDirectory() );
+            }
+            workspaceConfiguration.setWorkspaceArtefacts( artefacts );
+        }
+    }
+
+    private IdeDependency[] readWorkspaceArtefacts( WorkspaceConfiguration workspaceConfiguration, final Log logger )
     {
         List<IdeDependency> dependencies = new ArrayList<IdeDependency>();
-        File workspaceDirectory = workspaceConfiguration.getWorkspaceDirectory();
+        final File workspaceDirectory = workspaceConfiguration.getWorkspaceDirectory();
+        List<File> projects = new ArrayList<File>();
         if ( workspaceDirectory != null )
         {
-            for ( File projectLocation : readProjectLocations( workspaceDirectory, logger ) )
+            projects = listMetadataProjects( workspaceDirectory );
+            ExecutorService executor =
+                Executors.newFixedThreadPool( Math.max( 1, Math.min( projects.size(), MAX_READ_THREADS ) ) );
+            try
             {
-                try
+                List<Future<IdeDependency>> artefacts = new ArrayList<Future<IdeDependency>>( projects.size() );
+                for ( final File project : projects )
+                {
+                    artefacts.add( executor.submit( new Callable<IdeDependency>()
+                    {
+                        public IdeDependency call()
+                        {
+                            return readWorkspaceProject( workspaceDirectory, project, logger );
+                        }
+                    } ) );
+                }
+                for ( Future<IdeDependency> artefact : artefacts )
                 {
-                    logger.debug( "read workpsace project " + projectLocation );
-                    IdeDependency ideDependency = readArtefact( projectLocation, logger );
+                    IdeDependency ideDependency = artefact.get();
                     if ( ideDependency != null )
                     {
                         dependencies.add( ideDependency );
                     }
                 }
-                catch ( Exception e )
-                {
-                    logger.warn( "could not read workspace project from:" + projectLocation, e );
-                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                logger.warn( "interrupted while reading the workspace " + workspaceDirectory );
+            }
+            catch ( ExecutionException e )
+            {
+                logger.warn( "could not read the workspace " + workspaceDirectory, e.getCause() );
+            }
+            finally
+            {
+                executor.shutdownNow();
             }
         }
         logger.debug( dependencies.size() + " from workspace " + workspaceDirectory );
-        workspaceConfiguration.setWorkspaceArtefacts( dependencies.toArray( new IdeDependency[dependencies.size()] ) );
+        IdeDependency[] artefacts = dependencies.toArray( new IdeDependency[dependencies.size()] );
+        if ( index != null )
+        {
+            index.setWorkspaceArtefacts( artefacts, projects );
+        }
+        return artefacts;
     }
 }
@@ -0,0 +1,452 @@
+package org.apache.maven.plugin.eclipse.reader;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Index of the Eclipse workspace read by {@link ReadWorkspaceLocations}: the artefacts of the workspace projects, the
+ * JREs and the WTP servers defined in the workspace. The entries are valid as long as the modification times of the
+ * files they were read from are unchanged: the <code>.location</code> file of a project in the workspace metadata and
+ * the <code>.project</code> and <code>pom.xml</code> files in the project, or the preferences files. So only the
+ * changed projects are read again by the following runs.
+ * <p>
+ * The index is stored in a file and shared by all the projects of the session, the workspace artefacts are only
+ * checked against the workspace by the first project.
+ *
+ * @version $Id$
+ */
+public class WorkspaceIndex
+{
+
+    private static final Map<MavenSession, Map<File, WorkspaceIndex>> INDEXES =
+        new WeakHashMap<MavenSession, Map<File, WorkspaceIndex>>();
+
+    /**
+     * The version of the format of the index file, entries of other versions are ignored.
+     */
+    private static final String FORMAT_VERSION = "1";
+
+    private static final String VERSION_KEY = "version";
+
+    private static final String WORKSPACE_KEY = "workspace";
+
+    private static final String PROJECT_PREFIX = "project.";
+
+    private static final String JRES_KEY = "jres";
+
+    private static final String SERVERS_KEY = "servers";
+
+    /**
+     * Separator of the values of an entry, which is not expected in a path or a value read from a pom.
+     */
+    private static final char SEPARATOR = '\n';
+
+    private final File indexFile;
+
+    private final File workspaceDirectory;
+
+    private final Map<String, String> entries = new ConcurrentHashMap<String, String>();
+
+    private volatile boolean modified;
+
+    /**
+     * The artefacts of the workspace, once they were checked in this session.
+     */
+    private IdeDependency[] workspaceArtefacts;
+
+    /**
+     * An indexed workspace project.
+     */
+    static class ProjectEntry
+    {
+
+        private final IdeDependency artefact;
+
+        ProjectEntry( IdeDependency artefact )
+        {
+            this.artefact = artefact;
+        }
+
+        /**
+         * @return the artefact of the project, <code>null</code> if the project was not found or has no pom
+         */
+        IdeDependency getArtefact()
+        {
+            return artefact;
+        }
+    }
+
+    /**
+     * Creates the index and reads the stored entries, if any. The entries of another workspace or format are ignored.
+     *
+     * @param indexFile the file the index is stored in
+     * @param workspaceDirectory the directory of the workspace
+     * @param log the mojo log
+     */
+    WorkspaceIndex( File indexFile, File workspaceDirectory, Log log )
+    {
+        this.indexFile = indexFile;
+        this.workspaceDirectory = workspaceDirectory;
+        if ( indexFile.isFile() )
+        {
+            Properties props = new Properties();
+            InputStream is = null;
+            try
+            {
+                is = new FileInputStream( indexFile );
+                props.load( is );
+                if ( FORMAT_VERSION.equals( props.getProperty( VERSION_KEY ) )
+                    && workspaceDirectory.getAbsolutePath().equals( props.getProperty( WORKSPACE_KEY ) ) )
+                {
+                    for ( String key : props.stringPropertyNames() )
+                    {
+                        entries.put( key, props.getProperty( key ) );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                log.debug( "Unable to read " + indexFile, e );
+            }
+            finally
+            {
+                IOUtil.close( is );
+            }
+        }
+        entries.put( VERSION_KEY, FORMAT_VERSION );
+        entries.put( WORKSPACE_KEY, workspaceDirectory.getAbsolutePath() );
+    }
+
+    /**
+     * Returns the index of the workspace shared by the projects of the given session.
+     *
+     * @param session the current session, a new index which is not shared is returned if it is <code>null</code>
+     * @param indexFile the file the index is stored in
+     * @param workspaceDirectory the directory of the workspace
+     * @param log the mojo log
+     * @return the workspace index
+     */
+    public static WorkspaceIndex get( MavenSession session, File indexFile, File workspaceDirectory, Log log )
+    {
+        if ( session == null )
+        {
+            return new WorkspaceIndex( indexFile, workspaceDirectory, log );
+        }
+        synchronized ( INDEXES )
+        {
+            Map<File, WorkspaceIndex> indexes = INDEXES.get( session );
+            if ( indexes == null )
+            {
+                indexes = new HashMap<File, WorkspaceIndex>();
+                INDEXES.put( session, indexes );
+            }
+            WorkspaceIndex index = indexes.get( indexFile );
+            if ( index == null )
+            {
+                index = new WorkspaceIndex( indexFile, workspaceDirectory, log );
+                indexes.put( indexFile, index );
+            }
+            return index;
+        }
+    }
+
+    /**
+     * @return the artefacts of the workspace, or <code>null</code> if they were not checked in this session yet
+     */
+    synchronized IdeDependency[] getWorkspaceArtefacts()
+    {
+        return workspaceArtefacts;
+    }
+
+    /**
+     * Record the artefacts of the workspace after all the projects were checked, and drop the entries of the projects
+     * which are not in the workspace anymore.
+     *
+     * @param artefacts the artefacts of the workspace
+     * @param projects the directories of the projects in the workspace metadata
+     */
+    synchronized void setWorkspaceArtefacts( IdeDependency[] artefacts, List<File> projects )
+    {
+        Set<String> keys = new HashSet<String>();
+        for ( File project : projects )
+        {
+            keys.add( PROJECT_PREFIX + project.getName() );
+        }
+        for ( Iterator<String> it = entries.keySet().iterator(); it.hasNext(); )
+        {
+            String key = it.next();
+            if ( key.startsWith( PROJECT_PREFIX ) && !keys.contains( key ) )
+            {
+                it.remove();
+                modified = true;
+            }
+        }
+        workspaceArtefacts = artefacts;
+    }
+
+    /**
+     * The modification times of the files a project is read from.
+     *
+     * @param project the project subdirectory in the metadata
+     * @param location the location of the project, or <code>null</code> if it was not found
+     * @return the stamp of the project
+     */
+    String getProjectStamp( File project, File location )
+    {
+        File projectDirectory = location != null ? location : new File( workspaceDirectory, project.getName() );
+        return new File( project, ReadWorkspaceLocations.BINARY_LOCATION_FILE ).lastModified() + ":"
+            + new File( projectDirectory, ".project" ).lastModified() + ":"
+            + new File( projectDirectory, "pom.xml" ).lastModified();
+    }
+
+    /**
+     * Returns the indexed project, if none of its files changed since it was indexed.
+     *
+     * @param project the project subdirectory in the metadata
+     * @return the project or <code>null</code> if it is not indexed or changed
+     */
+    ProjectEntry getProject( File project )
+    {
+        String entry = entries.get( PROJECT_PREFIX + project.getName() );
+        if ( entry == null )
+        {
+            return null;
+        }
+        List<String> values = split( entry );
+        if ( values.size() != 8 )
+        {
+            return null;
+        }
+        File location = values.get( 1 ) != null ? new File( values.get( 1 ) ) : null;
+        if ( !getProjectStamp( project, location ).equals( values.get( 0 ) ) )
+        {
+            return null;
+        }
+
+        IdeDependency artefact = null;
+        String packaging = values.get( 5 );
+        if ( packaging != null )
+        {
+            artefact =
+                new IdeDependency( values.get( 2 ), values.get( 3 ), values.get( 4 ), packaging, true, false, false,
+                                   false, false, null, packaging, false, null, 0, values.get( 6 ) );
+        }
+        return new ProjectEntry( artefact );
+    }
+
+    /**
+     * Index a project.
+     *
+     * @param project the project subdirectory in the metadata
+     * @param stamp the stamp of the project, taken before its files were read
+     * @param location the location of the project, <code>null</code> if it was not found
+     * @param artefact the artefact of the project, <code>null</code> if the project has no pom
+     */
+    void putProject( File project, String stamp, File location, IdeDependency artefact )
+    {
+        List<String> values = new ArrayList<String>( 8 );
+        values.add( stamp );
+        values.add( location != null ? location.getAbsolutePath() : null );
+        values.add( artefact != null ? artefact.getGroupId() : null );
+        values.add( artefact != null ? artefact.getArtifactId() : null );
+        values.add( artefact != null ? artefact.getVersion() : null );
+        values.add( artefact != null ? artefact.getType() : null );
+        values.add( artefact != null ? artefact.getEclipseProjectName() : null );
+        // end marker, an entry with a different number of values is ignored
+        values.add( FORMAT_VERSION );
+        entries.put( PROJECT_PREFIX + project.getName(), join( values ) );
+        modified = true;
+    }
+
+    /**
+     * @param prefs the launching preferences of the workspace
+     * @return the indexed JREs, or <code>null</code> if they are not indexed or the preferences changed
+     */
+    Map<String, String> getJREs( File prefs )
+    {
+        return getMap( JRES_KEY, prefs );
+    }
+
+    /**
+     * @param stamp the modification time of the preferences, taken before they were read
+     * @param jres the JREs
+     */
+    void putJREs( long stamp, Map<String, String> jres )
+    {
+        putMap( JRES_KEY, stamp, jres );
+    }
+
+    /**
+     * @param prefs the server preferences of the workspace
+     * @return the indexed WTP servers, or <code>null</code> if they are not indexed or the preferences changed
+     */
+    Map<String, String> getServers( File prefs )
+    {
+        return getMap( SERVERS_KEY, prefs );
+    }
+
+    /**
+     * @param stamp the modification time of the preferences, taken before they were read
+     * @param servers the WTP servers
+     */
+    void putServers( long stamp, Map<String, String> servers )
+    {
+        putMap( SERVERS_KEY, stamp, servers );
+    }
+
+    private Map<String, String> getMap( String key, File prefs )
+    {
+        String entry = entries.get( key );
+        if ( entry == null )
+        {
+            return null;
+        }
+        List<String> values = split( entry );
+        if ( values.size() % 2 == 0 || !String.valueOf( prefs.lastModified() ).equals( values.get( 0 ) ) )
+        {
+            return null;
+        }
+        Map<String, String> map = new HashMap<String, String>();
+        for ( int i = 1; i < values.size(); i += 2 )
+        {
+            map.put( values.get( i ) != null ? values.get( i ) : "", values.get( i + 1 ) );
+        }
+        return map;
+    }
+
+    private void putMap( String key, long stamp, Map<String, String> map )
+    {
+        List<String> values = new ArrayList<String>( 1 + 2 * map.size() );
+        values.add( String.valueOf( stamp ) );
+        for ( Map.Entry<String, String> entry : map.entrySet() )
+        {
+            values.add( entry.getKey() );
+            values.add( entry.getValue() );
+        }
+        entries.put( key, join( values ) );
+        modified = true;
+    }
+
+    /**
+     * Join values, <code>null</code> is stored as an empty value.
+     */
+    private static String join( List<String> values )
+    {
+        StringBuilder joined = new StringBuilder();
+        for ( int i = 0; i < values.size(); i++ )
+        {
+            if ( i > 0 )
+            {
+                joined.append( SEPARATOR );
+            }
+            if ( values.get( i ) != null )
+            {
+                joined.append( values.get( i ) );
+            }
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Split joined values, an empty value is returned as <code>null</code>.
+     */
+    private static List<String> split( String joined )
+    {
+        List<String> values = new ArrayList<String>();
+        int start = 0;
+        while ( true )
+        {
+            int end = joined.indexOf( SEPARATOR, start );
+            String value = joined.substring( start, end < 0 ? joined.length() : end );
+            values.add( value.length() > 0 ? value : null );
+            if ( end < 0 )
+            {
+                return values;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Store the index if entries changed.
+     *
+     * @param log the mojo log
+     */
+    synchronized void store( Log log )
+    {
+        if ( !modified )
+        {
+            return;
+        }
+        modified = false;
+
+        Properties props = new Properties();
+        props.putAll( entries );
+
+        // write to a temporary file first, other builds may use the same index
+        File tmpFile = new File( indexFile.getPath() + ".tmp" + System.identityHashCode( this ) );
+        OutputStream os = null;
+        try
+        {
+            indexFile.getParentFile().mkdirs();
+            os = new FileOutputStream( tmpFile );
+            props.store( os, null );
+            os.close();
+            os = null;
+            if ( !tmpFile.renameTo( indexFile ) && !( indexFile.delete() && tmpFile.renameTo( indexFile ) ) )
+            {
+                log.debug( "Unable to replace " + indexFile );
+            }
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Unable to write " + indexFile, e );
+        }
+        finally
+        {
+            IOUtil.close( os );
+            if ( tmpFile.exists() )
+            {
+                tmpFile.delete();
+            }
+        }
+    }
+}
@@ -21,8 +21,8 @@ package org.apache.maven.plugin.eclipse.writers;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -288,7 +288,7 @@ public abstract class AbstractEclipseManifestWriter
 
             try
             {
-                FileOutputStream stream = new FileOutputStream( manifestFile );
+                OutputStream stream = new ChangeDetectingFileOutputStream( manifestFile );
 
                 manifest.write( stream );
 
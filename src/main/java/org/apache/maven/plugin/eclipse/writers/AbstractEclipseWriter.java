@@ -19,6 +19,14 @@ package org.apache.maven.plugin.eclipse.writers;
  * under the License.
  */
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.logging.Log;
 
 /**
@@ -49,4 +57,40 @@ public abstract class AbstractEclipseWriter
         return this;
     }
 
+    /**
+     * Close the output of a file. For a {@link ChangeDetectingFileOutputStream} this writes the file, unless its
+     * content is unchanged, so the errors are not ignored as with <code>IOUtil.close()</code>.
+     *
+     * @param output the writer or stream of the file
+     * @throws MojoExecutionException if the file can't be written
+     */
+    protected void close( Closeable output )
+        throws MojoExecutionException
+    {
+        try
+        {
+            output.close();
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( Messages.getString( "EclipsePlugin.cantwritetofile", e.getMessage() ),
+                                              e );
+        }
+    }
+
+    /**
+     * Store properties to a file through a {@link ChangeDetectingFileOutputStream}.
+     *
+     * @param properties the properties
+     * @param file the file
+     * @throws IOException if the file can't be written
+     */
+    protected void storeProperties( Properties properties, File file )
+        throws IOException
+    {
+        OutputStream out = new ChangeDetectingFileOutputStream( file );
+        properties.store( out, null );
+        out.close();
+    }
+
 }
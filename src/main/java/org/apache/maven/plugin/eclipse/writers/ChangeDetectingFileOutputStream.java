@@ -0,0 +1,160 @@
+package org.apache.maven.plugin.eclipse.writers;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Output stream used by the writers instead of a <code>FileOutputStream</code>: the content is rendered into a
+ * buffer and only replaces the file on {@link #close()} when it differs from the bytes already in the file. Eclipse
+ * doesn't see a new modification time for an unchanged file, so it doesn't rebuild or validate the project again.
+ * <p>
+ * Nothing is written if the stream isn't closed. The streams closed by a thread can be recorded, to know the files
+ * output by the writers without listing their directories.
+ *
+ * @version $Id$
+ */
+public class ChangeDetectingFileOutputStream
+    extends ByteArrayOutputStream
+{
+
+    /**
+     * The streams closed by the current thread since {@link #startRecording()}, <code>null</code> when not recording.
+     */
+    private static final ThreadLocal<List<ChangeDetectingFileOutputStream>> RECORDED =
+        new ThreadLocal<List<ChangeDetectingFileOutputStream>>();
+
+    private final File file;
+
+    private boolean closed;
+
+    private boolean written;
+
+    /**
+     * @param file the file to write
+     * @throws FileNotFoundException if the file is a directory or its directory doesn't exist, as for a
+     *             <code>FileOutputStream</code>
+     */
+    public ChangeDetectingFileOutputStream( File file )
+        throws FileNotFoundException
+    {
+        super( 8192 );
+        if ( file.isDirectory() || !file.getAbsoluteFile().getParentFile().isDirectory() )
+        {
+            throw new FileNotFoundException( file.getAbsolutePath() );
+        }
+        this.file = file;
+    }
+
+    /**
+     * Write the content to the file, unless it is unchanged.
+     *
+     * @throws IOException if the file can't be read or written, with the path of the file as message
+     */
+    public void close()
+        throws IOException
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+
+        byte[] content = toByteArray();
+        try
+        {
+            if ( !file.isFile() || file.length() != content.length
+                || !Arrays.equals( content, Files.readAllBytes( file.toPath() ) ) )
+            {
+                Files.write( file.toPath(), content );
+                written = true;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new IOException( file.getAbsolutePath(), e );
+        }
+
+        List<ChangeDetectingFileOutputStream> recorded = RECORDED.get();
+        if ( recorded != null )
+        {
+            recorded.add( this );
+        }
+    }
+
+    /**
+     * @return the file written by the stream
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @return <code>true</code> if the stream was closed and the file was written
+     */
+    public boolean isWritten()
+    {
+        return written;
+    }
+
+    /**
+     * Start recording the streams closed by the current thread, unless they are already recorded.
+     *
+     * @return <code>true</code> if the recording was started by this call and must be stopped by the caller
+     */
+    public static boolean startRecording()
+    {
+        if ( RECORDED.get() != null )
+        {
+            return false;
+        }
+        RECORDED.set( new ArrayList<ChangeDetectingFileOutputStream>() );
+        return true;
+    }
+
+    /**
+     * @return the streams closed by the current thread since the recording started, in the order they were closed, or
+     *         <code>null</code> when not recording
+     */
+    public static List<ChangeDetectingFileOutputStream> getRecorded()
+    {
+        return RECORDED.get();
+    }
+
+    /**
+     * Stop recording the streams closed by the current thread.
+     *
+     * @return the recorded streams, or <code>null</code> when not recording
+     */
+    public static List<ChangeDetectingFileOutputStream> stopRecording()
+    {
+        List<ChangeDetectingFileOutputStream> recorded = RECORDED.get();
+        RECORDED.remove();
+        return recorded;
+    }
+}
@@ -22,7 +22,6 @@ package org.apache.maven.plugin.eclipse.writers;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Properties;
 
@@ -126,12 +125,12 @@ public class EclipseAjdtWriter
 
                     if ( !oldsettings.equals( newsettings ) )
                     {
-                        newsettings.store( new FileOutputStream( ajdtSettingsFile ), null );
+                        storeProperties( newsettings, ajdtSettingsFile );
                     }
                 }
                 else
                 {
-                    ajdtSettings.store( new FileOutputStream( ajdtSettingsFile ), null );
+                    storeProperties( ajdtSettings, ajdtSettingsFile );
 
                     log.info( Messages.getString( "EclipseSettingsWriter.wrotesettings",
                                                   ajdtSettingsFile.getCanonicalPath() ) );
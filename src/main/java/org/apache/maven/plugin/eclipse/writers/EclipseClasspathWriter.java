@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers;
  */
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -38,7 +37,6 @@ import org.apache.maven.plugin.eclipse.EclipseSourceDir;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.ide.IdeUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -164,8 +162,8 @@ public class EclipseClasspathWriter
         try
         {
             w =
-                new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                        FILE_DOT_CLASSPATH ) ), "UTF-8" );
+                new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                    new File( config.getEclipseProjectDirectory(), FILE_DOT_CLASSPATH ) ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -288,8 +286,8 @@ public class EclipseClasspathWriter
             try
             {
                 Writer buildXmlWriter =
-                    new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                            "maven-eclipse.xml" ) ), "UTF-8" );
+                    new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                        new File( config.getEclipseProjectDirectory(), "maven-eclipse.xml" ) ), "UTF-8" );
                 PrettyPrintXMLWriter buildXmlPrinter = new PrettyPrintXMLWriter( buildXmlWriter );
 
                 buildXmlPrinter.startElement( "project" );
@@ -332,7 +330,7 @@ public class EclipseClasspathWriter
 
                 buildXmlPrinter.endElement();
 
-                IOUtil.close( buildXmlWriter );
+                close( buildXmlWriter );
             }
             catch ( IOException e )
             {
@@ -345,14 +343,17 @@ public class EclipseClasspathWriter
             new EclipseAntExternalLaunchConfigurationWriter().init( log, config, "Maven_Ant_Builder.launch",
                                                                     "maven-eclipse.xml" ).write();
 
-            // finally add it to the project writer.
+            // finally add it to the project writer, once: the writers run again when the background downloads of
+            // the attachments complete.
 
-            config.getBuildCommands().add( new BuildCommand(
-                                                 "org.eclipse.ui.externaltools.ExternalToolBuilder",
-                                                 "LaunchConfigHandle",
-                                                 "<project>/"
-                                                     + EclipseLaunchConfigurationWriter.FILE_DOT_EXTERNAL_TOOL_BUILDERS
-                                                     + "Maven_Ant_Builder.launch" ) );
+            BuildCommand antBuilder =
+                new BuildCommand( "org.eclipse.ui.externaltools.ExternalToolBuilder", "LaunchConfigHandle",
+                                  "<project>/" + EclipseLaunchConfigurationWriter.FILE_DOT_EXTERNAL_TOOL_BUILDERS
+                                      + "Maven_Ant_Builder.launch" );
+            if ( !config.getBuildCommands().contains( antBuilder ) )
+            {
+                config.getBuildCommands().add( antBuilder );
+            }
         }
 
         // ----------------------------------------------------------------------
@@ -413,7 +414,7 @@ public class EclipseClasspathWriter
 
         writer.endElement();
 
-        IOUtil.close( w );
+        close( w );
 
     }
 
@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers;
  */
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -30,7 +29,6 @@ import java.util.List;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.logging.Log;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -78,7 +76,9 @@ public abstract class EclipseLaunchConfigurationWriter
             {
                 throw new MojoExecutionException( "Error creating directory " + extToolsDir );
             }
-            w = new OutputStreamWriter( new FileOutputStream( new File( extToolsDir, filename ) ), "UTF-8" );
+            w =
+                new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                    new File( extToolsDir, filename ) ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -139,7 +139,7 @@ public abstract class EclipseLaunchConfigurationWriter
 
         writer.endElement();
 
-        IOUtil.close( w );
+        close( w );
     }
 
     protected List getMonitoredResources()
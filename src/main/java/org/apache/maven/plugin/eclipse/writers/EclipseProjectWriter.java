@@ -21,7 +21,6 @@ package org.apache.maven.plugin.eclipse.writers;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -191,7 +190,7 @@ public class EclipseProjectWriter
 
         try
         {
-            w = new OutputStreamWriter( new FileOutputStream( dotProject ), "UTF-8" );
+            w = new OutputStreamWriter( new ChangeDetectingFileOutputStream( dotProject ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -285,7 +284,7 @@ public class EclipseProjectWriter
 
         writer.endElement(); // projectDescription
 
-        IOUtil.close( w );
+        close( w );
     }
 
     private void addFileLink( XMLWriter writer, File projectBaseDir, File basedir, File file )
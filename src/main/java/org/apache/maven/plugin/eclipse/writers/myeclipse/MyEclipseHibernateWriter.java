@@ -20,16 +20,17 @@ package org.apache.maven.plugin.eclipse.writers.myeclipse;
  */
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.Map;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeUtils;
-import org.codehaus.plexus.util.IOUtil;
 
 /**
  * Writer for MyEclipse Hibernate Capability
@@ -107,11 +108,13 @@ public class MyEclipseHibernateWriter
     public void write()
         throws MojoExecutionException
     {
-        FileWriter w;
+        Writer w;
 
         try
         {
-            w = new FileWriter( new File( config.getEclipseProjectDirectory(), MYECLIPSE_HIBERNATE_DATA_FILE ) );
+            w =
+                new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                    new File( config.getEclipseProjectDirectory(), MYECLIPSE_HIBERNATE_DATA_FILE ) ) );
         }
         catch ( IOException ex )
         {
@@ -144,7 +147,7 @@ public class MyEclipseHibernateWriter
         addProperty( pw, MYECLIPSE_HB_ADD_LIBS_TO_CLASSPATH, "false" );
         addProperty( pw, MYECLIPSE_HB_BASE_DAO_CLASS, null );
 
-        IOUtil.close( w );
+        close( w );
     }
 
     /**
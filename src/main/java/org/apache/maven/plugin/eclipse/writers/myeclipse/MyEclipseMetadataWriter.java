@@ -20,17 +20,18 @@ package org.apache.maven.plugin.eclipse.writers.myeclipse;
  */
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeDescriptor;
 import org.apache.maven.plugin.ide.JeeUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 
@@ -86,11 +87,13 @@ public class MyEclipseMetadataWriter
             return;
         }
 
-        FileWriter w;
+        Writer w;
 
         try
         {
-            w = new FileWriter( new File( config.getEclipseProjectDirectory(), MYECLIPSE_MYMETADATA_FILENAME ) );
+            w =
+                new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                    new File( config.getEclipseProjectDirectory(), MYECLIPSE_MYMETADATA_FILENAME ) ) );
         }
         catch ( IOException ex )
         {
@@ -140,7 +143,7 @@ public class MyEclipseMetadataWriter
         // Close <project-module>
         writer.endElement();
 
-        IOUtil.close( w );
+        close( w );
     }
 
     /**
@@ -21,8 +21,9 @@ package org.apache.maven.plugin.eclipse.writers.myeclipse;
 
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,9 +32,9 @@ import java.util.Map;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.codehaus.plexus.util.FileUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 
@@ -84,11 +85,12 @@ public class MyEclipseSpringBeansWriter
     public void write()
         throws MojoExecutionException
     {
-        FileWriter springFileWriter;
+        Writer springFileWriter;
         try
         {
-            springFileWriter = new FileWriter( new File( config.getEclipseProjectDirectory(), 
-                                                         MYECLIPSE_SPRING_CONFIGURATION_FILENAME ) );
+            springFileWriter =
+                new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                    new File( config.getEclipseProjectDirectory(), MYECLIPSE_SPRING_CONFIGURATION_FILENAME ) ) );
         }
         catch ( IOException ex )
         {
@@ -136,7 +138,7 @@ public class MyEclipseSpringBeansWriter
 
         writer.endElement();
 
-        IOUtil.close( springFileWriter );
+        close( springFileWriter );
     }
 
     /**
@@ -20,8 +20,10 @@ package org.apache.maven.plugin.eclipse.writers.myeclipse;
  */
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -29,8 +31,8 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 
@@ -58,7 +60,15 @@ public class MyEclipseStrutsDataWriter
 
     private static final String MYECLIPSE_STRUTS_SERVLET_DEFAULT_NAME = "action";
 
-    private static Map strutsPatterns;
+    private static final Map STRUTS_PATTERNS;
+
+    static
+    {
+        Map patterns = new HashMap();
+        patterns.put( "*.do", "0" );
+        patterns.put( "/do/*", "1" );
+        STRUTS_PATTERNS = Collections.unmodifiableMap( patterns );
+    }
 
     private Map strutsProps;
 
@@ -71,10 +81,6 @@ public class MyEclipseStrutsDataWriter
     public MyEclipseStrutsDataWriter( Map strutsProps )
     {
         this.strutsProps = strutsProps;
-
-        strutsPatterns = new HashMap();
-        strutsPatterns.put( "*.do", "0" );
-        strutsPatterns.put( "/do/*", "1" );
     }
 
     /**
@@ -89,10 +95,12 @@ public class MyEclipseStrutsDataWriter
 
         if ( Constants.PROJECT_PACKAGING_WAR.equals( packaging ) )
         {
-            FileWriter w;
+            Writer w;
             try
             {
-                w = new FileWriter( new File( config.getEclipseProjectDirectory(), MYECLIPSE_MYSTRUTSDATA_FILENAME ) );
+                w =
+                    new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                        new File( config.getEclipseProjectDirectory(), MYECLIPSE_MYSTRUTSDATA_FILENAME ) ) );
             }
             catch ( IOException ex )
             {
@@ -122,7 +130,7 @@ public class MyEclipseStrutsDataWriter
             // Close <MyEclipseStrutsProperties>
             writer.endElement();
 
-            IOUtil.close( w );
+            close( w );
         }
     }
 
@@ -186,10 +194,10 @@ public class MyEclipseStrutsDataWriter
     {
         if ( strutsProps != null && strutsProps.get( "pattern" ) != null )
         {
-            String pattern = (String) strutsPatterns.get( strutsProps.get( "pattern" ) );
-            return pattern != null ? pattern : (String) strutsPatterns.get( MYECLIPSE_STRUTS_DEFAULT_PATTERN );
+            String pattern = (String) STRUTS_PATTERNS.get( strutsProps.get( "pattern" ) );
+            return pattern != null ? pattern : (String) STRUTS_PATTERNS.get( MYECLIPSE_STRUTS_DEFAULT_PATTERN );
         }
-        return (String) strutsPatterns.get( MYECLIPSE_STRUTS_DEFAULT_PATTERN );
+        return (String) STRUTS_PATTERNS.get( MYECLIPSE_STRUTS_DEFAULT_PATTERN );
     }
 
     /**
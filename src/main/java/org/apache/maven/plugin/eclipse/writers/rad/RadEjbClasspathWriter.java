@@ -22,7 +22,6 @@ package org.apache.maven.plugin.eclipse.writers.rad;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -35,7 +34,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
-import org.codehaus.plexus.util.IOUtil;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
@@ -134,7 +133,7 @@ public class RadEjbClasspathWriter
             Writer w;
             try
             {
-                w = new OutputStreamWriter( new FileOutputStream( classpathFile ), "UTF-8" );
+                w = new OutputStreamWriter( new ChangeDetectingFileOutputStream( classpathFile ), "UTF-8" );
             }
             catch ( IOException ex )
             {
@@ -142,7 +141,7 @@ public class RadEjbClasspathWriter
             }
             XMLWriter writer = new PrettyPrintXMLWriter( w, "UTF-8", null );
             Xpp3DomWriter.write( writer, classpath );
-            IOUtil.close( w );
+            close( w );
         }
     }
 
@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers.rad;
  */
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -29,8 +28,8 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.JeeUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 
@@ -73,8 +72,8 @@ public class RadJ2EEWriter
             try
             {
                 w =
-                    new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                            J2EE_FILENAME ) ), "UTF-8" );
+                    new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                        new File( config.getEclipseProjectDirectory(), J2EE_FILENAME ) ), "UTF-8" );
             }
             catch ( IOException ex )
             {
@@ -83,7 +82,7 @@ public class RadJ2EEWriter
 
             XMLWriter writer = new PrettyPrintXMLWriter( w, "UTF-8", null );
             writeModuleTypeFacetCore( writer, packaging );
-            IOUtil.close( w );
+            close( w );
         }
     }
 
@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers.rad;
  */
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -29,10 +28,10 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 
@@ -107,8 +106,8 @@ public class RadWebSettingsWriter
             try
             {
                 w =
-                    new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                            WEBSETTINGS_FILENAME ) ), "UTF-8" );
+                    new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                        new File( config.getEclipseProjectDirectory(), WEBSETTINGS_FILENAME ) ), "UTF-8" );
             }
             catch ( IOException ex )
             {
@@ -117,7 +116,7 @@ public class RadWebSettingsWriter
 
             XMLWriter writer = new PrettyPrintXMLWriter( w, "UTF-8", null );
             writeModuleTypeFacetCore( writer );
-            IOUtil.close( w );
+            close( w );
         }
     }
 
@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers.rad;
  */
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -29,7 +28,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
-import org.codehaus.plexus.util.IOUtil;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 
@@ -67,8 +66,8 @@ public class RadWebsiteConfigWriter
             try
             {
                 w =
-                    new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                            WEBSITE_CONFIG_FILENAME ) ), "UTF-8" );
+                    new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                        new File( config.getEclipseProjectDirectory(), WEBSITE_CONFIG_FILENAME ) ), "UTF-8" );
             }
             catch ( IOException ex )
             {
@@ -76,7 +75,7 @@ public class RadWebsiteConfigWriter
             }
             XMLWriter writer = new PrettyPrintXMLWriter( w, "UTF-8", null );
             writeModuleTypeFacetCore( writer );
-            IOUtil.close( w );
+            close( w );
         }
     }
 
@@ -22,7 +22,6 @@ package org.apache.maven.plugin.eclipse.writers.workspace;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.Properties;
@@ -152,12 +151,12 @@ public class EclipseSettingsWriter
 
                     if ( !oldsettings.equals( newsettings ) )
                     {
-                        newsettings.store( new FileOutputStream( coreSettingsFile ), null );
+                        storeProperties( newsettings, coreSettingsFile );
                     }
                 }
                 else
                 {
-                    coreSettings.store( new FileOutputStream( coreSettingsFile ), null );
+                    storeProperties( coreSettings, coreSettingsFile );
 
                     log.info( Messages.getString( "EclipseSettingsWriter.wrotesettings", 
                                                   coreSettingsFile.getCanonicalPath() ) );
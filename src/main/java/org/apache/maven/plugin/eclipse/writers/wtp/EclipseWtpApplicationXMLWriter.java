@@ -22,7 +22,6 @@ package org.apache.maven.plugin.eclipse.writers.wtp;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -31,11 +30,11 @@ import java.io.Writer;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
 import org.codehaus.plexus.util.FileUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
@@ -625,7 +624,7 @@ public class EclipseWtpApplicationXMLWriter
         xmlFile.getParentFile().mkdirs();
         try
         {
-            w = new OutputStreamWriter( new FileOutputStream( xmlFile ), "UTF-8" );
+            w = new OutputStreamWriter( new ChangeDetectingFileOutputStream( xmlFile ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -633,7 +632,7 @@ public class EclipseWtpApplicationXMLWriter
         }
         XMLWriter writer = new PrettyPrintXMLWriter( w, "UTF-8", null );
         Xpp3DomWriter.write( writer, xmlDomTree );
-        IOUtil.close( w );
+        close( w );
     }
 
 }
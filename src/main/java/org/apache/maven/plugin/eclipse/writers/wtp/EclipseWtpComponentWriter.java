@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers.wtp;
  */
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -30,9 +29,9 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.EclipseSourceDir;
 import org.apache.maven.plugin.eclipse.Messages;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
@@ -93,7 +92,8 @@ public class EclipseWtpComponentWriter
         try
         {
             w =
-                new OutputStreamWriter( new FileOutputStream( new File( settingsDir, getComponentFileName() ) ),
+                new OutputStreamWriter( new ChangeDetectingFileOutputStream( new File( settingsDir,
+                                                                                       getComponentFileName() ) ),
                                         "UTF-8" );
         }
         catch ( IOException ex )
@@ -107,7 +107,7 @@ public class EclipseWtpComponentWriter
         writeModuleTypeComponent( writer, config.getPackaging(), config.getBuildOutputDirectory(),
                                   config.getSourceDirs(), config.getLocalRepository() );
 
-        IOUtil.close( w );
+        close( w );
     }
 
     /**
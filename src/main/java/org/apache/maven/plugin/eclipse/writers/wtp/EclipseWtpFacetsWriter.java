@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers.wtp;
  */
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -29,9 +28,9 @@ import java.util.Map.Entry;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.Messages;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 
@@ -98,7 +97,9 @@ public class EclipseWtpFacetsWriter
         // Write out facet core xml
         try
         {
-            w = new OutputStreamWriter( new FileOutputStream( new File( settingsDir, FILE_FACET_CORE_XML ) ), "UTF-8" );
+            w =
+                new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                    new File( settingsDir, FILE_FACET_CORE_XML ) ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -106,7 +107,7 @@ public class EclipseWtpFacetsWriter
         }
         XMLWriter writer = new PrettyPrintXMLWriter( w, "UTF-8", null );
         writeModuleTypeFacetCore( writer, packaging );
-        IOUtil.close( w );
+        close( w );
     }
 
     /**
@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers.wtp;
  */
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -29,9 +28,9 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.EclipseSourceDir;
 import org.apache.maven.plugin.eclipse.Messages;
+import org.apache.maven.plugin.eclipse.writers.ChangeDetectingFileOutputStream;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 
@@ -58,8 +57,8 @@ public class EclipseWtpmodulesWriter
         try
         {
             w =
-                new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                        FILE_DOT_WTPMODULES ) ), "UTF-8" );
+                new OutputStreamWriter( new ChangeDetectingFileOutputStream(
+                    new File( config.getEclipseProjectDirectory(), FILE_DOT_WTPMODULES ) ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -128,7 +127,7 @@ public class EclipseWtpmodulesWriter
         writer.endElement(); // wb-module
         writer.endElement(); // project-modules
 
-        IOUtil.close( w );
+        close( w );
     }
 
 }
@@ -20,7 +20,6 @@ package org.apache.maven.plugin.ide;
  */
 
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,15 +28,18 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.jar.Attributes;
-import java.util.jar.JarFile;
-import java.util.jar.Manifest;
-import java.util.zip.ZipFile;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
 import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.AbstractArtifactResolutionException;
 import org.apache.maven.artifact.resolver.ArtifactCollector;
 import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
 import org.apache.maven.artifact.resolver.ArtifactResolutionException;
@@ -51,6 +53,7 @@ import org.apache.maven.artifact.resolver.filter.ExcludesArtifactFilter;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
 import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
 import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.execution.RuntimeInformation;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.DependencyManagement;
@@ -85,9 +88,20 @@ import org.codehaus.plexus.logging.Logger;
  */
 public abstract class AbstractIdeSupportMojo
     extends AbstractMojo
-    implements LogEnabled
+    implements LogEnabled, Cloneable
 {
 
+    /**
+     * Location of the OSGi manifest index, relative to the local repository.
+     */
+    private static final String MANIFEST_INDEX_FILE = ".cache/eclipse-maven-plugin/manifest-index.properties";
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private static final String RESOLUTION_ENGINE_LEGACY = "legacy";
+
+    private static final String RESOLUTION_ENGINE_RESOLVER = "resolver";
+
     /**
      * The project whose project files to create.
      */
@@ -151,6 +165,12 @@ public abstract class AbstractIdeSupportMojo
     @Parameter( property = "reactorProjects", required = true, readonly = true )
     protected List reactorProjects;
 
+    /**
+     * The current build session, dependency resolution results are shared between the modules of a session.
+     */
+    @Parameter( defaultValue = "${session}", readonly = true )
+    protected MavenSession mavenSession;
+
     /**
      * Skip the operation when true.
      */
@@ -186,6 +206,96 @@ public abstract class AbstractIdeSupportMojo
     @Parameter( property = "forceRecheck" )
     protected boolean forceRecheck;
 
+    /**
+     * Number of days after which a source or javadoc attachment marked as not available is looked up again in the
+     * remote repositories. With the default value of <code>0</code> the mark never expires, use
+     * <code>forceRecheck</code> or <code>mvn eclipse:remove-cache</code> to reset it.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.notAvailableRecheckDays", defaultValue = "0" )
+    protected int notAvailableRecheckDays;
+
+    /**
+     * Write the IDE configuration with the sources and javadoc attachments already in the local repository, and
+     * download the missing attachments in the background while the build goes on. The classpath of a project is
+     * written again once its downloads are complete. The last project of the reactor to complete waits for all
+     * downloads and reports their results.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.downloadAttachmentsInBackground", defaultValue = "false" )
+    protected boolean downloadAttachmentsInBackground;
+
+    /**
+     * File the metrics of the session are written to, as JSON, by the last project of the reactor. The report holds
+     * the wall time, the resolver calls, the cache hits and the files read and written of each phase and each writer
+     * of every project. No report is written if not set.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.metricsReport" )
+    protected File metricsReport;
+
+    /**
+     * Number of threads used to download the project dependencies and their sources and javadoc attachments. With the
+     * default value of <code>1</code> all artifacts are resolved one after another, higher values resolve missing
+     * artifacts in parallel and look up sources and javadoc of all dependencies at the same time. The order of the
+     * dependencies written to the IDE configuration is not affected by this setting.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.resolverThreads", defaultValue = "1" )
+    protected int resolverThreads;
+
+    /**
+     * Number of threads downloading the sources and javadoc attachments of all projects of the reactor with
+     * <code>downloadAttachmentsInBackground</code>. The threads are shared by the projects of the session, the value
+     * of the first project starting downloads is used.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.backgroundDownloadThreads", defaultValue = "4" )
+    protected int backgroundDownloadThreads;
+
+    /**
+     * Store the collected and resolved dependencies in the build directory and reuse them in the next run, as long as
+     * the dependencies, the dependency management and the repositories of the reactor projects are unchanged. Graphs
+     * containing snapshot dependencies from outside of the reactor are not stored. The stored dependencies are
+     * ignored when <code>forceRecheck</code> is set.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.useResolutionCache", defaultValue = "true" )
+    protected boolean useResolutionCache;
+
+    /**
+     * The engine used to collect and resolve the project dependencies:
+     * <ul>
+     * <li><code>legacy</code>: the Maven 2 <code>ArtifactCollector</code> and <code>ArtifactResolver</code></li>
+     * <li><code>resolver</code>: Maven Resolver with the repository session of the build, which shares the resolver
+     * caches of the build and downloads missing artifacts in parallel. Requires Maven 3.1 or newer.</li>
+     * </ul>
+     * Sources and javadoc attachments are resolved the same way with both engines.
+     *
+     * @since 3.2.1
+     */
+    @Parameter( property = "eclipse.resolutionEngine", defaultValue = RESOLUTION_ENGINE_LEGACY )
+    protected String resolutionEngine;
+
+    /**
+     * The Maven Resolver session of the build, only used by the <code>resolver</code> engine. Declared as
+     * <code>Object</code> to keep the mojo loadable without Maven Resolver.
+     */
+    @Parameter( defaultValue = "${repositorySystemSession}", readonly = true )
+    private Object repositorySystemSession;
+
+    /**
+     * The Maven Resolver remote repositories of the project, only used by the <code>resolver</code> engine.
+     */
+    @Parameter( defaultValue = "${project.remoteProjectRepositories}", readonly = true )
+    private List remoteProjectRepositories;
+
     /**
      * Plexus logger needed for debugging manual artifact resolution.
      */
@@ -449,6 +559,16 @@ public abstract class AbstractIdeSupportMojo
      */
     private boolean resolveDependencies = true;
 
+    /**
+     * Resolution results shared with the other modules of the current session.
+     */
+    private ResolutionCache resolutionCache;
+
+    /**
+     * Metrics of the phase the mojo is in.
+     */
+    private volatile BuildMetrics.Phase phaseMetrics = new BuildMetrics.Phase();
+
     /**
      * @see org.codehaus.plexus.logging.LogEnabled#enableLogging(org.codehaus.plexus.logging.Logger)
      */
@@ -463,303 +583,1097 @@ public abstract class AbstractIdeSupportMojo
     public final void execute()
         throws MojoExecutionException, MojoFailureException
     {
-        if ( skip )
+        if ( getReactorThreads() > 0 )
         {
+            if ( !skip )
+            {
+                executeReactor();
+            }
             return;
         }
 
-        boolean processProject = setup();
-        if ( !processProject )
+        // skipped and failed projects complete as well, so that the session completes after the last project
+        ResolutionCache cache = getResolutionCache();
+        cache.startProject();
+        try
         {
-            return;
+            if ( !skip )
+            {
+                if ( executedProject == null )
+                {
+                    // goal executed without forking the lifecycle
+                    executedProject = project;
+                }
+                executeProject();
+            }
+        }
+        finally
+        {
+            if ( cache.completeProject( reactorProjects != null ? reactorProjects.size() : 1,
+                                        isLastReactorProject() ) )
+            {
+                completeSession();
+            }
         }
-
-        // resolve artifacts
-        IdeDependency[] deps = doDependencyResolution();
-
-        resolveSourceAndJavadocArtifacts( deps );
-
-        writeConfiguration( deps );
-
-        reportMissingArtifacts();
-
     }
 
     /**
-     * Resolve project dependencies. Manual resolution is needed in order to avoid resolution of multiproject artifacts
-     * (if projects will be linked each other an installed jar is not needed) and to avoid a failure when a jar is
-     * missing.
+     * Process the current project: setup, resolve the dependencies and write the configuration.
      * 
-     * @throws MojoExecutionException if dependencies can't be resolved
-     * @return resolved IDE dependencies, with attached jars for non-reactor dependencies
+     * @throws MojoExecutionException if the project can't be processed
      */
-    protected IdeDependency[] doDependencyResolution()
+    private void executeProject()
         throws MojoExecutionException
     {
-        if ( ideDeps == null )
-        {
-            if ( resolveDependencies )
-            {
-                MavenProject project = getProject();
-                ArtifactRepository localRepo = getLocalRepository();
-
-                List deps = getProject().getDependencies();
-
-                // Collect the list of resolved IdeDependencies.
-                List dependencies = new ArrayList();
-
-                if ( deps != null )
-                {
-                    Map managedVersions =
-                        createManagedVersionMap( getArtifactFactory(), project.getId(),
-                                                 project.getDependencyManagement() );
-
-                    ArtifactResolutionResult artifactResolutionResult;
-
-                    try
-                    {
-
-                        List listeners = new ArrayList();
-
-                        if ( logger.isDebugEnabled() )
-                        {
-                            listeners.add( new DebugResolutionListener( logger ) );
-                        }
-
-                        listeners.add( new WarningResolutionListener( logger ) );
-
-                        artifactResolutionResult =
-                            artifactCollector.collect( getProjectArtifacts(), project.getArtifact(), managedVersions,
-                                                       localRepo, project.getRemoteArtifactRepositories(),
-                                                       getArtifactMetadataSource(), null, listeners );
-                    }
-                    catch ( ArtifactResolutionException e )
-                    {
-                        getLog().debug( e.getMessage(), e );
-                        getLog().error( Messages.getString( "AbstractIdeSupportMojo.artifactresolution", new Object[] {
-                                                            e.getGroupId(), e.getArtifactId(), e.getVersion(),
-                                                                e.getMessage() } ) );
-
-                        // if we are here artifactResolutionResult is null, create a project without dependencies but
-                        // don't fail
-                        // (this could be a reactor projects, we don't want to fail everything)
-                        // Causes MECLIPSE-185. Not sure if it should be handled this way??
-                        return new IdeDependency[0];
-                    }
-
-                    // keep track of added reactor projects in order to avoid duplicates
-                    Set emittedReactorProjectId = new HashSet();
-
-                    for ( Object o : artifactResolutionResult.getArtifactResolutionNodes() )
-                    {
-
-                        ResolutionNode node = (ResolutionNode) o;
-                        int dependencyDepth = node.getDepth();
-                        Artifact art = node.getArtifact();
-                        // don't resolve jars for reactor projects
-                        if ( hasToResolveJar( art ) )
-                        {
-                            try
-                            {
-                                artifactResolver.resolve( art, node.getRemoteRepositories(), localRepository );
-                            }
-                            catch ( ArtifactNotFoundException e )
-                            {
-                                getLog().debug( e.getMessage(), e );
-                                getLog().warn( Messages.getString( "AbstractIdeSupportMojo.artifactdownload",
-                                                                   new Object[] { e.getGroupId(), e.getArtifactId(),
-                                                                       e.getVersion(), e.getMessage() } ) );
-                            }
-                            catch ( ArtifactResolutionException e )
-                            {
-                                getLog().debug( e.getMessage(), e );
-                                getLog().warn( Messages.getString( "AbstractIdeSupportMojo.artifactresolution",
-                                                                   new Object[] { e.getGroupId(), e.getArtifactId(),
-                                                                       e.getVersion(), e.getMessage() } ) );
-                            }
-                        }
-
-                        boolean includeArtifact = true;
-                        if ( getExcludes() != null )
-                        {
-                            String artifactFullId = art.getGroupId() + ":" + art.getArtifactId();
-                            if ( getExcludes().contains( artifactFullId ) )
-                            {
-                                getLog().info( "excluded: " + artifactFullId );
-                                includeArtifact = false;
-                            }
-                        }
-
-                        if ( includeArtifact
-                            && ( !( getUseProjectReferences() && isAvailableAsAReactorProject( art ) ) 
-                                    || emittedReactorProjectId.add( art.getGroupId() + '-' + art.getArtifactId() ) ) )
-                        {
-
-                            // the following doesn't work: art.getArtifactHandler().getPackaging() always returns "jar"
-                            // also
-                            // if the packaging specified in pom.xml is different.
-
-                            // osgi-bundle packaging is provided by the felix osgi plugin
-                            // eclipse-plugin packaging is provided by this eclipse plugin
-                            // String packaging = art.getArtifactHandler().getPackaging();
-                            // boolean isOsgiBundle = "osgi-bundle".equals( packaging ) || "eclipse-plugin".equals(
-                            // packaging );
-
-                            // we need to check the manifest, if "Bundle-SymbolicName" is there the artifact can be
-                            // considered
-                            // an osgi bundle
-                            boolean isOsgiBundle;
-                            String osgiSymbolicName = null;
-                            if ( art.getFile() != null )
-                            {
-                                JarFile jarFile = null;
-                                try
-                                {
-                                    jarFile = new JarFile( art.getFile(), false, ZipFile.OPEN_READ );
-
-                                    Manifest manifest = jarFile.getManifest();
-                                    if ( manifest != null )
-                                    {
-                                        osgiSymbolicName =
-                                            manifest.getMainAttributes().getValue( 
-                                                                       new Attributes.Name( "Bundle-SymbolicName" ) );
-                                    }
-                                }
-                                catch ( IOException e )
-                                {
-                                    getLog().info( "Unable to read jar manifest from " + art.getFile() );
-                                }
-                                finally
-                                {
-                                    if ( jarFile != null )
-                                    {
-                                        try
-                                        {
-                                            jarFile.close();
-                                        }
-                                        catch ( IOException e )
-                                        {
-                                            // ignore
-                                        }
-                                    }
-                                }
-                            }
-
-                            isOsgiBundle = osgiSymbolicName != null;
-
-                            IdeDependency dep =
-                                new IdeDependency( art.getGroupId(), art.getArtifactId(), art.getVersion(),
-                                                   art.getClassifier(), useProjectReference( art ),
-                                                   Artifact.SCOPE_TEST.equals( art.getScope() ),
-                                                   Artifact.SCOPE_SYSTEM.equals( art.getScope() ),
-                                                   Artifact.SCOPE_PROVIDED.equals( art.getScope() ),
-                                                   art.getArtifactHandler().isAddedToClasspath(), art.getFile(),
-                                                   art.getType(), isOsgiBundle, osgiSymbolicName, dependencyDepth,
-                                                   getProjectNameForArifact( art ) );
-                            // no duplicate entries allowed. System paths can cause this problem.
-                            if ( !dependencies.contains( dep ) )
-                            {
-                                dependencies.add( dep );
-                            }
-                        }
-
-                    }
-
-                    // @todo a final report with the list of
-                    // missingArtifacts?
+        long start = startPhase( BuildMetrics.SETUP );
+        boolean processProject = setup();
+        endPhase( start );
 
-                }
+        if ( processProject )
+        {
+            // resolve artifacts
+            start = startPhase( BuildMetrics.DEPENDENCY_RESOLUTION );
+            IdeDependency[] deps = doDependencyResolution();
+            endPhase( start );
 
-                ideDeps = (IdeDependency[]) dependencies.toArray( new IdeDependency[dependencies.size()] );
+            if ( downloadAttachmentsInBackground && ( getDownloadSources() || getDownloadJavadocs() ) )
+            {
+                writeConfigurationAndDownloadInBackground( deps );
             }
             else
             {
-                ideDeps = new IdeDependency[0];
+                start = startPhase( BuildMetrics.ATTACHMENTS );
+                resolveSourceAndJavadocArtifacts( deps );
+                getNotAvailableIndex().store( getLog() );
+                endPhase( start );
+
+                start = startPhase( BuildMetrics.WRITE_CONFIGURATION );
+                writeConfiguration( deps );
+                endPhase( start );
+
+                start = startPhase( BuildMetrics.REPORT_MISSING_ARTIFACTS );
+                reportMissingArtifacts();
+                endPhase( start );
             }
         }
+    }
 
-        return ideDeps;
+    /**
+     * Wait for the background downloads of the session and write the metrics report, after the last project to
+     * complete.
+     * 
+     * @throws MojoExecutionException if the current thread is interrupted while waiting
+     */
+    private void completeSession()
+        throws MojoExecutionException
+    {
+        awaitBackgroundDownloads();
+        if ( metricsReport != null )
+        {
+            getResolutionCache().getMetrics().write( metricsReport, getLog() );
+        }
     }
 
     /**
-     * Find the name of the project as used in eclipse.
+     * Returns the number of threads to process all projects of the reactor with, in a single execution of an
+     * aggregator goal. The default implementation returns <code>0</code>, to only process the current project.
      * 
-     * @param artifact The artifact to find the eclipse name for.
-     * @return The name os the eclipse project.
+     * @return the number of threads, or <code>0</code> to only process the current project
+     * @since 3.2.1
      */
-    public abstract String getProjectNameForArifact( Artifact artifact );
+    protected int getReactorThreads()
+    {
+        return 0;
+    }
 
     /**
-     * Returns the list of project artifacts. Also artifacts generated from referenced projects will be added, 
-     * but with the <code>resolved</code> property set to true.
+     * Process all projects of the reactor concurrently on a fork-join pool of {@link #getReactorThreads()} threads,
+     * each with a copy of this mojo created by {@link #copyForProject(MavenProject)}. The copies share the
+     * resolution cache of the session, so overlapping dependency graphs are collected and resolved once. All
+     * projects are processed before the first failure is thrown.
      * 
-     * @return list of projects artifacts
-     * @throws MojoExecutionException if unable to parse dependency versions
+     * @throws MojoExecutionException if a project can't be processed
      */
-    private Set getProjectArtifacts()
+    private void executeReactor()
         throws MojoExecutionException
     {
-        // [MECLIPSE-388] Don't sort this, the order should be identical to getProject.getDependencies()
-        Set artifacts = new LinkedHashSet();
+        // create the cache of the session before the copies, so they share it
+        getResolutionCache();
+        prepareReactor();
 
-        for ( Object o : getProject().getDependencies() )
+        List<AbstractIdeSupportMojo> copies = new ArrayList<AbstractIdeSupportMojo>();
+        for ( Object reactorProject : reactorProjects )
         {
-            Dependency dependency = (Dependency) o;
+            copies.add( copyForProject( (MavenProject) reactorProject ) );
+        }
 
-            String groupId = dependency.getGroupId();
-            String artifactId = dependency.getArtifactId();
-            VersionRange versionRange;
-            try
-            {
-                versionRange = VersionRange.createFromVersionSpec( dependency.getVersion() );
-            }
-            catch ( InvalidVersionSpecificationException e )
-            {
-                throw new MojoExecutionException(
-                                          Messages.getString( "AbstractIdeSupportMojo.unabletoparseversion",
-                                                              new Object[] { dependency.getArtifactId(),
-                                                                  dependency.getVersion(),
-                                                                  dependency.getManagementKey(), e.getMessage() } ),
-                                          e );
-            }
+        int threads = Math.min( getReactorThreads(), Math.max( 1, copies.size() ) );
+        getLog().info( Messages.getString( "AbstractIdeSupportMojo.processingreactor",
+                                           new Object[] { String.valueOf( copies.size() ),
+                                               String.valueOf( threads ) } ) );
 
-            String type = dependency.getType();
-            if ( type == null )
-            {
-                type = Constants.PROJECT_PACKAGING_JAR;
-            }
-            String classifier = dependency.getClassifier();
-            boolean optional = dependency.isOptional();
-            String scope = dependency.getScope();
-            if ( scope == null )
+        ForkJoinPool pool = new ForkJoinPool( threads );
+        MojoExecutionException failure = null;
+        try
+        {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for ( final AbstractIdeSupportMojo copy : copies )
             {
-                scope = Artifact.SCOPE_COMPILE;
+                futures.add( pool.submit( new Callable<Void>()
+                {
+                    public Void call()
+                        throws MojoExecutionException
+                    {
+                        copy.executeProject();
+                        return null;
+                    }
+                } ) );
             }
 
-            Artifact art =
-                getArtifactFactory().createDependencyArtifact( groupId, artifactId, versionRange, type, classifier,
-                                                               scope, optional );
-
-            if ( scope.equalsIgnoreCase( Artifact.SCOPE_SYSTEM ) )
+            for ( int i = 0; i < futures.size(); i++ )
             {
-                art.setFile( new File( dependency.getSystemPath() ) );
+                try
+                {
+                    getResult( futures.get( i ) );
+                }
+                catch ( MojoExecutionException e )
+                {
+                    if ( failure != null )
+                    {
+                        getLog().error( copies.get( i ).project.getId() + ": " + e.getMessage(), e );
+                    }
+                    else
+                    {
+                        failure = e;
+                    }
+                }
             }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
 
-            handleExclusions( art, dependency );
+        completeSession();
 
-            artifacts.add( art );
+        if ( failure != null )
+        {
+            throw failure;
         }
-
-        return artifacts;
     }
 
     /**
-     * Apply exclusion filters to direct AND transitive dependencies.
+     * Prepares the state shared by the copies processing the projects of the reactor in {@link #executeReactor()},
+     * before they are created. The default implementation does nothing.
      * 
-     * @param artifact
-     * @param dependency
+     * @since 3.2.1
      */
-    private void handleExclusions( Artifact artifact, Dependency dependency )
+    protected void prepareReactor()
+    {
+    }
+
+    /**
+     * Creates a copy of this mojo, with its configuration, to process another project of the reactor in
+     * {@link #executeReactor()}. Subclasses override this method to copy the parameters that are changed while a
+     * project is processed and to reset the parameters with a default value depending on the project.
+     * 
+     * @param reactorProject the project of the reactor
+     * @return the copy
+     * @throws MojoExecutionException if the copy can't be created
+     * @since 3.2.1
+     */
+    protected AbstractIdeSupportMojo copyForProject( MavenProject reactorProject )
+        throws MojoExecutionException
+    {
+        AbstractIdeSupportMojo copy;
+        try
+        {
+            copy = (AbstractIdeSupportMojo) clone();
+        }
+        catch ( CloneNotSupportedException e )
+        {
+            // can't happen, the mojo is cloneable
+            throw new IllegalStateException( e );
+        }
+        copy.project = reactorProject;
+        copy.executedProject =
+            reactorProject.getExecutionProject() != null ? reactorProject.getExecutionProject() : reactorProject;
+        copy.packaging = reactorProject.getPackaging();
+        copy.remoteArtifactRepositories = reactorProject.getRemoteArtifactRepositories();
+        copy.remoteProjectRepositories = getRemoteProjectRepositories( reactorProject, remoteProjectRepositories );
+        copy.missingSourceDependencies = new ArrayList();
+        copy.missingJavadocDependencies = new ArrayList();
+        copy.ideDeps = null;
+        copy.phaseMetrics = new BuildMetrics.Phase();
+        return copy;
+    }
+
+    /**
+     * Returns the remote repositories of a project for the resolver engine, with Maven 3.
+     * 
+     * @param reactorProject the project
+     * @param defaultValue the value returned with older Maven versions
+     * @return the remote project repositories
+     */
+    private static List getRemoteProjectRepositories( MavenProject reactorProject, List defaultValue )
+    {
+        try
+        {
+            return (List) reactorProject.getClass().getMethod( "getRemoteProjectRepositories" ).invoke(
+                reactorProject );
+        }
+        catch ( Exception e )
+        {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Start recording the metrics of a phase of the current project.
+     * 
+     * @param name the name of the phase
+     * @return the start time of the phase
+     */
+    private long startPhase( String name )
+    {
+        phaseMetrics = getPhaseMetrics( name );
+        return System.currentTimeMillis();
+    }
+
+    private void endPhase( long start )
+    {
+        phaseMetrics.addWallTime( System.currentTimeMillis() - start );
+    }
+
+    /**
+     * @return the metrics of the phase the mojo is in
+     * @since 3.2.1
+     */
+    protected BuildMetrics.Phase getCurrentPhaseMetrics()
+    {
+        return phaseMetrics;
+    }
+
+    /**
+     * Returns the metrics of a phase or writer of the current project, to be reported in the metrics report.
+     * 
+     * @param name the name of the phase or writer
+     * @return the metrics
+     * @since 3.2.1
+     */
+    protected BuildMetrics.Phase getPhaseMetrics( String name )
+    {
+        return getResolutionCache().getMetrics().getPhase( project.getId(), name );
+    }
+
+    /**
+     * Write the configuration with the attachments available in the local repository and download the missing ones on
+     * the background executor of the session. The configuration is updated by
+     * {@link #writeAttachmentsUpdate(IdeDependency[])} once the downloads of the project are complete.
+     * 
+     * @param deps resolved dependencies
+     * @throws MojoExecutionException if the configuration can't be written
+     */
+    private void writeConfigurationAndDownloadInBackground( final IdeDependency[] deps )
+        throws MojoExecutionException
+    {
+        long start = startPhase( BuildMetrics.ATTACHMENTS );
+        final boolean downloadSources = getDownloadSources();
+        final boolean downloadJavadocs = getDownloadJavadocs();
+        final List sourcesToDownload = new ArrayList();
+        final List javadocsToDownload = new ArrayList();
+        for ( IdeDependency dependency : deps )
+        {
+            Artifact sources = resolveClassifierArtifact( dependency, "sources", Collections.EMPTY_LIST, false );
+            attachClassifierArtifact( dependency, sources, "sources", false,
+                                      downloadSources ? sourcesToDownload : missingSourceDependencies );
+            Artifact javadoc = resolveClassifierArtifact( dependency, "javadoc", Collections.EMPTY_LIST, false );
+            attachClassifierArtifact( dependency, javadoc, "javadoc", downloadJavadocs,
+                                      downloadJavadocs ? javadocsToDownload : missingJavadocDependencies );
+        }
+
+        endPhase( start );
+
+        start = startPhase( BuildMetrics.WRITE_CONFIGURATION );
+        writeConfiguration( deps );
+        endPhase( start );
+
+        if ( sourcesToDownload.isEmpty() && javadocsToDownload.isEmpty() )
+        {
+            getNotAvailableIndex().store( getLog() );
+            reportMissingArtifacts();
+            return;
+        }
+
+        final List remoteRepos = getRemoteArtifactRepositories();
+        // the build thread is done with the mojo, the lookups of the background task are counted in the background
+        // phase of the project
+        final BuildMetrics.Phase backgroundMetrics = getPhaseMetrics( BuildMetrics.BACKGROUND_ATTACHMENTS );
+        phaseMetrics = backgroundMetrics;
+        getResolutionCache().submitBackgroundTask( new Callable<String>()
+        {
+            public String call()
+                throws MojoExecutionException
+            {
+                long start = System.currentTimeMillis();
+                try
+                {
+                    int downloaded = 0;
+                    for ( Object o : sourcesToDownload )
+                    {
+                        IdeDependency dependency = (IdeDependency) o;
+                        Artifact artifact = resolveClassifierArtifact( dependency, "sources", remoteRepos, true );
+                        attachClassifierArtifact( dependency, artifact, "sources", true, missingSourceDependencies );
+                        downloaded += artifact != null && artifact.isResolved() ? 1 : 0;
+                    }
+                    for ( Object o : javadocsToDownload )
+                    {
+                        IdeDependency dependency = (IdeDependency) o;
+                        Artifact artifact = resolveClassifierArtifact( dependency, "javadoc", remoteRepos, true );
+                        attachClassifierArtifact( dependency, artifact, "javadoc", true, missingJavadocDependencies );
+                        downloaded += artifact != null && artifact.isResolved() ? 1 : 0;
+                    }
+                    getNotAvailableIndex().store( getLog() );
+
+                    // reported once the session is complete, not in the output of the project running now
+                    StringBuilder report = new StringBuilder();
+                    if ( downloaded > 0 )
+                    {
+                        writeAttachmentsUpdate( deps );
+                        report.append( Messages.getString( "AbstractIdeSupportMojo.updatedattachments",
+                                                           new Object[] { project.getId(),
+                                                               String.valueOf( downloaded ) } ) );
+                    }
+                    String missingArtifacts = getMissingArtifactsReport();
+                    if ( missingArtifacts.length() > 0 )
+                    {
+                        if ( report.length() > 0 )
+                        {
+                            report.append( '\n' );
+                        }
+                        report.append( Messages.getString( "AbstractIdeSupportMojo.attachmentsreport",
+                                                           new Object[] { project.getId(), missingArtifacts } ) );
+                    }
+                    return report.toString();
+                }
+                finally
+                {
+                    backgroundMetrics.addWallTime( System.currentTimeMillis() - start );
+                }
+            }
+        }, backgroundDownloadThreads, getLog() );
+    }
+
+    /**
+     * Write the IDE configuration again after sources or javadoc attachments were downloaded in the background. The
+     * default implementation writes the whole configuration, implementations may only write the affected files.
+     * 
+     * @param deps the dependencies with the downloaded attachments
+     * @throws MojoExecutionException if the configuration can't be written
+     * @since 3.2.1
+     */
+    protected void writeAttachmentsUpdate( IdeDependency[] deps )
+        throws MojoExecutionException
+    {
+        writeConfiguration( deps );
+    }
+
+    /**
+     * @return <code>true</code> if the current project is the last project of the reactor
+     */
+    private boolean isLastReactorProject()
+    {
+        return reactorProjects == null || reactorProjects.isEmpty()
+            || reactorProjects.get( reactorProjects.size() - 1 ) == project;
+    }
+
+    /**
+     * Wait for the background downloads of all projects of the session.
+     * 
+     * @throws MojoExecutionException if the current thread is interrupted while waiting
+     */
+    private void awaitBackgroundDownloads()
+        throws MojoExecutionException
+    {
+        List<Future<String>> tasks = getResolutionCache().takeBackgroundTasks();
+        if ( tasks.isEmpty() )
+        {
+            return;
+        }
+        getLog().info( Messages.getString( "AbstractIdeSupportMojo.waitingforattachments",
+                                           String.valueOf( tasks.size() ) ) );
+        for ( Future<String> task : tasks )
+        {
+            try
+            {
+                String report = task.get();
+                if ( report.length() > 0 )
+                {
+                    getLog().info( report );
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException( Messages.getString( "AbstractIdeSupportMojo.resolutioninterrupted" ),
+                                                  e );
+            }
+            catch ( ExecutionException e )
+            {
+                // the configuration written before the downloads is kept
+                getLog().warn( e.getCause().getMessage(), e.getCause() );
+            }
+        }
+    }
+
+    /**
+     * Resolve project dependencies. Manual resolution is needed in order to avoid resolution of multiproject artifacts
+     * (if projects will be linked each other an installed jar is not needed) and to avoid a failure when a jar is
+     * missing.
+     * 
+     * @throws MojoExecutionException if dependencies can't be resolved
+     * @return resolved IDE dependencies, with attached jars for non-reactor dependencies
+     */
+    protected IdeDependency[] doDependencyResolution()
+        throws MojoExecutionException
+    {
+        if ( ideDeps == null )
+        {
+            if ( resolveDependencies )
+            {
+                if ( !RESOLUTION_ENGINE_LEGACY.equals( resolutionEngine )
+                    && !RESOLUTION_ENGINE_RESOLVER.equals( resolutionEngine ) )
+                {
+                    throw new MojoExecutionException(
+                        Messages.getString( "AbstractIdeSupportMojo.unknownresolutionengine", resolutionEngine ) );
+                }
+
+                MavenProject project = getProject();
+
+                List deps = getProject().getDependencies();
+
+                // Collect the list of resolved IdeDependencies.
+                List dependencies = new ArrayList();
+
+                if ( deps != null )
+                {
+                    ResolutionCache cache = getResolutionCache();
+                    String managedVersionsKey = ResolutionCache.managedVersionsKey( project.getDependencyManagement() );
+
+                    String collectionKey = resolutionEngine + '#'
+                        + ResolutionCache.collectionKey( deps, managedVersionsKey,
+                                                         project.getRemoteArtifactRepositories() );
+                    // the artifacts resolved by Maven are used without looking up the graphs of the session
+                    List nodes =
+                        isUseResolvedProjectArtifacts() ? null : cache.getCollectedNodes( collectionKey, project );
+                    if ( nodes != null )
+                    {
+                        phaseMetrics.cacheHit();
+                    }
+                    ResolutionCacheFile cacheFile = null;
+                    String cacheFileKey = null;
+                    if ( isUseResolvedProjectArtifacts() )
+                    {
+                        // already resolved by Maven
+                        nodes = toResolutionNodes( new ArrayList<Artifact>( project.getArtifacts() ) );
+                    }
+                    else if ( nodes == null )
+                    {
+                        cacheFile = getResolutionCacheFile();
+                        if ( cacheFile != null )
+                        {
+                            cacheFileKey =
+                                IdeUtils.sha1Hex( collectionKey + '#' + cache.getReactorKey( reactorProjects ) + '#'
+                                    + getLocalRepository().getBasedir() );
+                            phaseMetrics.fileRead();
+                            nodes = toResolutionNodes( cacheFile.load( cacheFileKey, getArtifactFactory() ) );
+                        }
+                        if ( nodes == null )
+                        {
+                            Object event =
+                                FlightRecorderEvents.beginDependencyCollection( project.getId(), resolutionEngine );
+                            if ( RESOLUTION_ENGINE_RESOLVER.equals( resolutionEngine ) )
+                            {
+                                nodes = resolveResolutionNodes( cache );
+                            }
+                            else
+                            {
+                                nodes = collectResolutionNodes( getManagedVersions( cache, managedVersionsKey ) );
+                            }
+                            FlightRecorderEvents.end( event );
+                            if ( nodes == null )
+                            {
+                                // create a project without dependencies but don't fail
+                                // (this could be a reactor projects, we don't want to fail everything)
+                                // Causes MECLIPSE-185. Not sure if it should be handled this way??
+                                return new IdeDependency[0];
+                            }
+                        }
+                        else
+                        {
+                            getLog().debug( "Reusing the dependencies stored in " + ResolutionCacheFile.FILE_NAME );
+                            phaseMetrics.cacheHit();
+                            cacheFile = null;
+                        }
+                        cache.putCollectedNodes( collectionKey, nodes );
+                    }
+                    else
+                    {
+                        getLog().debug( "Reusing the dependency graph collected for another module of the reactor" );
+                    }
+
+                    // keep track of added reactor projects in order to avoid duplicates
+                    Set emittedReactorProjectId = new HashSet();
+
+                    ManifestIndex manifestIndex =
+                        cache.getManifestIndex( new File( getLocalRepository().getBasedir(), MANIFEST_INDEX_FILE ),
+                                                getLog() );
+
+                    // don't resolve jars for reactor projects
+                    resolveArtifacts( nodes );
+
+                    if ( cacheFile != null )
+                    {
+                        storeResolutionNodes( cacheFile, cacheFileKey, nodes );
+                    }
+
+                    for ( Object o : nodes )
+                    {
+
+                        ResolutionNode node = (ResolutionNode) o;
+                        int dependencyDepth = node.getDepth();
+                        Artifact art = node.getArtifact();
+
+                        boolean includeArtifact = true;
+                        if ( getExcludes() != null )
+                        {
+                            String artifactFullId = art.getGroupId() + ":" + art.getArtifactId();
+                            if ( getExcludes().contains( artifactFullId ) )
+                            {
+                                getLog().info( "excluded: " + artifactFullId );
+                                includeArtifact = false;
+                            }
+                        }
+
+                        if ( includeArtifact
+                            && ( !( getUseProjectReferences() && isAvailableAsAReactorProject( art ) ) 
+                                    || emittedReactorProjectId.add( art.getGroupId() + '-' + art.getArtifactId() ) ) )
+                        {
+
+                            // the following doesn't work: art.getArtifactHandler().getPackaging() always returns "jar"
+                            // also
+                            // if the packaging specified in pom.xml is different.
+
+                            // osgi-bundle packaging is provided by the felix osgi plugin
+                            // eclipse-plugin packaging is provided by this eclipse plugin
+                            // String packaging = art.getArtifactHandler().getPackaging();
+                            // boolean isOsgiBundle = "osgi-bundle".equals( packaging ) || "eclipse-plugin".equals(
+                            // packaging );
+
+                            // we need to check the manifest, if "Bundle-SymbolicName" is there the artifact can be
+                            // considered
+                            // an osgi bundle
+                            String osgiSymbolicName = null;
+                            if ( art.getFile() != null )
+                            {
+                                osgiSymbolicName =
+                                    manifestIndex.getBundleSymbolicName( art.getFile(), phaseMetrics, getLog() );
+                            }
+
+                            boolean isOsgiBundle = osgiSymbolicName != null;
+
+                            IdeDependency dep =
+                                new IdeDependency( art.getGroupId(), art.getArtifactId(), art.getVersion(),
+                                                   art.getClassifier(), useProjectReference( art ),
+                                                   Artifact.SCOPE_TEST.equals( art.getScope() ),
+                                                   Artifact.SCOPE_SYSTEM.equals( art.getScope() ),
+                                                   Artifact.SCOPE_PROVIDED.equals( art.getScope() ),
+                                                   art.getArtifactHandler().isAddedToClasspath(), art.getFile(),
+                                                   art.getType(), isOsgiBundle, osgiSymbolicName, dependencyDepth,
+                                                   getProjectNameForArifact( art ) );
+                            // no duplicate entries allowed. System paths can cause this problem.
+                            if ( !dependencies.contains( dep ) )
+                            {
+                                dependencies.add( dep );
+                            }
+                        }
+
+                    }
+
+                    manifestIndex.store( getLog() );
+
+                    // @todo a final report with the list of
+                    // missingArtifacts?
+
+                }
+
+                ideDeps = (IdeDependency[]) dependencies.toArray( new IdeDependency[dependencies.size()] );
+            }
+            else
+            {
+                ideDeps = new IdeDependency[0];
+            }
+        }
+
+        return ideDeps;
+    }
+
+    /**
+     * Returns the managed versions of the project, the map is shared by the projects with the same dependency
+     * management.
+     * 
+     * @param cache the session cache
+     * @param managedVersionsKey the key of the dependency management of the project
+     * @return the managed versions
+     * @throws MojoExecutionException if unable to parse dependency versions
+     */
+    private Map getManagedVersions( ResolutionCache cache, String managedVersionsKey )
+        throws MojoExecutionException
+    {
+        Map managedVersions = cache.getManagedVersions( managedVersionsKey );
+        if ( managedVersions != null )
+        {
+            phaseMetrics.cacheHit();
+        }
+        else
+        {
+            managedVersions =
+                createManagedVersionMap( getArtifactFactory(), getProject().getId(),
+                                         getProject().getDependencyManagement() );
+            cache.putManagedVersions( managedVersionsKey, managedVersions );
+        }
+        return managedVersions;
+    }
+
+    /**
+     * Collect and resolve the transitive dependencies of the project with Maven Resolver. The jars are resolved right
+     * away, the results are registered in the session cache.
+     * 
+     * @param cache the session cache
+     * @return the collected <code>ResolutionNode</code>s or <code>null</code> if the dependencies can't be collected
+     * @throws MojoExecutionException if Maven Resolver is not available
+     */
+    private List resolveResolutionNodes( ResolutionCache cache )
+        throws MojoExecutionException
+    {
+        ResolverDependencyResolver resolver =
+            new ResolverDependencyResolver( mavenSession, repositorySystemSession, remoteProjectRepositories,
+                                            getArtifactFactory(), getLog() );
+        phaseMetrics.resolverCall();
+        return resolver.resolve( getProject(), cache, new ArtifactFilter()
+        {
+            public boolean include( Artifact artifact )
+            {
+                return hasToResolveJar( artifact );
+            }
+        } );
+    }
+
+    /**
+     * Collect the transitive dependencies of the project.
+     * 
+     * @param managedVersions the managed versions of the project
+     * @return the collected <code>ResolutionNode</code>s or <code>null</code> if the dependencies can't be collected
+     * @throws MojoExecutionException if unable to parse dependency versions
+     */
+    private List collectResolutionNodes( Map managedVersions )
+        throws MojoExecutionException
+    {
+        MavenProject project = getProject();
+        ArtifactResolutionResult artifactResolutionResult;
+
+        try
+        {
+
+            List listeners = new ArrayList();
+
+            if ( logger.isDebugEnabled() )
+            {
+                listeners.add( new DebugResolutionListener( logger ) );
+            }
+
+            listeners.add( new WarningResolutionListener( logger ) );
+
+            phaseMetrics.resolverCall();
+            artifactResolutionResult =
+                artifactCollector.collect( getProjectArtifacts(), project.getArtifact(), managedVersions,
+                                           getLocalRepository(), project.getRemoteArtifactRepositories(),
+                                           getArtifactMetadataSource(), null, listeners );
+        }
+        catch ( ArtifactResolutionException e )
+        {
+            getLog().debug( e.getMessage(), e );
+            getLog().error( Messages.getString( "AbstractIdeSupportMojo.artifactresolution", new Object[] {
+                                                e.getGroupId(), e.getArtifactId(), e.getVersion(),
+                                                    e.getMessage() } ) );
+            return null;
+        }
+
+        return Collections.unmodifiableList( new ArrayList( artifactResolutionResult.getArtifactResolutionNodes() ) );
+    }
+
+    /**
+     * Whether the dependencies resolved by Maven (<code>project.getArtifacts()</code>) are used instead of collecting
+     * and resolving the dependencies in the plugin. Mojos returning <code>true</code> must require dependency
+     * resolution in test scope.
+     * 
+     * @return <code>true</code> to use the project artifacts, <code>false</code> by default
+     */
+    protected boolean isUseResolvedProjectArtifacts()
+    {
+        return false;
+    }
+
+    /**
+     * Returns the file storing the resolved dependencies of the project.
+     * 
+     * @return the file or <code>null</code> if the stored dependencies must not be used
+     */
+    private ResolutionCacheFile getResolutionCacheFile()
+    {
+        if ( !useResolutionCache || forceRecheck || getProject().getBuild() == null
+            || getProject().getBuild().getDirectory() == null )
+        {
+            return null;
+        }
+        return new ResolutionCacheFile( new File( getProject().getBuild().getDirectory() ), getLog() );
+    }
+
+    /**
+     * Create resolution nodes for already resolved artifacts, read from the resolution cache file or resolved by Maven.
+     * The resolved artifacts are added to the session cache so that they are not resolved again.
+     * 
+     * @param artifacts the artifacts, may be <code>null</code>
+     * @return the resolution nodes or <code>null</code> if no artifacts were given
+     */
+    private List toResolutionNodes( List<Artifact> artifacts )
+    {
+        if ( artifacts == null )
+        {
+            return null;
+        }
+        ResolutionCache cache = getResolutionCache();
+        List nodes = new ArrayList( artifacts.size() );
+        for ( Artifact artifact : artifacts )
+        {
+            if ( artifact.isResolved() )
+            {
+                cache.putResolvedFile( artifact );
+            }
+            nodes.add( new ResolutionNode( artifact, getProject().getRemoteArtifactRepositories() ) );
+        }
+        return Collections.unmodifiableList( nodes );
+    }
+
+    /**
+     * Store the resolved nodes in the resolution cache file. Nothing is stored, and an outdated file is deleted, if an
+     * artifact could not be resolved or if the graph contains snapshots which are not built in the reactor.
+     * 
+     * @param cacheFile the resolution cache file
+     * @param key the key of the current dependencies
+     * @param nodes the resolved nodes
+     */
+    private void storeResolutionNodes( ResolutionCacheFile cacheFile, String key, List nodes )
+    {
+        List<Artifact> artifacts = new ArrayList<Artifact>( nodes.size() );
+        for ( Object o : nodes )
+        {
+            Artifact art = ( (ResolutionNode) o ).getArtifact();
+            boolean unresolved = hasToResolveJar( art ) && ( art.getFile() == null || !art.getFile().exists() );
+            if ( unresolved || ( art.isSnapshot() && getReactorProject( art ) == null ) )
+            {
+                cacheFile.delete();
+                return;
+            }
+            artifacts.add( art );
+        }
+        cacheFile.store( key, artifacts );
+    }
+
+    /**
+     * Resolve the jars of the given resolution nodes, skipping the artifacts available as project references. If more
+     * than one resolver thread is configured the artifacts are downloaded in parallel, but failures are still reported
+     * in the order of the nodes.
+     * 
+     * @param nodes the <code>ResolutionNode</code>s to resolve
+     * @throws MojoExecutionException if the resolution is interrupted
+     */
+    private void resolveArtifacts( List nodes )
+        throws MojoExecutionException
+    {
+        List toResolve = new ArrayList();
+        for ( Object o : nodes )
+        {
+            ResolutionNode node = (ResolutionNode) o;
+            if ( hasToResolveJar( node.getArtifact() ) )
+            {
+                toResolve.add( node );
+            }
+        }
+
+        if ( resolverThreads <= 1 || toResolve.size() <= 1 )
+        {
+            for ( Object o : toResolve )
+            {
+                reportResolutionFailure( resolveArtifact( (ResolutionNode) o ) );
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( resolverThreads, toResolve.size() ) );
+        try
+        {
+            List futures = new ArrayList();
+            for ( Object o : toResolve )
+            {
+                final ResolutionNode node = (ResolutionNode) o;
+                futures.add( executor.submit( new Callable<AbstractArtifactResolutionException>()
+                {
+                    public AbstractArtifactResolutionException call()
+                    {
+                        return resolveArtifact( node );
+                    }
+                } ) );
+            }
+
+            for ( Object future : futures )
+            {
+                reportResolutionFailure( (AbstractArtifactResolutionException) getResult( (Future) future ) );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Wait for a resolver task and return its result, rethrowing unchecked failures of the task.
+     * 
+     * @param future the resolver task
+     * @return the result of the task
+     * @throws MojoExecutionException if the current thread is interrupted while waiting
+     */
+    private Object getResult( Future future )
+        throws MojoExecutionException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException( Messages.getString( "AbstractIdeSupportMojo.resolutioninterrupted" ), e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if ( e.getCause() instanceof Error )
+            {
+                throw (Error) e.getCause();
+            }
+            throw new MojoExecutionException( e.getCause().getMessage(), e.getCause() );
+        }
+    }
+
+    /**
+     * Resolve the jar of a single resolution node.
+     * 
+     * @param node the node to resolve
+     * @return the resolution failure or <code>null</code> if the artifact was resolved
+     */
+    private AbstractArtifactResolutionException resolveArtifact( ResolutionNode node )
+    {
+        Artifact artifact = node.getArtifact();
+        ResolutionCache cache = getResolutionCache();
+        if ( cache.applyResolvedFile( artifact ) )
+        {
+            phaseMetrics.cacheHit();
+            return null;
+        }
+        AbstractArtifactResolutionException failure = cache.getFailure( artifact );
+        if ( failure != null )
+        {
+            phaseMetrics.cacheHit();
+            return failure;
+        }
+
+        Object event = FlightRecorderEvents.beginArtifactResolution( project.getId(), artifact.getId() );
+        try
+        {
+            phaseMetrics.resolverCall();
+            artifactResolver.resolve( artifact, node.getRemoteRepositories(), localRepository );
+            cache.putResolvedFile( artifact );
+            return null;
+        }
+        catch ( ArtifactNotFoundException e )
+        {
+            cache.putFailure( artifact, e );
+            return e;
+        }
+        catch ( ArtifactResolutionException e )
+        {
+            cache.putFailure( artifact, e );
+            return e;
+        }
+        finally
+        {
+            FlightRecorderEvents.endResolution( event, artifact.isResolved() );
+        }
+    }
+
+    /**
+     * Resolve an artifact with {@link IdeUtils#resolveArtifact}, unless it was resolved before in the session. Only
+     * resolved artifacts are remembered, as the remote repositories used differ between the calls.
+     * 
+     * @param artifact the artifact to resolve
+     * @param remoteRepos the remote repositories to look up the artifact in
+     * @return the artifact, resolved if possible
+     */
+    private Artifact resolveArtifactMemoized( Artifact artifact, List remoteRepos )
+    {
+        ResolutionCache cache = getResolutionCache();
+        if ( cache.applyResolvedFile( artifact ) )
+        {
+            phaseMetrics.cacheHit();
+            return artifact;
+        }
+        phaseMetrics.resolverCall();
+        Object event = FlightRecorderEvents.beginArtifactResolution( project.getId(), artifact.getId() );
+        Artifact resolved =
+            IdeUtils.resolveArtifact( artifactResolver, artifact, remoteRepos, localRepository, getLog() );
+        FlightRecorderEvents.endResolution( event, resolved.isResolved() );
+        if ( resolved.isResolved() )
+        {
+            cache.putResolvedFile( resolved );
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the resolution cache of the current session.
+     * 
+     * @return the resolution cache
+     */
+    private synchronized ResolutionCache getResolutionCache()
+    {
+        if ( resolutionCache == null )
+        {
+            resolutionCache = ResolutionCache.get( mavenSession );
+        }
+        return resolutionCache;
+    }
+
+    /**
+     * @return the index of the unavailable sources and javadoc attachments in the local repository
+     */
+    private NotAvailableIndex getNotAvailableIndex()
+    {
+        File indexFile = NotAvailableIndex.getIndexFile( localRepository.getBasedir() );
+        return getResolutionCache().getNotAvailableIndex( indexFile, getLog() );
+    }
+
+    /**
+     * Log a resolution failure, if any, the resolution of the mojo doesn't fail because of missing artifacts.
+     * 
+     * @param e the failure returned by {@link #resolveArtifact(ResolutionNode)}, may be <code>null</code>
+     */
+    private void reportResolutionFailure( AbstractArtifactResolutionException e )
+    {
+        if ( e == null )
+        {
+            return;
+        }
+        getLog().debug( e.getMessage(), e );
+        String key = e instanceof ArtifactNotFoundException ? "AbstractIdeSupportMojo.artifactdownload"
+                        : "AbstractIdeSupportMojo.artifactresolution";
+        getLog().warn( Messages.getString( key, new Object[] { e.getGroupId(), e.getArtifactId(), e.getVersion(),
+            e.getMessage() } ) );
+    }
+
+    /**
+     * Find the name of the project as used in eclipse.
+     * 
+     * @param artifact The artifact to find the eclipse name for.
+     * @return The name os the eclipse project.
+     */
+    public abstract String getProjectNameForArifact( Artifact artifact );
+
+    /**
+     * Returns the list of project artifacts. Also artifacts generated from referenced projects will be added, 
+     * but with the <code>resolved</code> property set to true.
+     * 
+     * @return list of projects artifacts
+     * @throws MojoExecutionException if unable to parse dependency versions
+     */
+    private Set getProjectArtifacts()
+        throws MojoExecutionException
+    {
+        // [MECLIPSE-388] Don't sort this, the order should be identical to getProject.getDependencies()
+        Set artifacts = new LinkedHashSet();
+
+        for ( Object o : getProject().getDependencies() )
+        {
+            Dependency dependency = (Dependency) o;
+
+            String groupId = dependency.getGroupId();
+            String artifactId = dependency.getArtifactId();
+            VersionRange versionRange;
+            try
+            {
+                versionRange = VersionRange.createFromVersionSpec( dependency.getVersion() );
+            }
+            catch ( InvalidVersionSpecificationException e )
+            {
+                throw new MojoExecutionException(
+                                          Messages.getString( "AbstractIdeSupportMojo.unabletoparseversion",
+                                                              new Object[] { dependency.getArtifactId(),
+                                                                  dependency.getVersion(),
+                                                                  dependency.getManagementKey(), e.getMessage() } ),
+                                          e );
+            }
+
+            String type = dependency.getType();
+            if ( type == null )
+            {
+                type = Constants.PROJECT_PACKAGING_JAR;
+            }
+            String classifier = dependency.getClassifier();
+            boolean optional = dependency.isOptional();
+            String scope = dependency.getScope();
+            if ( scope == null )
+            {
+                scope = Artifact.SCOPE_COMPILE;
+            }
+
+            Artifact art =
+                getArtifactFactory().createDependencyArtifact( groupId, artifactId, versionRange, type, classifier,
+                                                               scope, optional );
+
+            if ( scope.equalsIgnoreCase( Artifact.SCOPE_SYSTEM ) )
+            {
+                art.setFile( new File( dependency.getSystemPath() ) );
+            }
+
+            handleExclusions( art, dependency );
+
+            artifacts.add( art );
+        }
+
+        return artifacts;
+    }
+
+    /**
+     * Apply exclusion filters to direct AND transitive dependencies.
+     * 
+     * @param artifact
+     * @param dependency
+     */
+    private void handleExclusions( Artifact artifact, Dependency dependency )
     {
 
         List exclusions = new ArrayList();
@@ -794,12 +1708,12 @@ public abstract class AbstractIdeSupportMojo
     {
         if ( reactorProjects != null )
         {
-            for ( Object reactorProject1 : reactorProjects )
+            Map<String, List<MavenProject>> index = getResolutionCache().getReactorProjectIndex( reactorProjects );
+            List<MavenProject> candidates =
+                index.get( ResolutionCache.reactorProjectKey( artifact.getGroupId(), artifact.getArtifactId() ) );
+            if ( candidates != null )
             {
-                MavenProject reactorProject = (MavenProject) reactorProject1;
-
-                if ( reactorProject.getGroupId().equals( artifact.getGroupId() )
-                    && reactorProject.getArtifactId().equals( artifact.getArtifactId() ) )
+                for ( MavenProject reactorProject : candidates )
                 {
                     if ( reactorProject.getVersion().equals( artifact.getVersion() ) )
                     {
@@ -819,6 +1733,22 @@ public abstract class AbstractIdeSupportMojo
         return null;
     }
 
+    /**
+     * Returns the context root defined for the current project by the configuration of the maven-ear-plugin in an ear
+     * project of the reactor. The context roots of all the web modules are indexed once per session.
+     *
+     * @return the context root, or <code>null</code> if no ear project of the reactor defines it
+     */
+    protected String getReactorWarContextRoot()
+    {
+        if ( reactorProjects == null )
+        {
+            return null;
+        }
+        Map<String, String> index = getResolutionCache().getWarContextRootIndex( reactorProjects, getLog() );
+        return index.get( ResolutionCache.reactorProjectKey( project.getGroupId(), project.getArtifactId() ) );
+    }
+
     /**
      * @return an array with all dependencies available in the workspace, to be implemented by the subclasses.
      */
@@ -872,9 +1802,17 @@ public abstract class AbstractIdeSupportMojo
      * attributes. Source and
      * 
      * @param deps resolved dependencies
+     * @throws MojoExecutionException if the concurrent resolution is interrupted
      */
     private void resolveSourceAndJavadocArtifacts( IdeDependency[] deps )
+        throws MojoExecutionException
     {
+        if ( resolverThreads > 1 )
+        {
+            resolveSourceAndJavadocArtifactsConcurrently( deps );
+            return;
+        }
+
         final List missingSources = resolveDependenciesWithClassifier( deps, "sources", getDownloadSources() );
         missingSourceDependencies.addAll( missingSources );
 
@@ -882,6 +1820,65 @@ public abstract class AbstractIdeSupportMojo
         missingJavadocDependencies.addAll( missingJavadocs );
     }
 
+    /**
+     * Resolve the sources and javadoc artifacts of all dependencies on a pool of <code>resolverThreads</code> threads.
+     * The artifacts are attached and the missing dependencies are collected in the same order as in the sequential
+     * mode once the lookups are complete.
+     * 
+     * @param deps resolved dependencies
+     * @throws MojoExecutionException if the resolution is interrupted
+     */
+    private void resolveSourceAndJavadocArtifactsConcurrently( IdeDependency[] deps )
+        throws MojoExecutionException
+    {
+        final boolean downloadSources = getDownloadSources();
+        final boolean downloadJavadocs = getDownloadJavadocs();
+        final List sourcesRemoteRepos = downloadSources ? getRemoteArtifactRepositories() : Collections.EMPTY_LIST;
+        final List javadocRemoteRepos = downloadJavadocs ? getRemoteArtifactRepositories() : Collections.EMPTY_LIST;
+
+        ExecutorService executor = Executors.newFixedThreadPool( resolverThreads );
+        try
+        {
+            Future[] sources = new Future[deps.length];
+            Future[] javadocs = new Future[deps.length];
+            for ( int i = 0; i < deps.length; i++ )
+            {
+                final IdeDependency dependency = deps[i];
+                sources[i] = executor.submit( new Callable<Artifact>()
+                {
+                    public Artifact call()
+                    {
+                        return resolveClassifierArtifact( dependency, "sources", sourcesRemoteRepos,
+                                                          downloadSources );
+                    }
+                } );
+                javadocs[i] = executor.submit( new Callable<Artifact>()
+                {
+                    public Artifact call()
+                    {
+                        return resolveClassifierArtifact( dependency, "javadoc", javadocRemoteRepos,
+                                                          downloadJavadocs );
+                    }
+                } );
+            }
+
+            for ( int i = 0; i < deps.length; i++ )
+            {
+                attachClassifierArtifact( deps[i], (Artifact) getResult( sources[i] ), "sources", downloadSources,
+                                          missingSourceDependencies );
+            }
+            for ( int i = 0; i < deps.length; i++ )
+            {
+                attachClassifierArtifact( deps[i], (Artifact) getResult( javadocs[i] ), "javadoc", downloadJavadocs,
+                                          missingJavadocDependencies );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Resolve the required artifacts for each of the dependency. <code>sources</code> or <code>javadoc</code> artifacts
      * (depending on the <code>classifier</code>) are attached to the dependency.
@@ -902,96 +1899,134 @@ public abstract class AbstractIdeSupportMojo
 
         for ( IdeDependency dependency : deps )
         {
-            if ( dependency.isReferencedProject() || dependency.isSystemScoped() )
-            {
-                // artifact not needed
-                continue;
-            }
+            Artifact artifact =
+                resolveClassifierArtifact( dependency, inClassifier, remoteRepos, includeRemoteRepositories );
+            attachClassifierArtifact( dependency, artifact, inClassifier, includeRemoteRepositories,
+                                      missingClassifierDependencies );
+        }
 
-            if ( getLog().isDebugEnabled() )
-            {
-                getLog().debug( "Searching for sources for " + dependency.getId() + ":" + dependency.getClassifier()
-                                    + " at " + dependency.getId() + ":" + inClassifier );
-            }
+        // return the list of dependencies missing the
+        // required artifact
+        return missingClassifierDependencies;
 
-            Artifact baseArtifact =
-                artifactFactory.createArtifactWithClassifier( dependency.getGroupId(), dependency.getArtifactId(),
-                                                              dependency.getVersion(), dependency.getType(),
-                                                              dependency.getClassifier() );
-            baseArtifact =
-                IdeUtils.resolveArtifact( artifactResolver, baseArtifact, remoteRepos, localRepository, getLog() );
-            if ( !baseArtifact.isResolved() )
-            {
-                // base artifact does not exist - no point checking for javadoc/sources
-                continue;
-            }
+    }
 
-            Artifact artifact =
-                IdeUtils.createArtifactWithClassifier( dependency.getGroupId(), dependency.getArtifactId(),
-                                                       dependency.getVersion(), dependency.getClassifier(),
-                                                       inClassifier, artifactFactory );
-            File notAvailableMarkerFile = IdeUtils.getNotAvailableMarkerFile( localRepository, artifact );
+    /**
+     * Resolve the <code>sources</code> or <code>javadoc</code> artifact of a single dependency. If the artifact can't
+     * be found in the remote repositories a not-available marker file is created.
+     * 
+     * @param dependency the dependency
+     * @param inClassifier the classifier we are looking for (either <code>sources</code> or <code>javadoc</code>)
+     * @param remoteRepos the remote repositories to search
+     * @param includeRemoteRepositories flag whether we should search remote repositories for the artifacts or not
+     * @return the (possibly unresolved) classifier artifact, or <code>null</code> if there was nothing to look up
+     */
+    private Artifact resolveClassifierArtifact( IdeDependency dependency, String inClassifier, List remoteRepos,
+                                                boolean includeRemoteRepositories )
+    {
+        if ( dependency.isReferencedProject() || dependency.isSystemScoped() )
+        {
+            // artifact not needed
+            return null;
+        }
+
+        if ( getLog().isDebugEnabled() )
+        {
+            getLog().debug( "Searching for sources for " + dependency.getId() + ":" + dependency.getClassifier()
+                                + " at " + dependency.getId() + ":" + inClassifier );
+        }
+
+        Artifact baseArtifact =
+            artifactFactory.createArtifactWithClassifier( dependency.getGroupId(), dependency.getArtifactId(),
+                                                          dependency.getVersion(), dependency.getType(),
+                                                          dependency.getClassifier() );
+        if ( getResolutionCache().getFailure( baseArtifact ) != null )
+        {
+            // base artifact failed to resolve with the project dependencies
+            return null;
+        }
+        baseArtifact = resolveArtifactMemoized( baseArtifact, remoteRepos );
+        if ( !baseArtifact.isResolved() )
+        {
+            // base artifact does not exist - no point checking for javadoc/sources
+            return null;
+        }
+
+        Artifact artifact =
+            IdeUtils.createArtifactWithClassifier( dependency.getGroupId(), dependency.getArtifactId(),
+                                                   dependency.getVersion(), dependency.getClassifier(),
+                                                   inClassifier, artifactFactory );
+        NotAvailableIndex notAvailableIndex = getNotAvailableIndex();
+        if ( !forceRecheck && notAvailableIndex.isNotAvailable( artifact, notAvailableRecheckDays * DAY_MILLIS ) )
+        {
+            phaseMetrics.cacheHit();
+            return null;
+        }
+
+        Object event = FlightRecorderEvents.beginClassifierLookup( project.getId(), dependency.getId(), inClassifier );
+        artifact = resolveArtifactMemoized( artifact, remoteRepos );
+        FlightRecorderEvents.endResolution( event, artifact.isResolved() );
+        if ( artifact.isResolved() )
+        {
+            notAvailableIndex.remove( artifact );
+        }
+        else if ( includeRemoteRepositories )
+        {
+            notAvailableIndex.markNotAvailable( artifact );
+            getLog().debug( Messages.getString( "AbstractIdeSupportMojo.markednotavailable", artifact.getId() ) );
+        }
+        return artifact;
+    }
 
-            if ( forceRecheck && notAvailableMarkerFile.exists() )
+    /**
+     * Attach a classifier artifact returned by
+     * {@link #resolveClassifierArtifact(IdeDependency, String, List, boolean)} to its dependency.
+     * 
+     * @param dependency the dependency
+     * @param artifact the classifier artifact, may be <code>null</code>
+     * @param inClassifier the classifier we are looking for (either <code>sources</code> or <code>javadoc</code>)
+     * @param includeRemoteRepositories flag whether we should search remote repositories for the artifacts or not
+     * @param missingClassifierDependencies the list of dependencies lacking the required artifact
+     */
+    private void attachClassifierArtifact( IdeDependency dependency, Artifact artifact, String inClassifier,
+                                           boolean includeRemoteRepositories, List missingClassifierDependencies )
+    {
+        if ( artifact == null )
+        {
+            return;
+        }
+        if ( artifact.isResolved() )
+        {
+            if ( "sources".equals( inClassifier ) )
             {
-                if ( !notAvailableMarkerFile.delete() )
-                {
-                    getLog().warn( Messages.getString( "AbstractIdeSupportMojo.unabletodeletenotavailablemarkerfile",
-                                                       notAvailableMarkerFile ) );
-                }
+                dependency.setSourceAttachment( artifact.getFile() );
             }
-
-            if ( !notAvailableMarkerFile.exists() )
+            else if ( "javadoc".equals( inClassifier ) && includeRemoteRepositories )
             {
-                artifact =
-                    IdeUtils.resolveArtifact( artifactResolver, artifact, remoteRepos, localRepository, getLog() );
-                if ( artifact.isResolved() )
-                {
-                    if ( "sources".equals( inClassifier ) )
-                    {
-                        dependency.setSourceAttachment( artifact.getFile() );
-                    }
-                    else if ( "javadoc".equals( inClassifier ) && includeRemoteRepositories )
-                    {
-                        dependency.setJavadocAttachment( artifact.getFile() );
-                    }
-                }
-                else
-                {
-                    if ( includeRemoteRepositories )
-                    {
-                        try
-                        {
-                            notAvailableMarkerFile.createNewFile();
-                            getLog().debug( 
-                                     Messages.getString( "AbstractIdeSupportMojo.creatednotavailablemarkerfile", 
-                                                         notAvailableMarkerFile ) );
-                        }
-                        catch ( IOException e )
-                        {
-                            getLog().warn( 
-                                     Messages.getString( "AbstractIdeSupportMojo.failedtocreatenotavailablemarkerfile",
-                                                         notAvailableMarkerFile ) );
-                        }
-                    }
-                    // add the dependencies to the list
-                    // of those lacking the required
-                    // artifact
-                    missingClassifierDependencies.add( dependency );
-                }
+                dependency.setJavadocAttachment( artifact.getFile() );
             }
         }
-
-        // return the list of dependencies missing the
-        // required artifact
-        return missingClassifierDependencies;
-
+        else
+        {
+            // add the dependencies to the list
+            // of those lacking the required
+            // artifact
+            missingClassifierDependencies.add( dependency );
+        }
     }
 
     /**
      * Output a message with the list of missing dependencies and info on how turn download on if it was disabled.
      */
     private void reportMissingArtifacts()
+    {
+        getLog().info( getMissingArtifactsReport() );
+    }
+
+    /**
+     * @return the list of missing dependencies and info on how turn download on if it was disabled
+     */
+    private String getMissingArtifactsReport()
     {
         StringBuilder msg = new StringBuilder();
 
@@ -1018,7 +2053,7 @@ public abstract class AbstractIdeSupportMojo
             }
             msg.append( "\n" ); //$NON-NLS-1$
         }
-        getLog().info( msg );
+        return msg.toString();
     }
 
     /**
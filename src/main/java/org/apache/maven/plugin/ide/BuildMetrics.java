@@ -0,0 +1,228 @@
+package org.apache.maven.plugin.ide;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.maven.plugin.eclipse.Messages;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Wall time, resolver calls, cache hits and files read and written of the phases of the IDE mojos, collected for all
+ * projects of a session and written as a JSON report at the end of the session.
+ *
+ * @version $Id$
+ */
+public class BuildMetrics
+{
+
+    public static final String SETUP = "setup";
+
+    public static final String DEPENDENCY_RESOLUTION = "dependencyResolution";
+
+    public static final String ATTACHMENTS = "attachments";
+
+    public static final String BACKGROUND_ATTACHMENTS = "backgroundAttachments";
+
+    public static final String WRITE_CONFIGURATION = "writeConfiguration";
+
+    public static final String REPORT_MISSING_ARTIFACTS = "reportMissingArtifacts";
+
+    private final long start = System.currentTimeMillis();
+
+    private final Map<String, Map<String, Phase>> projects = new LinkedHashMap<String, Map<String, Phase>>();
+
+    /**
+     * Returns the metrics of a phase of a project, the phases are reported in the order they are first requested.
+     *
+     * @param projectId the id of the project
+     * @param name the name of the phase or writer
+     * @return the metrics of the phase
+     */
+    public synchronized Phase getPhase( String projectId, String name )
+    {
+        Map<String, Phase> phases = projects.get( projectId );
+        if ( phases == null )
+        {
+            phases = new LinkedHashMap<String, Phase>();
+            projects.put( projectId, phases );
+        }
+        Phase phase = phases.get( name );
+        if ( phase == null )
+        {
+            phase = new Phase();
+            phases.put( name, phase );
+        }
+        return phase;
+    }
+
+    /**
+     * Write the report, with the metrics of each project and the totals of each phase over all projects.
+     *
+     * @param file the report file
+     * @param log the mojo log
+     */
+    public synchronized void write( File file, Log log )
+    {
+        Map<String, Phase> totals = new LinkedHashMap<String, Phase>();
+        for ( Map<String, Phase> phases : projects.values() )
+        {
+            for ( Map.Entry<String, Phase> entry : phases.entrySet() )
+            {
+                Phase total = totals.get( entry.getKey() );
+                if ( total == null )
+                {
+                    total = new Phase();
+                    totals.put( entry.getKey(), total );
+                }
+                total.add( entry.getValue() );
+            }
+        }
+
+        StringBuilder json = new StringBuilder();
+        json.append( "{\n  \"wallTimeMillis\": " ).append( System.currentTimeMillis() - start );
+        json.append( ",\n  \"projectCount\": " ).append( projects.size() );
+        json.append( ",\n  \"totals\": " );
+        appendPhases( json, totals, "  " );
+        json.append( ",\n  \"projects\": [" );
+        List<String> ids = new ArrayList<String>( projects.keySet() );
+        for ( int i = 0; i < ids.size(); i++ )
+        {
+            json.append( i > 0 ? ",\n" : "\n" );
+            json.append( "    {\n      \"id\": \"" ).append( escape( ids.get( i ) ) ).append( "\",\n" );
+            json.append( "      \"phases\": " );
+            appendPhases( json, projects.get( ids.get( i ) ), "      " );
+            json.append( "\n    }" );
+        }
+        json.append( "\n  ]\n}\n" );
+
+        Writer w = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+            w = new OutputStreamWriter( new FileOutputStream( file ), "UTF-8" );
+            w.write( json.toString() );
+            log.info( Messages.getString( "AbstractIdeSupportMojo.wrotemetrics", file ) );
+        }
+        catch ( IOException e )
+        {
+            log.warn( Messages.getString( "AbstractIdeSupportMojo.unabletowritemetrics", file ) );
+            log.debug( e.getMessage(), e );
+        }
+        finally
+        {
+            IOUtil.close( w );
+        }
+    }
+
+    private static void appendPhases( StringBuilder json, Map<String, Phase> phases, String indent )
+    {
+        json.append( '{' );
+        boolean first = true;
+        for ( Map.Entry<String, Phase> entry : phases.entrySet() )
+        {
+            json.append( first ? "\n" : ",\n" ).append( indent ).append( "  \"" );
+            json.append( escape( entry.getKey() ) ).append( "\": " );
+            entry.getValue().append( json );
+            first = false;
+        }
+        json.append( '\n' ).append( indent ).append( '}' );
+    }
+
+    private static String escape( String value )
+    {
+        return value.replace( "\\", "\\\\" ).replace( "\"", "\\\"" );
+    }
+
+    /**
+     * The metrics of a single phase, updated concurrently by the resolver threads.
+     */
+    public static class Phase
+    {
+        private final AtomicLong wallTime = new AtomicLong();
+
+        private final AtomicLong resolverCalls = new AtomicLong();
+
+        private final AtomicLong cacheHits = new AtomicLong();
+
+        private final AtomicLong filesRead = new AtomicLong();
+
+        private final AtomicLong filesWritten = new AtomicLong();
+
+        /**
+         * @param millis the wall time spent in the phase
+         */
+        public void addWallTime( long millis )
+        {
+            wallTime.addAndGet( millis );
+        }
+
+        public void resolverCall()
+        {
+            resolverCalls.incrementAndGet();
+        }
+
+        public void cacheHit()
+        {
+            cacheHits.incrementAndGet();
+        }
+
+        public void fileRead()
+        {
+            filesRead.incrementAndGet();
+        }
+
+        /**
+         * @param count the number of files written
+         */
+        public void filesWritten( long count )
+        {
+            filesWritten.addAndGet( count );
+        }
+
+        private void add( Phase phase )
+        {
+            wallTime.addAndGet( phase.wallTime.get() );
+            resolverCalls.addAndGet( phase.resolverCalls.get() );
+            cacheHits.addAndGet( phase.cacheHits.get() );
+            filesRead.addAndGet( phase.filesRead.get() );
+            filesWritten.addAndGet( phase.filesWritten.get() );
+        }
+
+        private void append( StringBuilder json )
+        {
+            json.append( "{ \"wallTimeMillis\": " ).append( wallTime.get() );
+            json.append( ", \"resolverCalls\": " ).append( resolverCalls.get() );
+            json.append( ", \"cacheHits\": " ).append( cacheHits.get() );
+            json.append( ", \"filesRead\": " ).append( filesRead.get() );
+            json.append( ", \"filesWritten\": " ).append( filesWritten.get() ).append( " }" );
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.apache.maven.plugin.ide;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Java Flight Recorder events of the IDE mojos: the collection of the dependency graph, the resolution of each
+ * artifact, the lookup of each sources and javadoc attachment and each writer. The events are only recorded when the
+ * build runs with a flight recording, e.g. <code>MAVEN_OPTS=-XX:StartFlightRecording</code>. On Java runtimes without
+ * the <code>jdk.jfr</code> module all methods do nothing.
+ * <p>
+ * The events are returned as <code>Object</code>, so that the JFR types are only loaded by {@link JfrEvents}.
+ *
+ * @version $Id$
+ */
+public final class FlightRecorderEvents
+{
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private FlightRecorderEvents()
+    {
+        // no instances
+    }
+
+    private static boolean isAvailable()
+    {
+        try
+        {
+            Class.forName( "jdk.jfr.Event" );
+            return true;
+        }
+        catch ( ClassNotFoundException e )
+        {
+            return false;
+        }
+        catch ( LinkageError e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @param project the id of the project
+     * @param engine the resolution engine
+     * @return the started event, to be passed to {@link #end(Object)}
+     */
+    public static Object beginDependencyCollection( String project, String engine )
+    {
+        return AVAILABLE ? JfrEvents.beginDependencyCollection( project, engine ) : null;
+    }
+
+    /**
+     * @param project the id of the project
+     * @param artifact the id of the artifact
+     * @return the started event, to be passed to {@link #endResolution(Object, boolean)}
+     */
+    public static Object beginArtifactResolution( String project, String artifact )
+    {
+        return AVAILABLE ? JfrEvents.beginArtifactResolution( project, artifact ) : null;
+    }
+
+    /**
+     * @param project the id of the project
+     * @param artifact the id of the dependency
+     * @param classifier <code>sources</code> or <code>javadoc</code>
+     * @return the started event, to be passed to {@link #endResolution(Object, boolean)}
+     */
+    public static Object beginClassifierLookup( String project, String artifact, String classifier )
+    {
+        return AVAILABLE ? JfrEvents.beginClassifierLookup( project, artifact, classifier ) : null;
+    }
+
+    /**
+     * @param project the id of the project
+     * @param writer the class of the writer
+     * @return the started event, to be passed to {@link #endWriter(Object, List)}
+     */
+    public static Object beginWriter( String project, Class writer )
+    {
+        return AVAILABLE ? JfrEvents.beginWriter( project, writer.getName() ) : null;
+    }
+
+    /**
+     * @param event the event returned by one of the <code>begin</code> methods, may be <code>null</code>
+     */
+    public static void end( Object event )
+    {
+        if ( event != null )
+        {
+            JfrEvents.end( event );
+        }
+    }
+
+    /**
+     * @param event the event returned by {@link #beginArtifactResolution(String, String)} or
+     *            {@link #beginClassifierLookup(String, String, String)}, may be <code>null</code>
+     * @param resolved whether the artifact was resolved
+     */
+    public static void endResolution( Object event, boolean resolved )
+    {
+        if ( event != null )
+        {
+            JfrEvents.endResolution( event, resolved );
+        }
+    }
+
+    /**
+     * @param event the event returned by {@link #beginWriter(String, Class)}, may be <code>null</code>
+     * @param files the files written by the writer
+     */
+    public static void endWriter( Object event, List<File> files )
+    {
+        if ( event != null )
+        {
+            StringBuilder paths = new StringBuilder();
+            for ( File file : files )
+            {
+                if ( paths.length() > 0 )
+                {
+                    paths.append( File.pathSeparatorChar );
+                }
+                paths.append( file.getPath() );
+            }
+            JfrEvents.endWriter( event, paths.toString() );
+        }
+    }
+}
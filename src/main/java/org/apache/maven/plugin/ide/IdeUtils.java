@@ -21,6 +21,9 @@ package org.apache.maven.plugin.ide;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -95,6 +98,44 @@ public class IdeUtils
      */
     public static final String NOT_AVAILABLE_MARKER_FILE_SUFFIX = "-not-available";
 
+    /**
+     * @param value the value to hash
+     * @return the hex encoded SHA-1 hash of the UTF-8 bytes of the value
+     */
+    public static String sha1Hex( String value )
+    {
+        try
+        {
+            return sha1Hex( value.getBytes( "UTF-8" ) );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * @param value the bytes to hash
+     * @return the hex encoded SHA-1 hash of the bytes
+     */
+    public static String sha1Hex( byte[] value )
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance( "SHA-1" ).digest( value );
+            StringBuilder hex = new StringBuilder( digest.length * 2 );
+            for ( byte b : digest )
+            {
+                hex.append( Character.forDigit( ( b >> 4 ) & 0xf, 16 ) ).append( Character.forDigit( b & 0xf, 16 ) );
+            }
+            return hex.toString();
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
     /**
      * Delete a file, handling log messages and exceptions
      *
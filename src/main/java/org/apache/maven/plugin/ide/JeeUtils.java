@@ -19,6 +19,7 @@ package org.apache.maven.plugin.ide;
  * under the License.
  */
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -33,25 +34,50 @@ public class JeeUtils
 
     public static final String ARTIFACT_MAVEN_WAR_PLUGIN = "org.apache.maven.plugins:maven-war-plugin"; //$NON-NLS-1$
 
-    private static final Map EJB_MAP = new HashMap();
+    /*
+     * The descriptor maps are only filled by the static initializer and unmodifiable afterwards, so they can be read
+     * by the mojos of parallel builds.
+     */
+    private static final Map EJB_MAP;
 
-    private static final Map JEE_MAP = new HashMap();
+    private static final Map JEE_MAP;
 
-    private static final Map JSP_MAP = new HashMap();
+    private static final Map JSP_MAP;
 
-    private static final Map SERVLET_MAP = new HashMap();
+    private static final Map SERVLET_MAP;
 
     /** Names of artifacts of ejb APIs. */
     // private static final String[] EJB_API_ARTIFACTS = new String[] { "ejb", "ejb-api", "geronimo-spec-ejb" };
     // //$NON-NLS-1$
     static
     {
-        addJEE( JeeDescriptor.JEE_6_0, JeeDescriptor.EJB_3_1, JeeDescriptor.SERVLET_3_0, JeeDescriptor.JSP_2_2 );
-        addJEE( JeeDescriptor.JEE_5_0, JeeDescriptor.EJB_3_0, JeeDescriptor.SERVLET_2_5, JeeDescriptor.JSP_2_1 );
-        addJEE( JeeDescriptor.JEE_1_4, JeeDescriptor.EJB_2_1, JeeDescriptor.SERVLET_2_4, JeeDescriptor.JSP_2_0 );
-        addJEE( JeeDescriptor.JEE_1_3, JeeDescriptor.EJB_2_0, JeeDescriptor.SERVLET_2_3, JeeDescriptor.JSP_1_2 );
-        addJEE( JeeDescriptor.JEE_1_2, JeeDescriptor.EJB_1_1, JeeDescriptor.SERVLET_2_2, JeeDescriptor.JSP_1_1 );
-
+        JeeDescriptor[] descriptors = new JeeDescriptor[] {
+            new JeeDescriptor( JeeDescriptor.JEE_6_0, JeeDescriptor.EJB_3_1, JeeDescriptor.SERVLET_3_0,
+                               JeeDescriptor.JSP_2_2 ),
+            new JeeDescriptor( JeeDescriptor.JEE_5_0, JeeDescriptor.EJB_3_0, JeeDescriptor.SERVLET_2_5,
+                               JeeDescriptor.JSP_2_1 ),
+            new JeeDescriptor( JeeDescriptor.JEE_1_4, JeeDescriptor.EJB_2_1, JeeDescriptor.SERVLET_2_4,
+                               JeeDescriptor.JSP_2_0 ),
+            new JeeDescriptor( JeeDescriptor.JEE_1_3, JeeDescriptor.EJB_2_0, JeeDescriptor.SERVLET_2_3,
+                               JeeDescriptor.JSP_1_2 ),
+            new JeeDescriptor( JeeDescriptor.JEE_1_2, JeeDescriptor.EJB_1_1, JeeDescriptor.SERVLET_2_2,
+                               JeeDescriptor.JSP_1_1 ) };
+
+        Map jeeMap = new HashMap();
+        Map ejbMap = new HashMap();
+        Map servletMap = new HashMap();
+        Map jspMap = new HashMap();
+        for ( JeeDescriptor descriptor : descriptors )
+        {
+            jeeMap.put( descriptor.getJeeVersion(), descriptor );
+            ejbMap.put( descriptor.getEjbVersion(), descriptor );
+            servletMap.put( descriptor.getServletVersion(), descriptor );
+            jspMap.put( descriptor.getJspVersion(), descriptor );
+        }
+        JEE_MAP = Collections.unmodifiableMap( jeeMap );
+        EJB_MAP = Collections.unmodifiableMap( ejbMap );
+        SERVLET_MAP = Collections.unmodifiableMap( servletMap );
+        JSP_MAP = Collections.unmodifiableMap( jspMap );
     }
 
     /**
@@ -255,15 +281,6 @@ public class JeeUtils
         return version == null ? JeeDescriptor.SERVLET_2_4 : version; //$NON-NLS-1$
     }
 
-    private static void addJEE( String jeeVersion, String ejbVersion, String servletVersion, String jspVersion )
-    {
-        JeeDescriptor descriptor = new JeeDescriptor( jeeVersion, ejbVersion, servletVersion, jspVersion );
-        JEE_MAP.put( jeeVersion, descriptor );
-        EJB_MAP.put( ejbVersion, descriptor );
-        SERVLET_MAP.put( servletVersion, descriptor );
-        JSP_MAP.put( jspVersion, descriptor );
-    }
-
     private static String findEjbVersionInDependencies( MavenProject project )
     {
 
@@ -0,0 +1,176 @@
+package org.apache.maven.plugin.ide;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event types, only loaded through {@link FlightRecorderEvents} when the <code>jdk.jfr</code> module is
+ * available.
+ *
+ * @version $Id$
+ */
+final class JfrEvents
+{
+
+    private JfrEvents()
+    {
+        // no instances
+    }
+
+    static Object beginDependencyCollection( String project, String engine )
+    {
+        DependencyCollectionEvent event = new DependencyCollectionEvent();
+        event.project = project;
+        event.engine = engine;
+        event.begin();
+        return event;
+    }
+
+    static Object beginArtifactResolution( String project, String artifact )
+    {
+        ArtifactResolutionEvent event = new ArtifactResolutionEvent();
+        event.project = project;
+        event.artifact = artifact;
+        event.begin();
+        return event;
+    }
+
+    static Object beginClassifierLookup( String project, String artifact, String classifier )
+    {
+        ClassifierLookupEvent event = new ClassifierLookupEvent();
+        event.project = project;
+        event.artifact = artifact;
+        event.classifier = classifier;
+        event.begin();
+        return event;
+    }
+
+    static Object beginWriter( String project, String writer )
+    {
+        WriterEvent event = new WriterEvent();
+        event.project = project;
+        event.writer = writer;
+        event.begin();
+        return event;
+    }
+
+    static void end( Object event )
+    {
+        Event jfrEvent = (Event) event;
+        jfrEvent.end();
+        if ( jfrEvent.shouldCommit() )
+        {
+            jfrEvent.commit();
+        }
+    }
+
+    static void endResolution( Object event, boolean resolved )
+    {
+        if ( event instanceof ArtifactResolutionEvent )
+        {
+            ( (ArtifactResolutionEvent) event ).resolved = resolved;
+        }
+        else if ( event instanceof ClassifierLookupEvent )
+        {
+            ( (ClassifierLookupEvent) event ).resolved = resolved;
+        }
+        end( event );
+    }
+
+    static void endWriter( Object event, String files )
+    {
+        ( (WriterEvent) event ).files = files;
+        end( event );
+    }
+
+    @Name( "org.apache.maven.plugin.eclipse.DependencyCollection" )
+    @Label( "Dependency Collection" )
+    @Description( "Collection of the dependency graph of a project" )
+    @Category( { "Maven", "Eclipse Plugin" } )
+    static class DependencyCollectionEvent
+        extends Event
+    {
+        @Label( "Project" )
+        String project;
+
+        @Label( "Resolution Engine" )
+        String engine;
+    }
+
+    @Name( "org.apache.maven.plugin.eclipse.ArtifactResolution" )
+    @Label( "Artifact Resolution" )
+    @Description( "Resolution of a dependency jar" )
+    @Category( { "Maven", "Eclipse Plugin" } )
+    static class ArtifactResolutionEvent
+        extends Event
+    {
+        @Label( "Project" )
+        String project;
+
+        @Label( "Artifact" )
+        String artifact;
+
+        @Label( "Resolved" )
+        boolean resolved;
+    }
+
+    @Name( "org.apache.maven.plugin.eclipse.ClassifierLookup" )
+    @Label( "Attachment Lookup" )
+    @Description( "Lookup of the sources or javadoc attachment of a dependency" )
+    @Category( { "Maven", "Eclipse Plugin" } )
+    static class ClassifierLookupEvent
+        extends Event
+    {
+        @Label( "Project" )
+        String project;
+
+        @Label( "Artifact" )
+        String artifact;
+
+        @Label( "Classifier" )
+        String classifier;
+
+        @Label( "Resolved" )
+        boolean resolved;
+    }
+
+    @Name( "org.apache.maven.plugin.eclipse.Writer" )
+    @Label( "Writer" )
+    @Description( "Run of a writer of the IDE configuration" )
+    @Category( { "Maven", "Eclipse Plugin" } )
+    static class WriterEvent
+        extends Event
+    {
+        @Label( "Project" )
+        String project;
+
+        @Label( "Writer" )
+        String writer;
+
+        @Label( "Files" )
+        @Description( "The files written by the writer, separated by the path separator" )
+        String files;
+    }
+}
@@ -0,0 +1,205 @@
+package org.apache.maven.plugin.ide;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipFile;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Index of the <code>Bundle-SymbolicName</code> manifest attribute of the dependency jars. The entries are keyed on the
+ * path of the jar and are valid as long as its size and modification time are unchanged, so that the jars don't have
+ * to be opened again by every module and every run. The index is stored next to the local repository.
+ *
+ * @version $Id$
+ */
+class ManifestIndex
+{
+
+    private static final String NO_SYMBOLIC_NAME = "";
+
+    private final File indexFile;
+
+    private final Map<String, String> entries = new ConcurrentHashMap<String, String>();
+
+    private volatile boolean modified;
+
+    /**
+     * Creates the index and reads the stored entries, if any.
+     *
+     * @param indexFile the file the index is stored in
+     * @param log the mojo log
+     */
+    ManifestIndex( File indexFile, Log log )
+    {
+        this.indexFile = indexFile;
+        if ( indexFile.isFile() )
+        {
+            Properties props = new Properties();
+            InputStream is = null;
+            try
+            {
+                is = new FileInputStream( indexFile );
+                props.load( is );
+                for ( String path : props.stringPropertyNames() )
+                {
+                    entries.put( path, props.getProperty( path ) );
+                }
+            }
+            catch ( IOException e )
+            {
+                log.debug( "Unable to read " + indexFile, e );
+            }
+            finally
+            {
+                IOUtil.close( is );
+            }
+        }
+    }
+
+    /**
+     * Returns the <code>Bundle-SymbolicName</code> of the given jar, the jar is only opened if it is not indexed or
+     * changed since it was indexed.
+     *
+     * @param jar the jar file
+     * @param metrics the metrics the cache hit or the read jar is recorded in
+     * @param log the mojo log
+     * @return the symbolic name or <code>null</code> if the jar is no OSGi bundle or can't be read
+     */
+    String getBundleSymbolicName( File jar, BuildMetrics.Phase metrics, Log log )
+    {
+        String path = jar.getAbsolutePath();
+        String stamp = jar.length() + ":" + jar.lastModified() + ":";
+        String entry = entries.get( path );
+        if ( entry != null && entry.startsWith( stamp ) )
+        {
+            String symbolicName = entry.substring( stamp.length() );
+            metrics.cacheHit();
+            return NO_SYMBOLIC_NAME.equals( symbolicName ) ? null : symbolicName;
+        }
+
+        String symbolicName = null;
+        JarFile jarFile = null;
+        metrics.fileRead();
+        try
+        {
+            jarFile = new JarFile( jar, false, ZipFile.OPEN_READ );
+
+            Manifest manifest = jarFile.getManifest();
+            if ( manifest != null )
+            {
+                symbolicName = manifest.getMainAttributes().getValue( new Attributes.Name( "Bundle-SymbolicName" ) );
+            }
+        }
+        catch ( IOException e )
+        {
+            log.info( "Unable to read jar manifest from " + jar );
+            return null;
+        }
+        finally
+        {
+            if ( jarFile != null )
+            {
+                try
+                {
+                    jarFile.close();
+                }
+                catch ( IOException e )
+                {
+                    // ignore
+                }
+            }
+        }
+
+        entries.put( path, stamp + ( symbolicName != null ? symbolicName : NO_SYMBOLIC_NAME ) );
+        modified = true;
+        return symbolicName;
+    }
+
+    /**
+     * Store the index if new jars were read. Entries of jars which don't exist anymore are dropped.
+     *
+     * @param log the mojo log
+     */
+    synchronized void store( Log log )
+    {
+        if ( !modified )
+        {
+            return;
+        }
+        modified = false;
+
+        Properties props = new Properties();
+        for ( Iterator<Map.Entry<String, String>> it = entries.entrySet().iterator(); it.hasNext(); )
+        {
+            Map.Entry<String, String> entry = it.next();
+            if ( new File( entry.getKey() ).exists() )
+            {
+                props.setProperty( entry.getKey(), entry.getValue() );
+            }
+            else
+            {
+                it.remove();
+            }
+        }
+
+        // write to a temporary file first, other builds may use the same local repository
+        File tmpFile = new File( indexFile.getPath() + ".tmp" + System.identityHashCode( this ) );
+        OutputStream os = null;
+        try
+        {
+            indexFile.getParentFile().mkdirs();
+            os = new FileOutputStream( tmpFile );
+            props.store( os, null );
+            os.close();
+            os = null;
+            if ( !tmpFile.renameTo( indexFile ) && !( indexFile.delete() && tmpFile.renameTo( indexFile ) ) )
+            {
+                log.debug( "Unable to replace " + indexFile );
+            }
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Unable to write " + indexFile, e );
+        }
+        finally
+        {
+            IOUtil.close( os );
+            if ( tmpFile.exists() )
+            {
+                tmpFile.delete();
+            }
+        }
+    }
+}
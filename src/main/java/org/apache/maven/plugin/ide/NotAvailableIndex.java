@@ -0,0 +1,359 @@
+package org.apache.maven.plugin.ide;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.eclipse.Messages;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Index of the source and javadoc attachments which are not available in the remote repositories. It replaces the
+ * <code>-not-available</code> marker files of older versions. The index is a single file in the local repository
+ * holding the sorted 64 bit hashes of the artifact ids together with the time the artifact was found missing, so a
+ * lookup is a binary search and an entry can expire after a given time.
+ *
+ * @version $Id$
+ */
+public class NotAvailableIndex
+{
+
+    /**
+     * Location of the index, relative to the local repository.
+     */
+    public static final String INDEX_FILE = ".cache/eclipse-maven-plugin/not-available.idx";
+
+    private static final int MAGIC = 0x4e41494e;
+
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    private final File indexFile;
+
+    /**
+     * The stored entries, replaced as a whole when the index is read or stored.
+     */
+    private volatile Entries entries = new Entries( new long[0], new long[0] );
+
+    /**
+     * Entries added or removed since the index was read, removed entries have the timestamp {@link #REMOVED}.
+     */
+    private final Map<Long, Long> changes = new ConcurrentHashMap<Long, Long>();
+
+    /**
+     * Creates the index and reads the stored entries, if any.
+     *
+     * @param indexFile the file the index is stored in
+     * @param log the mojo log
+     */
+    public NotAvailableIndex( File indexFile, Log log )
+    {
+        this.indexFile = indexFile;
+        Entries stored = read( log );
+        if ( stored != null )
+        {
+            entries = stored;
+        }
+    }
+
+    /**
+     * @param localRepositoryBasedir the base directory of the local repository
+     * @return the index file of the local repository
+     */
+    public static File getIndexFile( String localRepositoryBasedir )
+    {
+        return new File( localRepositoryBasedir, INDEX_FILE );
+    }
+
+    /**
+     * @param artifact the sources or javadoc artifact
+     * @param maxAge the time in milliseconds after which an entry expires, <code>0</code> or less if entries never
+     *            expire
+     * @return <code>true</code> if the artifact was marked as not available and the entry has not expired
+     */
+    public boolean isNotAvailable( Artifact artifact, long maxAge )
+    {
+        long timestamp = getTimestamp( hash( artifact ) );
+        if ( timestamp == REMOVED )
+        {
+            return false;
+        }
+        return maxAge <= 0 || System.currentTimeMillis() - timestamp < maxAge;
+    }
+
+    /**
+     * @param artifact the sources or javadoc artifact which is not available
+     */
+    public void markNotAvailable( Artifact artifact )
+    {
+        changes.put( hash( artifact ), System.currentTimeMillis() );
+    }
+
+    /**
+     * @param artifact the sources or javadoc artifact which is available
+     */
+    public void remove( Artifact artifact )
+    {
+        long hash = hash( artifact );
+        if ( getTimestamp( hash ) != REMOVED )
+        {
+            changes.put( hash, REMOVED );
+        }
+    }
+
+    /**
+     * Remove the entries which were marked before the given time.
+     *
+     * @param time the time in milliseconds, entries marked before are removed
+     * @return the number of removed entries
+     */
+    public int removeMarkedBefore( long time )
+    {
+        int count = 0;
+        long[] hashes = entries.hashes;
+        for ( int i = 0; i < hashes.length; i++ )
+        {
+            long timestamp = getTimestamp( hashes[i] );
+            if ( timestamp != REMOVED && timestamp < time )
+            {
+                changes.put( hashes[i], REMOVED );
+                count++;
+            }
+        }
+        for ( Map.Entry<Long, Long> change : changes.entrySet() )
+        {
+            if ( change.getValue() != REMOVED && change.getValue() < time )
+            {
+                change.setValue( REMOVED );
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long getTimestamp( long hash )
+    {
+        Long changed = changes.get( hash );
+        if ( changed != null )
+        {
+            return changed;
+        }
+        Entries current = entries;
+        int index = Arrays.binarySearch( current.hashes, hash );
+        return index >= 0 ? current.timestamps[index] : REMOVED;
+    }
+
+    /**
+     * Store the changes. The stored index is read again before, so that entries written by other builds are kept.
+     * Changes made by other threads while the index is written are kept for the next call.
+     *
+     * @param log the mojo log
+     */
+    public synchronized void store( Log log )
+    {
+        if ( changes.isEmpty() )
+        {
+            return;
+        }
+
+        Map<Long, Long> written = new HashMap<Long, Long>( changes );
+        Entries stored = read( log );
+        if ( stored == null )
+        {
+            stored = entries;
+        }
+        long[] newHashes = new long[stored.hashes.length + written.size()];
+        long[] newTimestamps = new long[newHashes.length];
+        int count = 0;
+        for ( int i = 0; i < stored.hashes.length; i++ )
+        {
+            if ( !written.containsKey( stored.hashes[i] ) )
+            {
+                newHashes[count] = stored.hashes[i];
+                newTimestamps[count++] = stored.timestamps[i];
+            }
+        }
+        for ( Map.Entry<Long, Long> change : written.entrySet() )
+        {
+            if ( change.getValue() != REMOVED )
+            {
+                newHashes[count] = change.getKey();
+                newTimestamps[count++] = change.getValue();
+            }
+        }
+        sort( newHashes, newTimestamps, count );
+
+        File tmpFile = new File( indexFile.getPath() + ".tmp" + System.identityHashCode( this ) );
+        DataOutputStream out = null;
+        try
+        {
+            indexFile.getParentFile().mkdirs();
+            out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmpFile ) ) );
+            out.writeInt( MAGIC );
+            out.writeInt( count );
+            for ( int i = 0; i < count; i++ )
+            {
+                out.writeLong( newHashes[i] );
+                out.writeLong( newTimestamps[i] );
+            }
+            out.close();
+            out = null;
+            if ( !tmpFile.renameTo( indexFile ) && !( indexFile.delete() && tmpFile.renameTo( indexFile ) ) )
+            {
+                log.warn( Messages.getString( "AbstractIdeSupportMojo.unabletowritenotavailableindex", indexFile ) );
+                return;
+            }
+            entries = new Entries( Arrays.copyOf( newHashes, count ), Arrays.copyOf( newTimestamps, count ) );
+            for ( Map.Entry<Long, Long> change : written.entrySet() )
+            {
+                changes.remove( change.getKey(), change.getValue() );
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( Messages.getString( "AbstractIdeSupportMojo.unabletowritenotavailableindex", indexFile ) );
+            log.debug( e.getMessage(), e );
+        }
+        finally
+        {
+            IOUtil.close( out );
+            if ( tmpFile.exists() )
+            {
+                tmpFile.delete();
+            }
+        }
+    }
+
+    /**
+     * @param log the mojo log
+     * @return the stored entries, or <code>null</code> if the index can't be read
+     */
+    private Entries read( Log log )
+    {
+        if ( !indexFile.isFile() )
+        {
+            return null;
+        }
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream( new BufferedInputStream( new FileInputStream( indexFile ) ) );
+            if ( in.readInt() != MAGIC )
+            {
+                log.debug( "Ignoring invalid " + indexFile );
+                return null;
+            }
+            int count = in.readInt();
+            long[] newHashes = new long[count];
+            long[] newTimestamps = new long[count];
+            for ( int i = 0; i < count; i++ )
+            {
+                newHashes[i] = in.readLong();
+                newTimestamps[i] = in.readLong();
+            }
+            return new Entries( newHashes, newTimestamps );
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Unable to read " + indexFile, e );
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    /**
+     * Sort the first <code>count</code> entries by hash.
+     */
+    private static void sort( long[] hashes, long[] timestamps, int count )
+    {
+        Integer[] order = new Integer[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            order[i] = i;
+        }
+        final long[] keys = hashes;
+        Arrays.sort( order, new Comparator<Integer>()
+        {
+            public int compare( Integer a, Integer b )
+            {
+                return Long.compare( keys[a], keys[b] );
+            }
+        } );
+        long[] sortedHashes = new long[count];
+        long[] sortedTimestamps = new long[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            sortedHashes[i] = hashes[order[i]];
+            sortedTimestamps[i] = timestamps[order[i]];
+        }
+        System.arraycopy( sortedHashes, 0, hashes, 0, count );
+        System.arraycopy( sortedTimestamps, 0, timestamps, 0, count );
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the artifact id.
+     *
+     * @param artifact the artifact
+     * @return the hash
+     */
+    static long hash( Artifact artifact )
+    {
+        String id = artifact.getId();
+        long hash = 0xcbf29ce484222325L;
+        for ( int i = 0; i < id.length(); i++ )
+        {
+            hash ^= id.charAt( i );
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Immutable snapshot of the stored entries, sorted by hash.
+     */
+    private static final class Entries
+    {
+        private final long[] hashes;
+
+        private final long[] timestamps;
+
+        Entries( long[] hashes, long[] timestamps )
+        {
+            this.hashes = hashes;
+            this.timestamps = timestamps;
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package org.apache.maven.plugin.ide;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.AbstractArtifactResolutionException;
+import org.apache.maven.artifact.resolver.ResolutionNode;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.plugin.eclipse.Constants;
+import org.apache.maven.plugin.eclipse.Messages;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Dependency resolution state shared by all the modules of a reactor build. Sibling modules usually have the same
+ * dependency management and large parts of their dependency graph in common, so the managed version maps, the collected
+ * resolution nodes and the resolved artifact files are computed once per <code>MavenSession</code> and reused by the
+ * following modules.
+ *
+ * @version $Id$
+ */
+class ResolutionCache
+{
+
+    private static final Map<MavenSession, ResolutionCache> CACHES = new WeakHashMap<MavenSession, ResolutionCache>();
+
+    /**
+     * Managed version maps keyed by the fingerprint of the dependency management.
+     */
+    private final Map<String, Map> managedVersions = new ConcurrentHashMap<String, Map>();
+
+    /**
+     * Collected <code>ResolutionNode</code>s keyed by the fingerprint of the dependencies, dependency management and
+     * remote repositories of the project.
+     */
+    private final Map<String, List> collectedNodes = new ConcurrentHashMap<String, List>();
+
+    /**
+     * Resolved artifact files keyed by the artifact id (<code>groupId:artifactId:type:classifier:version</code>),
+     * shared by the dependency resolution and the lookup of the sources and javadoc attachments.
+     */
+    private final Map<String, File> resolvedFiles = new ConcurrentHashMap<String, File>();
+
+    /**
+     * Artifacts which could not be resolved keyed by the artifact id.
+     */
+    private final Map<String, AbstractArtifactResolutionException> failures =
+        new ConcurrentHashMap<String, AbstractArtifactResolutionException>();
+
+    /**
+     * Fingerprint of the dependencies of all reactor projects, computed on first use.
+     */
+    private String reactorKey;
+
+    /**
+     * Index of the OSGi manifest attributes of the dependency jars, read on first use.
+     */
+    private ManifestIndex manifestIndex;
+
+    /**
+     * Index of the sources and javadoc attachments which are not available, read on first use.
+     */
+    private NotAvailableIndex notAvailableIndex;
+
+    /**
+     * The reactor projects the index was built for.
+     */
+    private List indexedReactorProjects;
+
+    /**
+     * Reactor projects keyed by <code>groupId:artifactId</code>, in reactor order.
+     */
+    private Map<String, List<MavenProject>> reactorProjectIndex;
+
+    /**
+     * The reactor projects the context root index was built for.
+     */
+    private List indexedEarReactorProjects;
+
+    /**
+     * Context roots of the web modules keyed by <code>groupId:artifactId</code>, from the configuration of the
+     * maven-ear-plugin in the ear projects of the reactor.
+     */
+    private Map<String, String> warContextRootIndex;
+
+    /**
+     * Metrics of the projects of the session.
+     */
+    private final BuildMetrics metrics = new BuildMetrics();
+
+    /**
+     * Executor of the background downloads of sources and javadoc attachments, created on first use.
+     */
+    private ExecutorService backgroundExecutor;
+
+    /**
+     * Background downloads which were not waited for yet, their results are the reports of the downloads.
+     */
+    private List<Future<String>> backgroundTasks = new ArrayList<Future<String>>();
+
+    /**
+     * Shutdown hook reporting the background downloads which did not complete, registered while the executor runs.
+     */
+    private Thread pendingTasksHook;
+
+    /**
+     * Number of projects of the session running a goal.
+     */
+    private int runningProjects;
+
+    /**
+     * Number of projects of the session which completed a goal since the session was last completed.
+     */
+    private int completedProjects;
+
+    /**
+     * Returns the cache of the given session, a new cache which is not shared is returned if the session is not known.
+     *
+     * @param session the current session, may be <code>null</code>
+     * @return the resolution cache
+     */
+    static ResolutionCache get( MavenSession session )
+    {
+        if ( session == null )
+        {
+            return new ResolutionCache();
+        }
+        synchronized ( CACHES )
+        {
+            ResolutionCache cache = CACHES.get( session );
+            if ( cache == null )
+            {
+                cache = new ResolutionCache();
+                CACHES.put( session, cache );
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Run a task on the background executor of the session. The threads of the executor don't keep the JVM alive: if
+     * the session is never completed, for example as a later project of the reactor doesn't run the goal, the tasks
+     * which did not complete are reported when the JVM exits.
+     *
+     * @param task the task, returning the report to log once the session is complete
+     * @param threads the number of threads of the executor, used when the executor is created
+     * @param log the log to report the pending tasks to
+     */
+    synchronized void submitBackgroundTask( Callable<String> task, int threads, final Log log )
+    {
+        if ( backgroundExecutor == null )
+        {
+            backgroundExecutor = Executors.newFixedThreadPool( Math.max( 1, threads ), new ThreadFactory()
+            {
+                public Thread newThread( Runnable r )
+                {
+                    Thread thread = new Thread( r, "eclipse-attachments" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+            pendingTasksHook = new Thread( "eclipse-attachments-pending" )
+            {
+                public void run()
+                {
+                    reportPendingBackgroundTasks( log );
+                }
+            };
+            Runtime.getRuntime().addShutdownHook( pendingTasksHook );
+        }
+        backgroundTasks.add( backgroundExecutor.submit( task ) );
+    }
+
+    /**
+     * Returns the submitted background tasks and shuts down the executor once they complete.
+     *
+     * @return the background tasks submitted since the last call
+     */
+    synchronized List<Future<String>> takeBackgroundTasks()
+    {
+        List<Future<String>> tasks = backgroundTasks;
+        backgroundTasks = new ArrayList<Future<String>>();
+        if ( backgroundExecutor != null )
+        {
+            backgroundExecutor.shutdown();
+            backgroundExecutor = null;
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook( pendingTasksHook );
+            }
+            catch ( IllegalStateException e )
+            {
+                // the JVM is exiting, the hook reports the pending tasks
+            }
+            pendingTasksHook = null;
+        }
+        return tasks;
+    }
+
+    /**
+     * Log a warning if background tasks did not complete.
+     *
+     * @param log the log
+     * @return the number of background tasks which did not complete
+     */
+    synchronized int reportPendingBackgroundTasks( Log log )
+    {
+        int pending = 0;
+        for ( Future<String> task : backgroundTasks )
+        {
+            if ( !task.isDone() )
+            {
+                pending++;
+            }
+        }
+        if ( pending > 0 )
+        {
+            log.warn( Messages.getString( "AbstractIdeSupportMojo.pendingattachments", String.valueOf( pending ) ) );
+        }
+        return pending;
+    }
+
+    /**
+     * Record that a project started a goal.
+     */
+    synchronized void startProject()
+    {
+        runningProjects++;
+    }
+
+    /**
+     * Record that a project completed a goal, including a project which skipped or failed it. In a parallel build, the
+     * last project of the reactor is not necessarily the last one to complete, so the session is complete once all
+     * projects completed, or once the last project of the reactor completed without any other project running.
+     *
+     * @param reactorSize the number of projects of the reactor
+     * @param lastReactorProject whether the project is the last one of the reactor
+     * @return <code>true</code> if the session is complete
+     */
+    synchronized boolean completeProject( int reactorSize, boolean lastReactorProject )
+    {
+        runningProjects--;
+        completedProjects++;
+        if ( completedProjects >= reactorSize || ( lastReactorProject && runningProjects == 0 ) )
+        {
+            completedProjects = 0;
+            return true;
+        }
+        return false;
+    }
+
+    BuildMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    Map getManagedVersions( String key )
+    {
+        return managedVersions.get( key );
+    }
+
+    void putManagedVersions( String key, Map map )
+    {
+        managedVersions.put( key, map );
+    }
+
+    /**
+     * Returns the nodes collected for a project with the same collection key. The key doesn't contain the project, as
+     * sibling modules with the same dependencies share their graph, but the graph of a project never contains the
+     * project itself: a graph which does was collected for another project and is not returned.
+     *
+     * @param key the key returned by {@link #collectionKey(List, String, List)}
+     * @param project the project the nodes are looked up for
+     * @return the collected <code>ResolutionNode</code>s or <code>null</code> if they can't be reused by the project
+     */
+    List getCollectedNodes( String key, MavenProject project )
+    {
+        List nodes = collectedNodes.get( key );
+        if ( nodes != null )
+        {
+            for ( Object o : nodes )
+            {
+                Artifact artifact = ( (ResolutionNode) o ).getArtifact();
+                if ( artifact.getGroupId().equals( project.getGroupId() )
+                    && artifact.getArtifactId().equals( project.getArtifactId() ) )
+                {
+                    return null;
+                }
+            }
+        }
+        return nodes;
+    }
+
+    void putCollectedNodes( String key, List nodes )
+    {
+        collectedNodes.put( key, nodes );
+    }
+
+    /**
+     * Apply the result of an earlier resolution of the same artifact in this session.
+     *
+     * @param artifact the artifact to resolve
+     * @return <code>true</code> if the artifact was resolved before, <code>false</code> if it is unknown
+     */
+    boolean applyResolvedFile( Artifact artifact )
+    {
+        File file = resolvedFiles.get( artifact.getId() );
+        if ( file == null )
+        {
+            return false;
+        }
+        artifact.setFile( file );
+        artifact.setResolved( true );
+        return true;
+    }
+
+    void putResolvedFile( Artifact artifact )
+    {
+        if ( artifact.getFile() != null )
+        {
+            resolvedFiles.put( artifact.getId(), artifact.getFile() );
+        }
+    }
+
+    AbstractArtifactResolutionException getFailure( Artifact artifact )
+    {
+        return failures.get( artifact.getId() );
+    }
+
+    void putFailure( Artifact artifact, AbstractArtifactResolutionException e )
+    {
+        failures.put( artifact.getId(), e );
+    }
+
+    /**
+     * Returns the manifest index, the stored index is read the first time it is used in the session.
+     *
+     * @param indexFile the file the index is stored in
+     * @param log the mojo log
+     * @return the manifest index
+     */
+    synchronized ManifestIndex getManifestIndex( File indexFile, Log log )
+    {
+        if ( manifestIndex == null )
+        {
+            manifestIndex = new ManifestIndex( indexFile, log );
+        }
+        return manifestIndex;
+    }
+
+    /**
+     * Returns the index of the unavailable sources and javadoc attachments, the stored index is read the first time it
+     * is used in the session.
+     *
+     * @param indexFile the file the index is stored in
+     * @param log the mojo log
+     * @return the not available index
+     */
+    synchronized NotAvailableIndex getNotAvailableIndex( File indexFile, Log log )
+    {
+        if ( notAvailableIndex == null )
+        {
+            notAvailableIndex = new NotAvailableIndex( indexFile, log );
+        }
+        return notAvailableIndex;
+    }
+
+    /**
+     * Returns the reactor projects keyed by <code>groupId:artifactId</code>. The index is built once for the reactor
+     * projects of the session.
+     *
+     * @param reactorProjects the reactor projects
+     * @return the reactor projects with the same <code>groupId:artifactId</code>, in reactor order
+     */
+    synchronized Map<String, List<MavenProject>> getReactorProjectIndex( List reactorProjects )
+    {
+        if ( reactorProjectIndex == null || indexedReactorProjects != reactorProjects )
+        {
+            Map<String, List<MavenProject>> index = new HashMap<String, List<MavenProject>>();
+            for ( Object o : reactorProjects )
+            {
+                MavenProject reactorProject = (MavenProject) o;
+                String key = reactorProjectKey( reactorProject.getGroupId(), reactorProject.getArtifactId() );
+                List<MavenProject> projects = index.get( key );
+                if ( projects == null )
+                {
+                    projects = new ArrayList<MavenProject>( 1 );
+                    index.put( key, projects );
+                }
+                projects.add( reactorProject );
+            }
+            reactorProjectIndex = index;
+            indexedReactorProjects = reactorProjects;
+        }
+        return reactorProjectIndex;
+    }
+
+    /**
+     * Returns the context roots of the web modules defined in the <code>modules</code> configuration of the
+     * maven-ear-plugin of the ear projects of the reactor. The index is built once for the reactor projects of the
+     * session instead of walking the configuration of every ear project for every war project.
+     *
+     * @param reactorProjects the reactor projects
+     * @param log the logger
+     * @return the context roots keyed by <code>groupId:artifactId</code>, the last definition wins
+     */
+    synchronized Map<String, String> getWarContextRootIndex( List reactorProjects, Log log )
+    {
+        if ( warContextRootIndex == null || indexedEarReactorProjects != reactorProjects )
+        {
+            Map<String, String> index = new HashMap<String, String>();
+            for ( Object o : reactorProjects )
+            {
+                MavenProject reactorProject = (MavenProject) o;
+                if ( !Constants.PROJECT_PACKAGING_EAR.equals( reactorProject.getPackaging() ) )
+                {
+                    continue;
+                }
+
+                Xpp3Dom[] warDefinitions =
+                    IdeUtils.getPluginConfigurationDom( reactorProject, JeeUtils.ARTIFACT_MAVEN_EAR_PLUGIN,
+                                                        new String[] { "modules", "webModule" } );
+                for ( Xpp3Dom warDefinition : warDefinitions )
+                {
+                    Xpp3Dom groupId = warDefinition.getChild( "groupId" );
+                    Xpp3Dom artifactId = warDefinition.getChild( "artifactId" );
+                    Xpp3Dom contextRoot = warDefinition.getChild( "contextRoot" );
+                    if ( groupId != null && artifactId != null && contextRoot != null && groupId.getValue() != null
+                        && artifactId.getValue() != null && contextRoot.getValue() != null )
+                    {
+                        log.info( "Found context root definition for " + groupId.getValue() + ":"
+                            + artifactId.getValue() + " " + contextRoot.getValue() );
+                        index.put( reactorProjectKey( groupId.getValue(), artifactId.getValue() ),
+                                   contextRoot.getValue() );
+                    }
+                    else
+                    {
+                        log.info( "Found incomplete ear configuration in " + reactorProject.getGroupId() + ":"
+                            + reactorProject.getArtifactId() + " found " + warDefinition.toString() );
+                    }
+                }
+            }
+            warContextRootIndex = index;
+            indexedEarReactorProjects = reactorProjects;
+        }
+        return warContextRootIndex;
+    }
+
+    static String reactorProjectKey( String groupId, String artifactId )
+    {
+        return groupId + ':' + artifactId;
+    }
+
+    /**
+     * Returns the fingerprint of the dependencies and dependency management of all the reactor projects. The
+     * transitive dependencies of a module depend on the POMs of the reactor projects it depends on.
+     *
+     * @param reactorProjects the reactor projects, may be <code>null</code>
+     * @return the fingerprint of the reactor
+     */
+    synchronized String getReactorKey( List reactorProjects )
+    {
+        if ( reactorKey == null )
+        {
+            StringBuilder key = new StringBuilder();
+            if ( reactorProjects != null )
+            {
+                for ( Object o : reactorProjects )
+                {
+                    MavenProject reactorProject = (MavenProject) o;
+                    key.append( reactorProject.getId() ).append( '{' );
+                    appendDependencies( key, reactorProject.getDependencies() );
+                    key.append( managedVersionsKey( reactorProject.getDependencyManagement() ) ).append( '}' );
+                }
+            }
+            reactorKey = key.toString();
+        }
+        return reactorKey;
+    }
+
+    /**
+     * Builds the key of a managed version map.
+     *
+     * @param dependencyManagement the dependency management of the project, may be <code>null</code>
+     * @return the fingerprint of the managed dependencies
+     */
+    static String managedVersionsKey( DependencyManagement dependencyManagement )
+    {
+        StringBuilder key = new StringBuilder();
+        if ( dependencyManagement != null && dependencyManagement.getDependencies() != null )
+        {
+            appendDependencies( key, dependencyManagement.getDependencies() );
+        }
+        return key.toString();
+    }
+
+    /**
+     * Builds the key of a dependency collection.
+     *
+     * @param dependencies the dependencies of the project
+     * @param managedVersionsKey the key returned by {@link #managedVersionsKey(DependencyManagement)}
+     * @param remoteRepositories the remote <code>ArtifactRepository</code>s of the project
+     * @return the fingerprint of the collection request
+     */
+    static String collectionKey( List<Dependency> dependencies, String managedVersionsKey, List remoteRepositories )
+    {
+        StringBuilder key = new StringBuilder();
+        appendDependencies( key, dependencies );
+        key.append( '#' ).append( managedVersionsKey ).append( '#' );
+        if ( remoteRepositories != null )
+        {
+            for ( Object o : remoteRepositories )
+            {
+                ArtifactRepository repository = (ArtifactRepository) o;
+                key.append( repository.getId() ).append( '=' ).append( repository.getUrl() ).append( ';' );
+            }
+        }
+        return key.toString();
+    }
+
+    private static void appendDependencies( StringBuilder key, List<Dependency> dependencies )
+    {
+        for ( Dependency d : dependencies )
+        {
+            key.append( d.getManagementKey() ).append( ':' ).append( d.getVersion() ).append( ':' );
+            key.append( d.getScope() ).append( ':' ).append( d.isOptional() ).append( ':' );
+            key.append( d.getSystemPath() );
+            for ( Exclusion e : d.getExclusions() )
+            {
+                key.append( '!' ).append( e.getGroupId() ).append( ':' ).append( e.getArtifactId() );
+            }
+            key.append( ';' );
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.apache.maven.plugin.ide;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.plugin.eclipse.Messages;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * The collected and resolved dependencies of a project, stored in the build directory. The next run of the plugin
+ * reads them back instead of collecting and resolving the dependency graph again, as long as the key computed from the
+ * dependencies, the dependency management and the repositories of the project is unchanged.
+ *
+ * @version $Id$
+ */
+class ResolutionCacheFile
+{
+
+    static final String FILE_NAME = "eclipse-resolution-cache.properties";
+
+    private static final String KEY = "key";
+
+    private static final String COUNT = "count";
+
+    private final File file;
+
+    private final Log log;
+
+    /**
+     * @param directory the build directory of the project
+     * @param log the mojo log
+     */
+    ResolutionCacheFile( File directory, Log log )
+    {
+        this.file = new File( directory, FILE_NAME );
+        this.log = log;
+    }
+
+    /**
+     * Read the stored artifacts, their files are checked to exist.
+     *
+     * @param key the current key of the project
+     * @param artifactFactory the factory to create the artifacts
+     * @return the stored artifacts or <code>null</code> if the file is missing, unreadable or outdated
+     */
+    List<Artifact> load( String key, ArtifactFactory artifactFactory )
+    {
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+
+        Properties props = new Properties();
+        InputStream is = null;
+        try
+        {
+            is = new FileInputStream( file );
+            props.load( is );
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Unable to read " + file, e );
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+
+        if ( !key.equals( props.getProperty( KEY ) ) )
+        {
+            return null;
+        }
+
+        try
+        {
+            int count = Integer.parseInt( props.getProperty( COUNT ) );
+            List<Artifact> artifacts = new ArrayList<Artifact>( count );
+            for ( int i = 0; i < count; i++ )
+            {
+                String prefix = "artifact." + i + ".";
+                String classifier = props.getProperty( prefix + "classifier" );
+                Artifact artifact =
+                    artifactFactory.createArtifactWithClassifier( props.getProperty( prefix + "groupId" ),
+                                                                  props.getProperty( prefix + "artifactId" ),
+                                                                  props.getProperty( prefix + "version" ),
+                                                                  props.getProperty( prefix + "type" ),
+                                                                  classifier.length() > 0 ? classifier : null );
+                String scope = props.getProperty( prefix + "scope" );
+                artifact.setScope( scope.length() > 0 ? scope : null );
+                String path = props.getProperty( prefix + "file" );
+                if ( path != null )
+                {
+                    File artifactFile = new File( path );
+                    if ( !artifactFile.exists() )
+                    {
+                        // removed from the local repository
+                        return null;
+                    }
+                    artifact.setFile( artifactFile );
+                    artifact.setResolved( true );
+                }
+                artifacts.add( artifact );
+            }
+            return artifacts;
+        }
+        catch ( RuntimeException e )
+        {
+            log.debug( "Ignoring invalid " + file, e );
+            return null;
+        }
+    }
+
+    /**
+     * Store the given artifacts.
+     *
+     * @param key the current key of the project
+     * @param artifacts the collected artifacts, resolved unless they are referenced as projects
+     */
+    void store( String key, List<Artifact> artifacts )
+    {
+        Properties props = new Properties();
+        props.setProperty( KEY, key );
+        props.setProperty( COUNT, String.valueOf( artifacts.size() ) );
+        for ( int i = 0; i < artifacts.size(); i++ )
+        {
+            Artifact artifact = artifacts.get( i );
+            String prefix = "artifact." + i + ".";
+            props.setProperty( prefix + "groupId", artifact.getGroupId() );
+            props.setProperty( prefix + "artifactId", artifact.getArtifactId() );
+            props.setProperty( prefix + "version", artifact.getVersion() );
+            props.setProperty( prefix + "type", artifact.getType() );
+            props.setProperty( prefix + "classifier", artifact.hasClassifier() ? artifact.getClassifier() : "" );
+            props.setProperty( prefix + "scope", artifact.getScope() != null ? artifact.getScope() : "" );
+            if ( artifact.getFile() != null )
+            {
+                props.setProperty( prefix + "file", artifact.getFile().getAbsolutePath() );
+            }
+        }
+
+        OutputStream os = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+            os = new FileOutputStream( file );
+            props.store( os, null );
+        }
+        catch ( IOException e )
+        {
+            log.warn( Messages.getString( "AbstractIdeSupportMojo.unabletowriteresolutioncache", file ) );
+            log.debug( e.getMessage(), e );
+        }
+        finally
+        {
+            IOUtil.close( os );
+        }
+    }
+
+    /**
+     * Delete the stored artifacts, if any.
+     */
+    void delete()
+    {
+        if ( file.exists() && !file.delete() )
+        {
+            log.debug( "Unable to delete " + file );
+        }
+    }
+}
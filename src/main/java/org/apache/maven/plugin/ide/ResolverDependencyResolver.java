@@ -0,0 +1,315 @@
+package org.apache.maven.plugin.ide;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
+import org.apache.maven.artifact.resolver.ResolutionNode;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.eclipse.Messages;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.ArtifactType;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+
+/**
+ * Dependency resolution built on Maven Resolver. The dependency graph is collected and the jars are downloaded with the
+ * <code>RepositorySystemSession</code> of the build, so the session caches and the parallel downloads of the resolver
+ * are used. The result is returned as legacy <code>ResolutionNode</code>s, so that the IDE dependencies are built the
+ * same way as with the <code>ArtifactCollector</code>.
+ * <p>
+ * All Maven Resolver types are confined to this class, it is only loaded when the <code>resolver</code> engine is
+ * selected.
+ *
+ * @version $Id$
+ */
+class ResolverDependencyResolver
+{
+
+    private final RepositorySystem repositorySystem;
+
+    private final RepositorySystemSession repositorySession;
+
+    private final List<RemoteRepository> remoteRepositories;
+
+    private final ArtifactFactory artifactFactory;
+
+    private final Log log;
+
+    /**
+     * @param mavenSession the current session, used to look up the <code>RepositorySystem</code>
+     * @param repositorySession the <code>RepositorySystemSession</code> of the build
+     * @param remoteRepositories the <code>RemoteRepository</code>s of the project
+     * @param artifactFactory the factory creating the legacy artifacts
+     * @param log the mojo log
+     * @throws MojoExecutionException if Maven Resolver is not available
+     */
+    ResolverDependencyResolver( MavenSession mavenSession, Object repositorySession, List remoteRepositories,
+                                ArtifactFactory artifactFactory, Log log )
+        throws MojoExecutionException
+    {
+        if ( mavenSession == null || !( repositorySession instanceof RepositorySystemSession ) )
+        {
+            throw new MojoExecutionException( Messages.getString( "AbstractIdeSupportMojo.resolvernotavailable" ) );
+        }
+        try
+        {
+            this.repositorySystem =
+                (RepositorySystem) mavenSession.getContainer().lookup( RepositorySystem.class.getName() );
+        }
+        catch ( ComponentLookupException e )
+        {
+            throw new MojoExecutionException( Messages.getString( "AbstractIdeSupportMojo.resolvernotavailable" ), e );
+        }
+        this.repositorySession = (RepositorySystemSession) repositorySession;
+        List<RemoteRepository> repositories = new ArrayList<RemoteRepository>();
+        if ( remoteRepositories != null )
+        {
+            for ( Object o : remoteRepositories )
+            {
+                repositories.add( (RemoteRepository) o );
+            }
+        }
+        this.remoteRepositories = repositories;
+        this.artifactFactory = artifactFactory;
+        this.log = log;
+    }
+
+    /**
+     * Collect the dependency graph of the project and resolve the jars of the dependencies accepted by the given
+     * filter.
+     *
+     * @param project the project
+     * @param cache the session cache, resolved files and failures are registered in it
+     * @param filter decides which dependencies are resolved
+     * @return the legacy <code>ResolutionNode</code>s in graph order, or <code>null</code> if the graph can't be
+     *         collected
+     */
+    List resolve( MavenProject project, ResolutionCache cache, ArtifactFilter filter )
+    {
+        CollectRequest collectRequest = new CollectRequest();
+        collectRequest.setRootArtifact( new DefaultArtifact( project.getGroupId(), project.getArtifactId(), null,
+                                                             "pom", project.getVersion() ) );
+        collectRequest.setRepositories( remoteRepositories );
+        collectRequest.setRequestContext( "project" );
+        for ( Object o : project.getDependencies() )
+        {
+            collectRequest.addDependency( toDependency( (org.apache.maven.model.Dependency) o ) );
+        }
+        DependencyManagement dependencyManagement = project.getDependencyManagement();
+        if ( dependencyManagement != null && dependencyManagement.getDependencies() != null )
+        {
+            for ( org.apache.maven.model.Dependency d : dependencyManagement.getDependencies() )
+            {
+                collectRequest.addManagedDependency( toDependency( d ) );
+            }
+        }
+
+        DependencyNode root;
+        try
+        {
+            CollectResult collectResult = repositorySystem.collectDependencies( repositorySession, collectRequest );
+            root = collectResult.getRoot();
+        }
+        catch ( DependencyCollectionException e )
+        {
+            log.debug( e.getMessage(), e );
+            log.error( Messages.getString( "AbstractIdeSupportMojo.artifactresolution", new Object[] {
+                project.getGroupId(), project.getArtifactId(), project.getVersion(), e.getMessage() } ) );
+            return null;
+        }
+
+        List<DependencyNode> dependencyNodes = collectNodes( root );
+
+        List nodes = new ArrayList( dependencyNodes.size() );
+        Map<ArtifactRequest, org.apache.maven.artifact.Artifact> requests =
+            new HashMap<ArtifactRequest, org.apache.maven.artifact.Artifact>();
+        List<ArtifactRequest> requestList = new ArrayList<ArtifactRequest>();
+        for ( DependencyNode node : dependencyNodes )
+        {
+            org.apache.maven.artifact.Artifact artifact = toLegacyArtifact( node.getDependency(), artifactFactory );
+            nodes.add( new ResolutionNode( artifact, project.getRemoteArtifactRepositories() ) );
+            if ( filter.include( artifact ) )
+            {
+                ArtifactRequest request =
+                    new ArtifactRequest( node.getArtifact(), node.getRepositories(),
+                                         collectRequest.getRequestContext() );
+                requests.put( request, artifact );
+                requestList.add( request );
+            }
+        }
+
+        // one batch request, the resolver downloads the missing artifacts in parallel
+        List<ArtifactResult> results;
+        try
+        {
+            results = repositorySystem.resolveArtifacts( repositorySession, requestList );
+        }
+        catch ( ArtifactResolutionException e )
+        {
+            results = e.getResults();
+        }
+
+        for ( ArtifactResult result : results )
+        {
+            org.apache.maven.artifact.Artifact artifact = requests.get( result.getRequest() );
+            if ( artifact == null )
+            {
+                continue;
+            }
+            if ( result.isResolved() )
+            {
+                artifact.setFile( result.getArtifact().getFile() );
+                artifact.setResolved( true );
+                cache.putResolvedFile( artifact );
+            }
+            else
+            {
+                String message =
+                    result.getExceptions().isEmpty() ? artifact.getId() : result.getExceptions().get( 0 ).getMessage();
+                cache.putFailure( artifact, new ArtifactNotFoundException( message, artifact ) );
+            }
+        }
+
+        return Collections.unmodifiableList( nodes );
+    }
+
+    /**
+     * Returns the nodes of the graph in pre-order, the first occurrence of an artifact wins.
+     *
+     * @param root the root of the collected graph, which is not returned
+     * @return the nodes of the dependencies
+     */
+    static List<DependencyNode> collectNodes( DependencyNode root )
+    {
+        List<DependencyNode> nodes = new ArrayList<DependencyNode>();
+        Set<DependencyNode> visited = Collections.newSetFromMap( new IdentityHashMap<DependencyNode, Boolean>() );
+        collectNodes( root, nodes, visited, new HashSet<String>() );
+        return nodes;
+    }
+
+    private static void collectNodes( DependencyNode node, List<DependencyNode> nodes, Set<DependencyNode> visited,
+                                      Set<String> artifactIds )
+    {
+        if ( !visited.add( node ) )
+        {
+            return;
+        }
+        if ( node.getDependency() != null )
+        {
+            Artifact artifact = node.getArtifact();
+            String id = artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getExtension() + ':'
+                + artifact.getClassifier();
+            if ( !artifactIds.add( id ) )
+            {
+                return;
+            }
+            nodes.add( node );
+        }
+        for ( DependencyNode child : node.getChildren() )
+        {
+            collectNodes( child, nodes, visited, artifactIds );
+        }
+    }
+
+    private Dependency toDependency( org.apache.maven.model.Dependency d )
+    {
+        ArtifactType stereotype = repositorySession.getArtifactTypeRegistry().get( d.getType() );
+        String classifier = d.getClassifier();
+        String extension = d.getType();
+        if ( stereotype != null )
+        {
+            extension = stereotype.getExtension();
+            if ( ( classifier == null || classifier.length() == 0 ) && stereotype.getClassifier() != null )
+            {
+                classifier = stereotype.getClassifier();
+            }
+        }
+
+        Artifact artifact =
+            new DefaultArtifact( d.getGroupId(), d.getArtifactId(), classifier, extension, d.getVersion(), stereotype );
+        if ( org.apache.maven.artifact.Artifact.SCOPE_SYSTEM.equals( d.getScope() ) && d.getSystemPath() != null )
+        {
+            Map<String, String> properties = new HashMap<String, String>( artifact.getProperties() );
+            properties.put( ArtifactProperties.LOCAL_PATH, d.getSystemPath() );
+            artifact = artifact.setProperties( properties );
+        }
+
+        List<Exclusion> exclusions = new ArrayList<Exclusion>();
+        for ( org.apache.maven.model.Exclusion e : d.getExclusions() )
+        {
+            exclusions.add( new Exclusion( e.getGroupId(), e.getArtifactId(), "*", "*" ) );
+        }
+
+        return new Dependency( artifact, d.getScope(), d.isOptional(), exclusions );
+    }
+
+    /**
+     * Convert a dependency of the graph to the legacy artifact the IDE dependencies are built from.
+     *
+     * @param dependency the dependency
+     * @param artifactFactory the factory creating the legacy artifacts
+     * @return the legacy artifact
+     */
+    static org.apache.maven.artifact.Artifact toLegacyArtifact( Dependency dependency,
+                                                                ArtifactFactory artifactFactory )
+    {
+        Artifact artifact = dependency.getArtifact();
+        String type = artifact.getProperty( ArtifactProperties.TYPE, artifact.getExtension() );
+        String classifier = artifact.getClassifier().length() > 0 ? artifact.getClassifier() : null;
+        org.apache.maven.artifact.Artifact legacy =
+            artifactFactory.createDependencyArtifact( artifact.getGroupId(), artifact.getArtifactId(),
+                                                      VersionRange.createFromVersion( artifact.getVersion() ), type,
+                                                      classifier, dependency.getScope(), dependency.isOptional() );
+        if ( artifact.getFile() != null )
+        {
+            legacy.setFile( artifact.getFile() );
+        }
+        return legacy;
+    }
+}
@@ -0,0 +1,176 @@
+package org.apache.maven.plugin.eclipse;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.eclipse.writers.testutils.TestEclipseWriterConfig;
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+
+/**
+ * Test class for ConfigurationFingerprint
+ *
+ * @version $Id$
+ */
+public class ConfigurationFingerprintTest
+    extends TestCase
+{
+
+    private TestFileManager fileManager = new TestFileManager( "ConfigurationFingerprint.unitTest.", "" );
+
+    private Log log = new SystemStreamLog();
+
+    private File basedir;
+
+    private MavenProject project;
+
+    protected void setUp()
+    {
+        basedir = fileManager.createTempDir();
+        Model model = new Model();
+        model.setGroupId( "g" );
+        model.setArtifactId( "a" );
+        model.setVersion( "1.0" );
+        project = new MavenProject( model );
+    }
+
+    protected void tearDown()
+        throws IOException
+    {
+        fileManager.cleanUp();
+    }
+
+    private TestEclipseWriterConfig createConfig( IdeDependency dep )
+    {
+        TestEclipseWriterConfig config = new TestEclipseWriterConfig();
+        config.setEclipseProjectDirectory( basedir );
+        config.setEclipseProjectName( "a" );
+        config.setProject( project );
+        config.setDeps( new IdeDependency[] { dep } );
+        return config;
+    }
+
+    private IdeDependency createDep( String version )
+    {
+        IdeDependency dep = new IdeDependency();
+        dep.setGroupId( "g" );
+        dep.setArtifactId( "dep" );
+        dep.setVersion( version );
+        dep.setType( "jar" );
+        dep.setFile( new File( basedir, "dep-" + version + ".jar" ) );
+        return dep;
+    }
+
+    private ConfigurationFingerprint createFingerprint( IdeDependency dep )
+    {
+        return new ConfigurationFingerprint( createConfig( dep ), project, null, null, "test" );
+    }
+
+    private ConfigurationFingerprint createFingerprint( String additionalConfigContent )
+        throws IOException
+    {
+        EclipseConfigFile configFile = new EclipseConfigFile();
+        configFile.setName( ".settings/additional.prefs" );
+        configFile.setLocation( "additional.prefs" );
+        return new ConfigurationFingerprint( createConfig( createDep( "1.0" ) ), project,
+                                             new EclipseConfigFile[] { configFile },
+                                             new byte[][] { additionalConfigContent.getBytes( "UTF-8" ) }, "test" );
+    }
+
+    public void testUnchangedAfterStore()
+    {
+        ConfigurationFingerprint fingerprint = createFingerprint( createDep( "1.0" ) );
+        assertFalse( fingerprint.isUnchanged( true, log ) );
+
+        fingerprint.store( log );
+
+        assertTrue( new File( basedir, ConfigurationFingerprint.FILE_NAME ).isFile() );
+        assertTrue( createFingerprint( createDep( "1.0" ) ).isUnchanged( true, log ) );
+    }
+
+    public void testChangedDependency()
+    {
+        createFingerprint( createDep( "1.0" ) ).store( log );
+
+        assertFalse( createFingerprint( createDep( "1.1" ) ).isUnchanged( false, log ) );
+    }
+
+    public void testChangedProject()
+    {
+        createFingerprint( createDep( "1.0" ) ).store( log );
+
+        project.getModel().addProperty( "foo", "bar" );
+
+        assertFalse( createFingerprint( createDep( "1.0" ) ).isUnchanged( false, log ) );
+    }
+
+    public void testChangedAttachments()
+    {
+        createFingerprint( createDep( "1.0" ) ).store( log );
+
+        IdeDependency dep = createDep( "1.0" );
+        dep.setSourceAttachment( new File( basedir, "dep-1.0-sources.jar" ) );
+        ConfigurationFingerprint fingerprint = createFingerprint( dep );
+
+        assertTrue( fingerprint.isUnchanged( false, log ) );
+        assertFalse( fingerprint.isUnchanged( true, log ) );
+
+        fingerprint.store( log );
+        assertTrue( createFingerprint( dep ).isUnchanged( true, log ) );
+    }
+
+    public void testChangedAdditionalConfigContent()
+        throws IOException
+    {
+        createFingerprint( "a=1" ).store( log );
+
+        assertTrue( createFingerprint( "a=1" ).isUnchanged( false, log ) );
+        assertFalse( createFingerprint( "a=2" ).isUnchanged( false, log ) );
+    }
+
+    public void testChangedOutput()
+        throws IOException
+    {
+        File dotProject = fileManager.createFile( basedir, ".project", "<projectDescription/>" );
+        File dotClasspath = fileManager.createFile( basedir, ".classpath", "<classpath/>" );
+        ConfigurationFingerprint fingerprint = createFingerprint( createDep( "1.0" ) );
+        fingerprint.addOutputs( Arrays.asList( new File[] { dotProject, dotClasspath } ) );
+        fingerprint.store( log );
+
+        assertTrue( createFingerprint( createDep( "1.0" ) ).isUnchanged( false, log ) );
+
+        dotClasspath.setLastModified( dotClasspath.lastModified() - 10000L );
+        assertFalse( createFingerprint( createDep( "1.0" ) ).isUnchanged( false, log ) );
+        fingerprint.store( log );
+        assertTrue( createFingerprint( createDep( "1.0" ) ).isUnchanged( false, log ) );
+
+        dotProject.delete();
+        assertFalse( createFingerprint( createDep( "1.0" ) ).isUnchanged( false, log ) );
+    }
+}
@@ -22,17 +22,23 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 import junit.framework.TestCase;
 
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.execution.DefaultRuntimeInformation;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.ide.AbstractIdeSupportMojo;
+import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.tools.easymock.TestFileManager;
 
@@ -91,12 +97,12 @@ public class EclipsePluginUnitTest
         EclipsePlugin mojo = newMojo();
 
         ArrayList sourceIncludes = new ArrayList();
-        Field field = EclipsePlugin.class.getDeclaredField( "sourceIncludes" );
+        Field field = AbstractEclipsePlugin.class.getDeclaredField( "sourceIncludes" );
         field.setAccessible( true );
         field.set( mojo, sourceIncludes );
 
         ArrayList sourceExcludes = new ArrayList();
-        field = EclipsePlugin.class.getDeclaredField( "sourceExcludes" );
+        field = AbstractEclipsePlugin.class.getDeclaredField( "sourceExcludes" );
         field.setAccessible( true );
         field.set( mojo, sourceExcludes );
 
@@ -267,4 +273,123 @@ public class EclipsePluginUnitTest
         }
         assertEquals( testResDir, path );
     }
+
+    public void testCopyForProject_ShouldUseTheProjectAndCopyTheLists()
+        throws Exception
+    {
+        File rootDir = fileManager.createTempDir();
+        MavenProject root = createProject( rootDir, "root" );
+        MavenProject module = createProject( new File( rootDir, "module" ), "module" );
+
+        EclipsePlugin mojo = newMojo();
+        mojo.setProject( root );
+
+        ArrayList sourceIncludes = new ArrayList();
+        sourceIncludes.add( "**/*.properties" );
+        setField( mojo, "sourceIncludes", sourceIncludes );
+        setField( mojo, "buildOutputDirectory", new File( rootDir, "target/classes" ) );
+
+        EclipsePlugin copy = (EclipsePlugin) mojo.copyForProject( module );
+
+        assertSame( module, copy.getProject() );
+        assertSame( module, copy.getExecutedProject() );
+        assertSame( root, mojo.getProject() );
+        assertEquals( new File( rootDir, "module/target/classes" ), getField( copy, "buildOutputDirectory" ) );
+        assertEquals( sourceIncludes, getField( copy, "sourceIncludes" ) );
+        assertNotSame( sourceIncludes, getField( copy, "sourceIncludes" ) );
+    }
+
+    public void testReactorProjectAvailability_ShouldNotDependOnTheOrderOfTheCopies()
+        throws Exception
+    {
+        File rootDir = fileManager.createTempDir();
+        MavenProject root = createProject( rootDir, "root" );
+        root.setPackaging( "pom" );
+        MavenProject moduleA = createProject( new File( rootDir, "module-a" ), "module-a" );
+        MavenProject moduleB = createProject( new File( rootDir, "module-b" ), "module-b" );
+
+        EclipsePlugin mojo = newMojo();
+        mojo.setProject( root );
+        mojo.setReactorProjects( Arrays.asList( new MavenProject[] { root, moduleA, moduleB } ) );
+
+        Artifact artifactB = new DefaultArtifact( "g", "module-b", VersionRange.createFromVersion( "1.0" ), "compile",
+                                                  "jar", null, new DefaultArtifactHandler( "jar" ) );
+        Artifact artifactRoot = new DefaultArtifact( "g", "root", VersionRange.createFromVersion( "1.0" ), "compile",
+                                                     "pom", null, new DefaultArtifactHandler( "pom" ) );
+
+        // module-b has no .project file yet
+        assertFalse( mojo.isAvailableAsAReactorProject( artifactB ) );
+
+        mojo.prepareReactor();
+        EclipsePlugin copy = (EclipsePlugin) mojo.copyForProject( moduleA );
+
+        assertTrue( copy.isAvailableAsAReactorProject( artifactB ) );
+        assertFalse( copy.isAvailableAsAReactorProject( artifactRoot ) );
+        assertNotSame( getField( mojo, "reactorProjectAvailability" ), getField( copy, "reactorProjectAvailability" ) );
+    }
+
+    public void testWorkspaceProjects_ShouldBeKeptPerProject()
+        throws Exception
+    {
+        File rootDir = fileManager.createTempDir();
+        MavenProject moduleA = createProject( new File( rootDir, "module-a" ), "module-a" );
+        MavenProject moduleB = createProject( new File( rootDir, "module-b" ), "module-b" );
+
+        IdeDependency workspaceArtefact = new IdeDependency();
+        workspaceArtefact.setGroupId( "g" );
+        workspaceArtefact.setArtifactId( "library" );
+        workspaceArtefact.setVersion( "1.0" );
+        workspaceArtefact.setEclipseProjectName( "library-project" );
+        WorkspaceConfiguration workspaceConfiguration = new WorkspaceConfiguration();
+        workspaceConfiguration.setWorkspaceArtefacts( new IdeDependency[] { workspaceArtefact } );
+
+        EclipsePlugin mojo = newMojo();
+        mojo.setProject( moduleA );
+        mojo.setProjectNameTemplate( "[artifactId]-[version]" );
+        setField( mojo, "useProjectReferences", Boolean.TRUE );
+        setField( mojo, "workspaceConfiguration", workspaceConfiguration );
+        EclipsePlugin copyA = (EclipsePlugin) mojo.copyForProject( moduleA );
+        EclipsePlugin copyB = (EclipsePlugin) mojo.copyForProject( moduleB );
+
+        Artifact library = new DefaultArtifact( "g", "library", VersionRange.createFromVersion( "1.0" ), "compile",
+                                                "jar", null, new DefaultArtifactHandler( "jar" ) );
+
+        // only module-a looked up its dependency in the workspace
+        assertTrue( copyA.useProjectReference( library ) );
+        assertEquals( "library-project", copyA.getProjectNameForArifact( library ) );
+        assertEquals( "library-1.0", copyB.getProjectNameForArifact( library ) );
+        assertFalse( workspaceArtefact.isAddedToClasspath() );
+    }
+
+    private static MavenProject createProject( File basedir, String artifactId )
+    {
+        Build build = new Build();
+        build.setOutputDirectory( new File( basedir, "target/classes" ).getAbsolutePath() );
+
+        Model model = new Model();
+        model.setGroupId( "g" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        model.setBuild( build );
+
+        MavenProject project = new MavenProject( model );
+        project.setFile( new File( basedir, "pom.xml" ) );
+        return project;
+    }
+
+    private static void setField( EclipsePlugin mojo, String name, Object value )
+        throws Exception
+    {
+        Field field = AbstractEclipsePlugin.class.getDeclaredField( name );
+        field.setAccessible( true );
+        field.set( mojo, value );
+    }
+
+    private static Object getField( EclipsePlugin mojo, String name )
+        throws Exception
+    {
+        Field field = AbstractEclipsePlugin.class.getDeclaredField( name );
+        field.setAccessible( true );
+        return field.get( mojo );
+    }
 }
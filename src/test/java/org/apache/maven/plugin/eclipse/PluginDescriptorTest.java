@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.eclipse;
+
+import java.io.File;
+import java.io.Reader;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptorBuilder;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
+
+/**
+ * Checks the lifecycle forked by the goals in the built plugin descriptor.
+ *
+ * @version $Id$
+ */
+public class PluginDescriptorTest
+    extends TestCase
+{
+    private static File basedir = new File( System.getProperty( "basedir", "." ) );
+
+    private PluginDescriptor pluginDescriptor;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        Reader reader =
+            ReaderFactory.newXmlReader( new File( basedir, "target/classes/META-INF/maven/plugin.xml" ) );
+        try
+        {
+            pluginDescriptor = new PluginDescriptorBuilder().build( reader );
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    /**
+     * The generate goals must not inherit the <code>generate-resources</code> fork of the goals they share their
+     * implementation with.
+     */
+    public void testGenerateGoalsDoNotFork()
+    {
+        assertExecutePhase( null, "generate" );
+        assertExecutePhase( null, "myeclipse-generate" );
+        assertExecutePhase( null, "rad-generate" );
+    }
+
+    public void testGoalsForkGenerateResources()
+    {
+        assertExecutePhase( "generate-resources", "eclipse" );
+        assertExecutePhase( "generate-resources", "eclipse-resolved" );
+        assertExecutePhase( "generate-resources", "reactor" );
+        assertExecutePhase( "generate-resources", "myeclipse" );
+        assertExecutePhase( "generate-resources", "rad" );
+    }
+
+    /**
+     * The generate goals accept the same configuration as the goals they share their implementation with.
+     */
+    public void testGenerateGoalsHaveSameParameters()
+    {
+        assertEquals( getMojo( "eclipse" ).getParameterMap().keySet(),
+                      getMojo( "generate" ).getParameterMap().keySet() );
+        assertEquals( getMojo( "myeclipse" ).getParameterMap().keySet(),
+                      getMojo( "myeclipse-generate" ).getParameterMap().keySet() );
+        assertEquals( getMojo( "rad" ).getParameterMap().keySet(),
+                      getMojo( "rad-generate" ).getParameterMap().keySet() );
+    }
+
+    /**
+     * The dependencies of the project are taken from the resolution done by Maven before the goal is executed.
+     */
+    public void testResolvedGoalRequiresTestDependencies()
+    {
+        MojoDescriptor mojo = getMojo( "eclipse-resolved" );
+        assertEquals( "test", mojo.isDependencyResolutionRequired() );
+        assertEquals( getMojo( "eclipse" ).getParameterMap().keySet(), mojo.getParameterMap().keySet() );
+    }
+
+    private void assertExecutePhase( String phase, String goal )
+    {
+        assertEquals( goal, phase, getMojo( goal ).getExecutePhase() );
+    }
+
+    private MojoDescriptor getMojo( String goal )
+    {
+        MojoDescriptor mojo = pluginDescriptor.getMojo( goal );
+        assertNotNull( goal, mojo );
+        return mojo;
+    }
+}
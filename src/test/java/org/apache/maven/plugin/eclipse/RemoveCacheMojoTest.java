@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.eclipse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.ide.IdeUtils;
+import org.apache.maven.plugin.testing.stubs.StubArtifactRepository;
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+import org.codehaus.plexus.util.ReflectionUtils;
+
+/**
+ * Test for {@link RemoveCacheMojo} on a fake local repository with marker files.
+ *
+ * @version $Id$
+ */
+public class RemoveCacheMojoTest
+    extends TestCase
+{
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private TestFileManager fileManager = new TestFileManager( "RemoveCacheMojo.unitTest.", "" );
+
+    private File localRepository;
+
+    private File apacheMarker;
+
+    private File oldApacheMarker;
+
+    private File codehausMarker;
+
+    private File jar;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        localRepository = fileManager.createTempDir();
+        apacheMarker = createMarkerFile( "org/apache/foo/1.0", "foo-1.0-sources.jar", 0 );
+        oldApacheMarker = createMarkerFile( "org/apache/bar/1.0", "bar-1.0-javadoc.jar", 10 );
+        codehausMarker = createMarkerFile( "org/codehaus/baz/1.0", "baz-1.0-sources.jar", 10 );
+        jar = fileManager.createFile( apacheMarker.getParentFile(), "foo-1.0.jar", "jar" );
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        fileManager.cleanUp();
+
+        super.tearDown();
+    }
+
+    public void testAllMarkerFilesAreRemoved()
+        throws Exception
+    {
+        RemoveCacheMojo mojo = createMojo( null, 0, 0 );
+        mojo.execute();
+
+        assertFalse( apacheMarker.exists() );
+        assertFalse( oldApacheMarker.exists() );
+        assertFalse( codehausMarker.exists() );
+        assertTrue( jar.exists() );
+        assertEquals( 3, getDeletedFiles( mojo ) );
+    }
+
+    public void testGroupIdPrefix()
+        throws Exception
+    {
+        RemoveCacheMojo mojo = createMojo( "org.apache", 0, 0 );
+        mojo.execute();
+
+        assertFalse( apacheMarker.exists() );
+        assertFalse( oldApacheMarker.exists() );
+        assertTrue( codehausMarker.exists() );
+        assertEquals( 2, getDeletedFiles( mojo ) );
+    }
+
+    public void testGroupIdPrefixOfAnArtifact()
+        throws Exception
+    {
+        RemoveCacheMojo mojo = createMojo( "org.apache.foo", 0, 0 );
+        mojo.execute();
+
+        assertFalse( apacheMarker.exists() );
+        assertTrue( oldApacheMarker.exists() );
+        assertTrue( codehausMarker.exists() );
+        assertEquals( 1, getDeletedFiles( mojo ) );
+    }
+
+    public void testOlderThanDays()
+        throws Exception
+    {
+        RemoveCacheMojo mojo = createMojo( null, 5, 0 );
+        mojo.execute();
+
+        assertTrue( apacheMarker.exists() );
+        assertFalse( oldApacheMarker.exists() );
+        assertFalse( codehausMarker.exists() );
+        assertEquals( 2, getDeletedFiles( mojo ) );
+    }
+
+    public void testGroupIdPrefixAndOlderThanDays()
+        throws Exception
+    {
+        RemoveCacheMojo mojo = createMojo( "org.apache", 5, 0 );
+        mojo.execute();
+
+        assertTrue( apacheMarker.exists() );
+        assertFalse( oldApacheMarker.exists() );
+        assertTrue( codehausMarker.exists() );
+        assertEquals( 1, getDeletedFiles( mojo ) );
+    }
+
+    public void testThreads()
+        throws Exception
+    {
+        for ( int i = 0; i < 20; i++ )
+        {
+            createMarkerFile( "org/apache/many/module" + i + "/1.0", "module" + i + "-1.0-sources.jar", 0 );
+        }
+
+        RemoveCacheMojo mojo = createMojo( "org.apache", 0, 4 );
+        mojo.execute();
+
+        assertFalse( apacheMarker.exists() );
+        assertFalse( oldApacheMarker.exists() );
+        assertTrue( codehausMarker.exists() );
+        assertEquals( 22, getDeletedFiles( mojo ) );
+    }
+
+    public void testSingleThread()
+        throws Exception
+    {
+        RemoveCacheMojo mojo = createMojo( null, 0, 1 );
+        mojo.execute();
+
+        assertFalse( apacheMarker.exists() );
+        assertFalse( oldApacheMarker.exists() );
+        assertFalse( codehausMarker.exists() );
+        assertEquals( 3, getDeletedFiles( mojo ) );
+    }
+
+    private RemoveCacheMojo createMojo( String groupIdPrefix, int olderThanDays, int threads )
+        throws IllegalAccessException
+    {
+        RemoveCacheMojo mojo = new RemoveCacheMojo();
+        ReflectionUtils.setVariableValueInObject( mojo, "localRepository",
+                                                  new StubArtifactRepository( localRepository.getPath() ) );
+        ReflectionUtils.setVariableValueInObject( mojo, "groupIdPrefix", groupIdPrefix );
+        ReflectionUtils.setVariableValueInObject( mojo, "olderThanDays", Integer.valueOf( olderThanDays ) );
+        ReflectionUtils.setVariableValueInObject( mojo, "threads", Integer.valueOf( threads ) );
+        return mojo;
+    }
+
+    private File createMarkerFile( String path, String fileName, int ageInDays )
+        throws IOException
+    {
+        File directory = new File( localRepository, path );
+        directory.mkdirs();
+        File markerFile =
+            fileManager.createFile( directory, fileName + IdeUtils.NOT_AVAILABLE_MARKER_FILE_SUFFIX, "" );
+        markerFile.setLastModified( System.currentTimeMillis() - ageInDays * DAY_MILLIS );
+        return markerFile;
+    }
+
+    private static long getDeletedFiles( RemoveCacheMojo mojo )
+        throws IllegalAccessException
+    {
+        return ( (AtomicLong) ReflectionUtils.getValueIncludingSuperclasses( "deletedFiles", mojo ) ).get();
+    }
+}
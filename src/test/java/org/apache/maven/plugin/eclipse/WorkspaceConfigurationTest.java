@@ -19,8 +19,12 @@ package org.apache.maven.plugin.eclipse;
  * under the License.
  */
 
+import java.util.List;
+
 import junit.framework.TestCase;
 
+import org.apache.maven.plugin.ide.IdeDependency;
+
 public class WorkspaceConfigurationTest
     extends TestCase
 {
@@ -54,4 +58,25 @@ public class WorkspaceConfigurationTest
         //wps.base.v60
         //wps.base.v61
     }
+
+    public void testGetWorkspaceArtefactsByKey()
+    {
+        WorkspaceConfiguration wc = new WorkspaceConfiguration();
+        assertTrue( wc.getWorkspaceArtefacts( "g", "a" ).isEmpty() );
+
+        IdeDependency a1 = new IdeDependency( "g", "a", "1.0", null, false, false, false, false, false, null, "jar",
+                                              false, null, 0, "a-1.0" );
+        IdeDependency b = new IdeDependency( "g", "b", "1.0", null, false, false, false, false, false, null, "jar",
+                                             false, null, 0, "b" );
+        IdeDependency a2 = new IdeDependency( "g", "a", "2.0", null, false, false, false, false, false, null, "jar",
+                                              false, null, 0, "a-2.0" );
+        wc.setWorkspaceArtefacts( new IdeDependency[] { a1, b, a2 } );
+
+        List<IdeDependency> artefacts = wc.getWorkspaceArtefacts( "g", "a" );
+        assertEquals( 2, artefacts.size() );
+        assertSame( a1, artefacts.get( 0 ) );
+        assertSame( a2, artefacts.get( 1 ) );
+        assertSame( b, wc.getWorkspaceArtefacts( "g", "b" ).get( 0 ) );
+        assertTrue( wc.getWorkspaceArtefacts( "other", "a" ).isEmpty() );
+    }
 }
@@ -43,13 +43,12 @@ import org.apache.maven.artifact.factory.DefaultArtifactFactory;
 import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
 import org.apache.maven.artifact.handler.manager.DefaultArtifactHandlerManager;
-import org.apache.maven.artifact.repository.ArtifactRepository;
-import org.apache.maven.artifact.repository.DefaultArtifactRepository;
-import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.ExecutionFailedException;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeUtils;
+import org.apache.maven.plugin.ide.NotAvailableIndex;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.invoker.InvocationRequest;
@@ -475,7 +474,7 @@ public abstract class AbstractEclipsePluginIT
         request.getProperties().setProperty( "downloadSources", "false" );
         request.getProperties().setProperty( "downloadJavadocs", "false" );
 
-        request.setDebug( true );
+        request.setDebug( isDebugBuild() );
 
         if ( switchLocalRepo )
         {
@@ -502,6 +501,14 @@ public abstract class AbstractEclipsePluginIT
         }
     }
 
+    /**
+     * @return <code>true</code> if the test builds run with debug output
+     */
+    protected boolean isDebugBuild()
+    {
+        return true;
+    }
+
     protected MavenProject readProject( File pom )
         throws TestToolsException
     {
@@ -923,27 +930,23 @@ public abstract class AbstractEclipsePluginIT
     }
 
     /**
-     * Return the not available marker file for the specified artifact details.
+     * Return the sources or javadoc artifact for the specified artifact details.
      *
      * @param groupId group id of artifact
      * @param artifactId artifact id of artifact
      * @param version version of artifact
      * @param classifier the classifier of the artifact
      * @param inClassifier the sources/javadocs to be attached
-     * @return the not available marker file
+     * @return the sources or javadoc artifact
      * @throws Exception failures.
      * @see IdeUtils#createArtifactWithClassifier(String, String, String, String, String, ArtifactFactory)
      */
-    protected File getNotAvailableMarkerFile( String groupId, String artifactId, String version, String classifier,
+    protected Artifact getClassifierArtifact( String groupId, String artifactId, String version, String classifier,
                                               String inClassifier )
         throws Exception
     {
         // HACK: START
         // TODO: Work out how to use Plexus to obtain these values
-        String url = "file://" + localRepositoryDirectory;
-        ArtifactRepository localRepository =
-            new DefaultArtifactRepository( "local", url, new DefaultRepositoryLayout() );
-
         ArtifactFactory artifactFactory = new DefaultArtifactFactory();
 
         DefaultArtifactHandler javaSourceArtifactHandler = new DefaultArtifactHandler( "java-source" );
@@ -961,14 +964,40 @@ public abstract class AbstractEclipsePluginIT
         setVariableValueToObject( artifactFactory, "artifactHandlerManager", artifactHandlerManager );
         // HACK: END
 
-        Artifact artifact =
-            IdeUtils.createArtifactWithClassifier( groupId, artifactId, version, classifier, inClassifier,
-                                                   artifactFactory );
-        return IdeUtils.getNotAvailableMarkerFile( localRepository, artifact );
+        return IdeUtils.createArtifactWithClassifier( groupId, artifactId, version, classifier, inClassifier,
+                                                      artifactFactory );
+    }
+
+    /**
+     * @return the index of the not available sources and javadoc attachments in the local repository
+     */
+    protected NotAvailableIndex getNotAvailableIndex()
+    {
+        return new NotAvailableIndex( NotAvailableIndex.getIndexFile( localRepositoryDirectory.getAbsolutePath() ),
+                                      new SystemStreamLog() );
+    }
+
+    /**
+     * Mark the specified artifact as not available in the local repository.
+     *
+     * @param groupId group id of artifact
+     * @param artifactId artifact id of artifact
+     * @param version version of artifact
+     * @param classifier the classifier of the artifact
+     * @param inClassifier the sources/javadocs to be attached
+     * @throws Exception failures
+     */
+    protected void markNotAvailable( String groupId, String artifactId, String version, String classifier,
+                                     String inClassifier )
+        throws Exception
+    {
+        NotAvailableIndex index = getNotAvailableIndex();
+        index.markNotAvailable( getClassifierArtifact( groupId, artifactId, version, classifier, inClassifier ) );
+        index.store( new SystemStreamLog() );
     }
 
     /**
-     * Assert that the not available marker file exists for the specified artifact details.
+     * Assert that the specified artifact is marked as not available.
      *
      * @param groupId group id of artifact
      * @param artifactId artifact id of artifact
@@ -977,16 +1006,17 @@ public abstract class AbstractEclipsePluginIT
      * @param inClassifier the sources/javadocs to be attached
      * @throws Exception failures
      */
-    protected void assertNotAvailableMarkerFileExists( String groupId, String artifactId, String version,
-                                                       String classifier, String inClassifier )
+    protected void assertMarkedNotAvailable( String groupId, String artifactId, String version, String classifier,
+                                             String inClassifier )
         throws Exception
     {
-        File markerFile = getNotAvailableMarkerFile( groupId, artifactId, version, classifier, inClassifier );
-        assertTrue( "The \"Not Available\" marker file does not exist: " + markerFile, markerFile.exists() );
+        Artifact artifact = getClassifierArtifact( groupId, artifactId, version, classifier, inClassifier );
+        assertTrue( "The artifact is not marked as \"Not Available\": " + artifact,
+                    getNotAvailableIndex().isNotAvailable( artifact, 0 ) );
     }
 
     /**
-     * Assert that the not available marker file does not exist for the specified artifact details.
+     * Assert that the specified artifact is not marked as not available.
      *
      * @param groupId group id of artifact
      * @param artifactId artifact id of artifact
@@ -995,12 +1025,13 @@ public abstract class AbstractEclipsePluginIT
      * @param inClassifier the sources/javadocs to be attached
      * @throws Exception failures
      */
-    protected void assertNotAvailableMarkerFileDoesNotExist( String groupId, String artifactId, String version,
-                                                             String classifier, String inClassifier )
+    protected void assertNotMarkedNotAvailable( String groupId, String artifactId, String version, String classifier,
+                                                String inClassifier )
         throws Exception
     {
-        File markerFile = getNotAvailableMarkerFile( groupId, artifactId, version, classifier, inClassifier );
-        assertTrue( "The \"Not Available\" marker file incorrectly exists: " + markerFile, !markerFile.exists() );
+        Artifact artifact = getClassifierArtifact( groupId, artifactId, version, classifier, inClassifier );
+        assertFalse( "The artifact is incorrectly marked as \"Not Available\": " + artifact,
+                     getNotAvailableIndex().isNotAvailable( artifact, 0 ) );
     }
 
 }
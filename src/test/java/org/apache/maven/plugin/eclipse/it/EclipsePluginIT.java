@@ -505,8 +505,8 @@ public class EclipsePluginIT
         throws Exception
     {
         testProject( "project-46" );
-        assertNotAvailableMarkerFileExists( "biz.aQute", "bndlib", "0.0.145", null, "sources" );
-        assertNotAvailableMarkerFileExists( "biz.aQute", "bndlib", "0.0.145", null, "javadoc" );
+        assertMarkedNotAvailable( "biz.aQute", "bndlib", "0.0.145", null, "sources" );
+        assertMarkedNotAvailable( "biz.aQute", "bndlib", "0.0.145", null, "javadoc" );
     }
 
     /**
@@ -519,8 +519,8 @@ public class EclipsePluginIT
         throws Exception
     {
         testProject( "project-47" );
-        assertNotAvailableMarkerFileExists( "commons-lang", "commons-lang", "1.0", null, "sources" );
-        assertNotAvailableMarkerFileDoesNotExist( "commons-lang", "commons-lang", "1.0", null, "javadoc" );
+        assertMarkedNotAvailable( "commons-lang", "commons-lang", "1.0", null, "sources" );
+        assertNotMarkedNotAvailable( "commons-lang", "commons-lang", "1.0", null, "javadoc" );
     }
 
     /**
@@ -533,8 +533,8 @@ public class EclipsePluginIT
         throws Exception
     {
         testProject( "project-48" );
-        assertNotAvailableMarkerFileDoesNotExist( "does-not-exist", "does-not-exist", "666", null, "sources" );
-        assertNotAvailableMarkerFileDoesNotExist( "does-not-exist", "does-not-exist", "666", null, "javadoc" );
+        assertNotMarkedNotAvailable( "does-not-exist", "does-not-exist", "666", null, "sources" );
+        assertNotMarkedNotAvailable( "does-not-exist", "does-not-exist", "666", null, "javadoc" );
     }
 
     /**
@@ -545,15 +545,12 @@ public class EclipsePluginIT
     public void testProject49()
         throws Exception
     {
-        File notAvailableMarkerFile =
-            getNotAvailableMarkerFile( "commons-lang", "commons-lang", "2.4", null, "sources" );
-        notAvailableMarkerFile.getParentFile().mkdirs();
-        notAvailableMarkerFile.createNewFile();
-        getNotAvailableMarkerFile( "commons-lang", "commons-lang", "2.4", null, "javadoc" ).createNewFile();
+        markNotAvailable( "commons-lang", "commons-lang", "2.4", null, "sources" );
+        markNotAvailable( "commons-lang", "commons-lang", "2.4", null, "javadoc" );
 
         testProject( "project-49" );
-        assertNotAvailableMarkerFileDoesNotExist( "commons-lang", "commons-lang", "2.4", null, "sources" );
-        assertNotAvailableMarkerFileDoesNotExist( "commons-lang", "commons-lang", "2.4", null, "javadoc" );
+        assertNotMarkedNotAvailable( "commons-lang", "commons-lang", "2.4", null, "sources" );
+        assertNotMarkedNotAvailable( "commons-lang", "commons-lang", "2.4", null, "javadoc" );
     }
 
     /**
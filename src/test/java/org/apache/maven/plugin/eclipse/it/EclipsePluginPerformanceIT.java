@@ -0,0 +1,201 @@
+package org.apache.maven.plugin.eclipse.it;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Runs <code>eclipse:eclipse</code> on generated reactors of 100, 500 and 1000 modules and compares the wall time of
+ * the plugin, as written to the <code>metricsReport</code>, with the baselines stored in
+ * <code>src/test/resources/performance/baselines.properties</code>. Only run by the <code>performance-its</code>
+ * profile.
+ * <p>
+ * A test fails if the wall time exceeds its baseline by more than the <code>tolerance</code> factor of the baselines
+ * file, which the system property <code>eclipse.performance.tolerance</code> overrides, and if there is no baseline.
+ * The baselines are written from the measured timings with <code>-Declipse.performance.updateBaselines=true</code>,
+ * together with a description of the hardware they were measured on, which should be the machine running the suite.
+ * All timings are written to <code>target/performance/results.properties</code>.
+ *
+ * @version $Id$
+ */
+public class EclipsePluginPerformanceIT
+    extends AbstractEclipsePluginIT
+{
+
+    private static final int FAN_OUT = 5;
+
+    private static final int LIBRARIES = 200;
+
+    private static final String BASELINES = "src/test/resources/performance/baselines.properties";
+
+    private static final String RESULTS = "target/performance/results.properties";
+
+    private static final Pattern WALL_TIME = Pattern.compile( "\"wallTimeMillis\":\\s*(\\d+)" );
+
+    public void testReactorOf100Modules()
+        throws Exception
+    {
+        testReactor( 100 );
+    }
+
+    public void testReactorOf500Modules()
+        throws Exception
+    {
+        testReactor( 500 );
+    }
+
+    public void testReactorOf1000Modules()
+        throws Exception
+    {
+        testReactor( 1000 );
+    }
+
+    protected boolean isDebugBuild()
+    {
+        return false;
+    }
+
+    private void testReactor( int modules )
+        throws Exception
+    {
+        String name = "reactor-" + modules;
+        File basedir = getTestFile( "target/performance/" + name );
+        FileUtils.deleteDirectory( basedir );
+        new SyntheticReactor( modules, FAN_OUT, LIBRARIES ).generate( basedir, localRepositoryDirectory );
+
+        File report = new File( basedir, "eclipse-metrics.json" );
+        Properties properties = new Properties();
+        properties.setProperty( "wtpversion", "2.0" );
+        properties.setProperty( "eclipse.metricsReport", report.getAbsolutePath() );
+        List goals = new ArrayList();
+        goals.add( getPluginCLISpecification() + "eclipse" );
+
+        long start = System.currentTimeMillis();
+        executeMaven( new File( basedir, "pom.xml" ), properties, goals );
+        long buildTime = System.currentTimeMillis() - start;
+
+        assertTrue( "Missing module files", new File( basedir, "module" + ( modules - 1 ) + "/.project" ).exists() );
+        Matcher matcher = WALL_TIME.matcher( FileUtils.fileRead( report, "UTF-8" ) );
+        assertTrue( "Missing wall time in " + report, matcher.find() );
+        long wallTime = Long.parseLong( matcher.group( 1 ) );
+        System.out.println( "  " + name + ": plugin " + wallTime + " ms, build " + buildTime + " ms" );
+
+        Properties results = load( getTestFile( RESULTS ) );
+        results.setProperty( name + ".wallTimeMillis", String.valueOf( wallTime ) );
+        results.setProperty( name + ".buildTimeMillis", String.valueOf( buildTime ) );
+        store( results, getTestFile( RESULTS ) );
+
+        File baselinesFile = getTestFile( BASELINES );
+        Properties baselines = load( baselinesFile );
+        if ( Boolean.getBoolean( "eclipse.performance.updateBaselines" ) )
+        {
+            updateBaseline( baselinesFile, name, String.valueOf( wallTime ) );
+            updateBaseline( baselinesFile, "hardware", getHardware() );
+            return;
+        }
+        String baseline = baselines.getProperty( name, "" ).trim();
+        if ( baseline.length() == 0 )
+        {
+            fail( "No baseline for " + name + " (" + wallTime + " ms) in " + BASELINES
+                + ", run with -Declipse.performance.updateBaselines=true on the machine running the suite" );
+        }
+        if ( !getHardware().equals( baselines.getProperty( "hardware" ) ) )
+        {
+            System.out.println( "  the baselines were measured on " + baselines.getProperty( "hardware" ) );
+        }
+        double tolerance =
+            Double.parseDouble( System.getProperty( "eclipse.performance.tolerance",
+                                                    baselines.getProperty( "tolerance", "1.5" ) ) );
+        long limit = (long) ( Long.parseLong( baseline ) * tolerance );
+        assertTrue( name + " took " + wallTime + " ms, the baseline is " + baseline + " ms", wallTime <= limit );
+    }
+
+    /**
+     * @return the operating system, processors, memory and Java version of the current machine
+     */
+    private static String getHardware()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        return System.getProperty( "os.name" ) + ' ' + System.getProperty( "os.arch" ) + ", "
+            + runtime.availableProcessors() + " processors, " + ( runtime.maxMemory() >> 20 ) + " MB heap, Java "
+            + System.getProperty( "java.version" );
+    }
+
+    private static Properties load( File file )
+        throws IOException
+    {
+        Properties properties = new Properties();
+        if ( file.exists() )
+        {
+            InputStream in = new FileInputStream( file );
+            try
+            {
+                properties.load( in );
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Replace the value of a baseline, keeping the comments of the file.
+     */
+    private static void updateBaseline( File file, String name, String value )
+        throws IOException
+    {
+        String baselines = FileUtils.fileRead( file, "ISO-8859-1" );
+        Pattern baseline = Pattern.compile( "^" + Pattern.quote( name ) + "=.*$", Pattern.MULTILINE );
+        Matcher matcher = baseline.matcher( baselines );
+        baselines = matcher.find() ? matcher.replaceFirst( Matcher.quoteReplacement( name + "=" + value ) )
+                        : baselines + name + "=" + value + "\n";
+        FileUtils.fileWrite( file, "ISO-8859-1", baselines );
+    }
+
+    private static void store( Properties properties, File file )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream( file );
+        try
+        {
+            properties.store( out, "Timings of eclipse:eclipse in milliseconds" );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+}
@@ -32,8 +32,8 @@ public class RemoveCacheMojoIT
     extends AbstractEclipsePluginIT
 {
     /**
-     * Project-46 uses which does not have sources/javadocs for biz.aQute:bndlib:0.0.145. Once the repo is seeded with
-     * marker files run remove-cache and verify the marker files no longer exist.
+     * Project-46 uses which does not have sources/javadocs for biz.aQute:bndlib:0.0.145. Once the repo is marked as not
+     * available run remove-cache and verify the artifacts are no longer marked.
      * 
      * @throws Exception test failures
      */
@@ -41,8 +41,8 @@ public class RemoveCacheMojoIT
         throws Exception
     {
         testProject( "project-46" );
-        assertNotAvailableMarkerFileExists( "biz.aQute", "bndlib", "0.0.145", null, "sources" );
-        assertNotAvailableMarkerFileExists( "biz.aQute", "bndlib", "0.0.145", null, "javadoc" );
+        assertMarkedNotAvailable( "biz.aQute", "bndlib", "0.0.145", null, "sources" );
+        assertMarkedNotAvailable( "biz.aQute", "bndlib", "0.0.145", null, "javadoc" );
 
         File basedir = getTestFile( "target/test-classes/projects/project-46" );
         File pom = new File( basedir, "pom.xml" );
@@ -51,7 +51,7 @@ public class RemoveCacheMojoIT
         goals.add( pluginSpec + ":remove-cache" );
         executeMaven( pom, new Properties(), goals );
 
-        assertNotAvailableMarkerFileDoesNotExist( "biz.aQute", "bndlib", "0.0.145", null, "sources" );
-        assertNotAvailableMarkerFileDoesNotExist( "biz.aQute", "bndlib", "0.0.145", null, "javadoc" );
+        assertNotMarkedNotAvailable( "biz.aQute", "bndlib", "0.0.145", null, "sources" );
+        assertNotMarkedNotAvailable( "biz.aQute", "bndlib", "0.0.145", null, "javadoc" );
     }
 }
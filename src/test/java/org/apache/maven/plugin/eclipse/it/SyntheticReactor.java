@@ -0,0 +1,247 @@
+package org.apache.maven.plugin.eclipse.it;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Generates a reactor of <code>N</code> modules for the performance tests, together with a local repository of fake
+ * jars for its third party dependencies.
+ * <ul>
+ * <li>The parent manages the versions of all third party libraries.</li>
+ * <li>Each block of ten modules has seven jar modules, a war, an ejb and an ear packaging the war and the ejb.</li>
+ * <li>Each jar, war and ejb module depends on the previous <code>fanOut</code> jar modules and on
+ * <code>fanOut</code> third party libraries, without version.</li>
+ * <li>Each third party library depends on two others, so that the dependency graph of each module has a depth of
+ * about <code>log2( libraries )</code>.</li>
+ * </ul>
+ * The packaged artifacts of the modules are also written to the local repository, as after a previous
+ * <code>mvn install</code>, because the ear modules need the wars and ejbs they package in the
+ * <code>generate-resources</code> phase.
+ *
+ * @version $Id$
+ */
+public class SyntheticReactor
+{
+
+    /**
+     * Group id of the modules and libraries.
+     */
+    public static final String GROUP_ID = "eclipsetest.synthetic";
+
+    private static final String VERSION = "1.0";
+
+    private static final String LIBRARY_GROUP_ID = GROUP_ID + ".lib";
+
+    private final int modules;
+
+    private final int fanOut;
+
+    private final int libraries;
+
+    /**
+     * @param modules the number of modules
+     * @param fanOut the number of module and library dependencies of each module
+     * @param libraries the number of third party libraries
+     */
+    public SyntheticReactor( int modules, int fanOut, int libraries )
+    {
+        this.modules = modules;
+        this.fanOut = fanOut;
+        this.libraries = libraries;
+    }
+
+    /**
+     * Write the reactor and its artifacts.
+     *
+     * @param basedir the directory of the parent pom, the modules are written to subdirectories
+     * @param localRepository the local repository to write the artifacts to
+     * @throws IOException if a file can't be written
+     */
+    public void generate( File basedir, File localRepository )
+        throws IOException
+    {
+        for ( int i = 0; i < libraries; i++ )
+        {
+            Model library = createModel( LIBRARY_GROUP_ID, getLibraryId( i ), "jar" );
+            for ( int child = 2 * i + 1; child <= 2 * i + 2 && child < libraries; child++ )
+            {
+                library.addDependency( createDependency( LIBRARY_GROUP_ID, getLibraryId( child ), VERSION, "jar" ) );
+            }
+            install( library, localRepository, "jar" );
+        }
+
+        Model parent = createModel( GROUP_ID, "parent", "pom" );
+        parent.setDependencyManagement( new DependencyManagement() );
+        for ( int i = 0; i < libraries; i++ )
+        {
+            parent.getDependencyManagement().addDependency(
+                createDependency( LIBRARY_GROUP_ID, getLibraryId( i ), VERSION, "jar" ) );
+        }
+        for ( int i = 0; i < modules; i++ )
+        {
+            parent.addModule( getModuleId( i ) );
+        }
+        write( parent, new File( basedir, "pom.xml" ) );
+        install( parent, localRepository, null );
+
+        for ( int i = 0; i < modules; i++ )
+        {
+            Model module = createModule( i );
+            write( module, new File( basedir, getModuleId( i ) + "/pom.xml" ) );
+            install( module, localRepository, "ear".equals( module.getPackaging() ) ? "ear"
+                            : "war".equals( module.getPackaging() ) ? "war" : "jar" );
+        }
+    }
+
+    private Model createModule( int i )
+    {
+        String packaging = getPackaging( i );
+        Model module = new Model();
+        module.setModelVersion( "4.0.0" );
+        Parent parent = new Parent();
+        parent.setGroupId( GROUP_ID );
+        parent.setArtifactId( "parent" );
+        parent.setVersion( VERSION );
+        module.setParent( parent );
+        module.setArtifactId( getModuleId( i ) );
+        module.setPackaging( packaging );
+
+        if ( "ear".equals( packaging ) )
+        {
+            module.addDependency( createDependency( GROUP_ID, getModuleId( i - 4 ), VERSION, "war" ) );
+            module.addDependency( createDependency( GROUP_ID, getModuleId( i - 2 ), VERSION, "ejb" ) );
+            return module;
+        }
+
+        int added = 0;
+        for ( int j = i - 1; j >= 0 && added < fanOut; j-- )
+        {
+            if ( "jar".equals( getPackaging( j ) ) )
+            {
+                module.addDependency( createDependency( GROUP_ID, getModuleId( j ), VERSION, "jar" ) );
+                added++;
+            }
+        }
+        for ( int j = 0; j < fanOut && j < libraries; j++ )
+        {
+            module.addDependency( createDependency( LIBRARY_GROUP_ID, getLibraryId( ( i * fanOut + j ) % libraries ),
+                                                    null, "jar" ) );
+        }
+        return module;
+    }
+
+    private static String getPackaging( int i )
+    {
+        switch ( i % 10 )
+        {
+            case 5:
+                return "war";
+            case 7:
+                return "ejb";
+            case 9:
+                return "ear";
+            default:
+                return "jar";
+        }
+    }
+
+    private static String getModuleId( int i )
+    {
+        return "module" + i;
+    }
+
+    private static String getLibraryId( int i )
+    {
+        return "lib" + i;
+    }
+
+    private static Model createModel( String groupId, String artifactId, String packaging )
+    {
+        Model model = new Model();
+        model.setModelVersion( "4.0.0" );
+        model.setGroupId( groupId );
+        model.setArtifactId( artifactId );
+        model.setVersion( VERSION );
+        model.setPackaging( packaging );
+        return model;
+    }
+
+    private static Dependency createDependency( String groupId, String artifactId, String version, String type )
+    {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( groupId );
+        dependency.setArtifactId( artifactId );
+        dependency.setVersion( version );
+        dependency.setType( type );
+        return dependency;
+    }
+
+    /**
+     * Write the pom and, unless <code>extension</code> is <code>null</code>, an empty archive of a model to the local
+     * repository.
+     */
+    private static void install( Model model, File localRepository, String extension )
+        throws IOException
+    {
+        String groupId = model.getGroupId() != null ? model.getGroupId() : model.getParent().getGroupId();
+        String version = model.getVersion() != null ? model.getVersion() : model.getParent().getVersion();
+        File dir =
+            new File( localRepository, groupId.replace( '.', '/' ) + '/' + model.getArtifactId() + '/' + version );
+        String baseName = model.getArtifactId() + '-' + version;
+        write( model, new File( dir, baseName + ".pom" ) );
+        if ( extension != null )
+        {
+            Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put( Attributes.Name.MANIFEST_VERSION, "1.0" );
+            File archive = new File( dir, baseName + '.' + extension );
+            new JarOutputStream( new FileOutputStream( archive ), manifest ).close();
+        }
+    }
+
+    private static void write( Model model, File file )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        Writer w = new OutputStreamWriter( new FileOutputStream( file ), "UTF-8" );
+        try
+        {
+            new MavenXpp3Writer().write( w, model );
+        }
+        finally
+        {
+            IOUtil.close( w );
+        }
+    }
+}
@@ -16,12 +16,16 @@ package org.apache.maven.plugin.eclipse.reader;
 import java.io.File;
 import java.io.IOException;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import junit.framework.TestCase;
 
 import org.apache.maven.plugin.eclipse.TempEclipseWorkspace;
 import org.apache.maven.plugin.eclipse.WorkspaceConfiguration;
+import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.shared.tools.easymock.MockManager;
 import org.easymock.MockControl;
 
@@ -162,6 +166,33 @@ private File metaDataDirectory;
         assertTrue( servers.isEmpty() );
     }
 
+    /**
+     * The workspace projects are read concurrently, the group and version of a module are inherited from its parent.
+     * 
+     * @throws Exception
+     */
+    public void testReadWorkspace()
+        throws Exception
+    {
+        WorkspaceConfiguration workspaceConfiguration = new WorkspaceConfiguration();
+        workspaceConfiguration.setWorkspaceDirectory( workspaceLocation );
+
+        ReadWorkspaceLocations objectUnderTest = new ReadWorkspaceLocations();
+        objectUnderTest.readWorkspace( workspaceConfiguration, new SystemStreamLog() );
+
+        Set<String> artefacts = new TreeSet<String>();
+        for ( IdeDependency artefact : workspaceConfiguration.getWorkspaceArtefacts() )
+        {
+            artefacts.add( artefact.getGroupId() + ":" + artefact.getArtifactId() + ":" + artefact.getVersion() + ":"
+                + artefact.getType() + " " + artefact.getEclipseProjectName() );
+        }
+        Set<String> expected = new TreeSet<String>();
+        expected.add( "eclipse:module-A1:1:jar module-A1" );
+        expected.add( "eclipse:project-A:1:pom project-A" );
+        expected.add( "eclipse:project-O:1:jar project-O" );
+        assertEquals( expected, artefacts );
+    }
+
     /**
      * Assert that two files represent the same absolute file.
      * 
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.apache.maven.plugin.eclipse.reader;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.eclipse.TempEclipseWorkspace;
+import org.apache.maven.plugin.eclipse.WorkspaceConfiguration;
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Test for {@link WorkspaceIndex}
+ *
+ * @version $Id$
+ */
+public class WorkspaceIndexTest
+    extends TestCase
+{
+
+    private Log log = new SystemStreamLog();
+
+    private File workspaceLocation;
+
+    private File metaDataDirectory;
+
+    private File indexFile;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        workspaceLocation = TempEclipseWorkspace.getFixtureEclipseDynamicWorkspace().workspaceLocation;
+        metaDataDirectory =
+            new File( workspaceLocation, ReadWorkspaceLocations.METADATA_PLUGINS_ORG_ECLIPSE_CORE_RESOURCES_PROJECTS );
+        indexFile = new File( workspaceLocation.getParentFile(), "workspace-index.properties" );
+    }
+
+    private WorkspaceIndex readWorkspace()
+    {
+        WorkspaceIndex index = new WorkspaceIndex( indexFile, workspaceLocation, log );
+        WorkspaceConfiguration workspaceConfiguration = new WorkspaceConfiguration();
+        workspaceConfiguration.setWorkspaceDirectory( workspaceLocation );
+        new ReadWorkspaceLocations( index ).readWorkspace( workspaceConfiguration, log );
+        assertEquals( 3, workspaceConfiguration.getWorkspaceArtefacts().length );
+        index.store( log );
+        return index;
+    }
+
+    public void testStoredProjects()
+    {
+        readWorkspace();
+        assertTrue( indexFile.isFile() );
+
+        WorkspaceIndex index = new WorkspaceIndex( indexFile, workspaceLocation, log );
+        WorkspaceIndex.ProjectEntry entry = index.getProject( new File( metaDataDirectory, "module-A1" ) );
+
+        assertNotNull( entry );
+        IdeDependency artefact = entry.getArtefact();
+        assertEquals( "eclipse", artefact.getGroupId() );
+        assertEquals( "module-A1", artefact.getArtifactId() );
+        assertEquals( "1", artefact.getVersion() );
+        assertEquals( "jar", artefact.getType() );
+        assertEquals( "module-A1", artefact.getEclipseProjectName() );
+        assertTrue( artefact.isReferencedProject() );
+    }
+
+    public void testChangedPomInvalidatesProject()
+    {
+        readWorkspace();
+        File pom = new File( workspaceLocation, "project-A/module-A1/pom.xml" );
+        pom.setLastModified( pom.lastModified() - 10000L );
+
+        WorkspaceIndex index = new WorkspaceIndex( indexFile, workspaceLocation, log );
+
+        assertNull( index.getProject( new File( metaDataDirectory, "module-A1" ) ) );
+        assertNotNull( index.getProject( new File( metaDataDirectory, "project-A" ) ) );
+        assertNotNull( index.getProject( new File( metaDataDirectory, "project-O" ) ) );
+    }
+
+    public void testArtefactsAreSharedInTheSession()
+    {
+        WorkspaceIndex index = readWorkspace();
+        IdeDependency[] artefacts = index.getWorkspaceArtefacts();
+
+        WorkspaceConfiguration workspaceConfiguration = new WorkspaceConfiguration();
+        workspaceConfiguration.setWorkspaceDirectory( workspaceLocation );
+        new ReadWorkspaceLocations( index ).readWorkspace( workspaceConfiguration, log );
+
+        assertSame( artefacts, workspaceConfiguration.getWorkspaceArtefacts() );
+    }
+
+    public void testOtherWorkspaceIsIgnored()
+    {
+        readWorkspace();
+
+        WorkspaceIndex index = new WorkspaceIndex( indexFile, workspaceLocation.getParentFile(), log );
+
+        assertNull( index.getProject( new File( metaDataDirectory, "project-A" ) ) );
+    }
+
+    public void testStoredMaps()
+    {
+        File prefs = new File( workspaceLocation, "prefs" );
+        Map<String, String> servers = new HashMap<String, String>();
+        servers.put( "", "tomcat" );
+        servers.put( "tomcat", "Apache Tomcat" );
+
+        WorkspaceIndex index = new WorkspaceIndex( indexFile, workspaceLocation, log );
+        index.putServers( prefs.lastModified(), servers );
+        index.putJREs( 42L, Collections.singletonMap( "1.8", "JRE_CONTAINER" ) );
+        index.store( log );
+
+        index = new WorkspaceIndex( indexFile, workspaceLocation, log );
+        assertEquals( servers, index.getServers( prefs ) );
+        assertNull( index.getJREs( prefs ) );
+    }
+}
@@ -0,0 +1,132 @@
+package org.apache.maven.plugin.eclipse.writers;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Test class for ChangeDetectingFileOutputStream
+ *
+ * @version $Id$
+ */
+public class ChangeDetectingFileOutputStreamTest
+    extends TestCase
+{
+
+    private TestFileManager fileManager = new TestFileManager( "ChangeDetectingFileOutputStream.unitTest.", "" );
+
+    private File file;
+
+    protected void setUp()
+    {
+        file = new File( fileManager.createTempDir(), ".project" );
+    }
+
+    protected void tearDown()
+        throws IOException
+    {
+        fileManager.cleanUp();
+    }
+
+    private ChangeDetectingFileOutputStream write( String content )
+        throws IOException
+    {
+        ChangeDetectingFileOutputStream out = new ChangeDetectingFileOutputStream( file );
+        out.write( content.getBytes( "UTF-8" ) );
+        out.close();
+        return out;
+    }
+
+    public void testNewFile()
+        throws IOException
+    {
+        assertTrue( write( "<projectDescription/>" ).isWritten() );
+        assertEquals( "<projectDescription/>", FileUtils.fileRead( file, "UTF-8" ) );
+    }
+
+    public void testUnchangedFile()
+        throws IOException
+    {
+        write( "<projectDescription/>" );
+        file.setLastModified( 10000L );
+
+        assertFalse( write( "<projectDescription/>" ).isWritten() );
+        assertEquals( 10000L, file.lastModified() );
+    }
+
+    public void testChangedFile()
+        throws IOException
+    {
+        write( "<projectDescription/>" );
+
+        assertTrue( write( "<projectDescription></projectDescription>" ).isWritten() );
+        assertEquals( "<projectDescription></projectDescription>", FileUtils.fileRead( file, "UTF-8" ) );
+    }
+
+    public void testNotClosed()
+        throws IOException
+    {
+        ChangeDetectingFileOutputStream out = new ChangeDetectingFileOutputStream( file );
+        out.write( 'x' );
+
+        assertFalse( out.isWritten() );
+        assertFalse( file.exists() );
+    }
+
+    public void testRecording()
+        throws IOException
+    {
+        write( "<projectDescription/>" );
+
+        assertTrue( ChangeDetectingFileOutputStream.startRecording() );
+        assertFalse( ChangeDetectingFileOutputStream.startRecording() );
+        ChangeDetectingFileOutputStream unchanged = write( "<projectDescription/>" );
+        ChangeDetectingFileOutputStream changed = write( "<projectDescription></projectDescription>" );
+        List<ChangeDetectingFileOutputStream> recorded = ChangeDetectingFileOutputStream.stopRecording();
+
+        assertEquals( Arrays.asList( new ChangeDetectingFileOutputStream[] { unchanged, changed } ), recorded );
+        assertEquals( file, recorded.get( 0 ).getFile() );
+        assertNull( ChangeDetectingFileOutputStream.getRecorded() );
+        write( "<projectDescription/>" );
+        assertEquals( 2, recorded.size() );
+    }
+
+    public void testMissingDirectory()
+    {
+        try
+        {
+            new ChangeDetectingFileOutputStream( new File( file, "missing/.project" ) );
+            fail( "Expected FileNotFoundException" );
+        }
+        catch ( FileNotFoundException e )
+        {
+            assertTrue( e.getMessage().endsWith( ".project" ) );
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.factory.DefaultArtifactFactory;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.handler.manager.DefaultArtifactHandlerManager;
+import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
+import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.artifact.resolver.ResolutionNode;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.eclipse.EclipsePlugin;
+import org.apache.maven.plugin.eclipse.EclipseResolvedPlugin;
+import org.apache.maven.plugin.testing.stubs.StubArtifactRepository;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the resolution of the dependency jars and their sources and javadoc attachments by
+ * {@link AbstractIdeSupportMojo}, with a resolver recording the threads it is called from.
+ *
+ * @version $Id$
+ */
+public class ArtifactResolutionTest
+{
+
+    private static final String MISSING = "missing";
+
+    private final ConcurrentMap<String, List<Thread>> calls = new ConcurrentHashMap<String, List<Thread>>();
+
+    private TestFileManager fileManager = new TestFileManager( "ArtifactResolution.unitTest.", "" );
+
+    private MavenProject project;
+
+    private ArtifactFactory artifactFactory;
+
+    private EclipsePlugin mojo;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        Model model = new Model();
+        model.setGroupId( "g" );
+        model.setArtifactId( "project" );
+        model.setVersion( "1.0" );
+
+        DefaultArtifactHandlerManager artifactHandlerManager = new DefaultArtifactHandlerManager();
+        ReflectionUtils.setVariableValueInObject( artifactHandlerManager, "artifactHandlers", new HashMap() );
+        artifactFactory = new DefaultArtifactFactory();
+        ReflectionUtils.setVariableValueInObject( artifactFactory, "artifactHandlerManager", artifactHandlerManager );
+        project = new MavenProject( model );
+        initMojo( new EclipsePlugin() );
+    }
+
+    @After
+    public void tearDown()
+        throws IOException
+    {
+        fileManager.cleanUp();
+    }
+
+    @Test
+    public void testArtifactsAreResolvedInParallel()
+        throws Exception
+    {
+        setField( "resolverThreads", Integer.valueOf( 4 ) );
+        List nodes = createNodes( "a", "b", "c", "d", "e", "f" );
+
+        resolveArtifacts( nodes );
+
+        assertEquals( 6, calls.size() );
+        for ( Object o : nodes )
+        {
+            Artifact artifact = ( (ResolutionNode) o ).getArtifact();
+            assertTrue( artifact.isResolved() );
+            assertEquals( new File( artifact.getArtifactId() + ".jar" ), artifact.getFile() );
+            List<Thread> threads = calls.get( artifact.getArtifactId() );
+            assertEquals( 1, threads.size() );
+            assertNotSame( Thread.currentThread(), threads.get( 0 ) );
+        }
+    }
+
+    @Test
+    public void testSingleThreadResolvesInTheCallingThread()
+        throws Exception
+    {
+        setField( "resolverThreads", Integer.valueOf( 1 ) );
+
+        resolveArtifacts( createNodes( "a", "b" ) );
+
+        assertSame( Thread.currentThread(), calls.get( "a" ).get( 0 ) );
+        assertSame( Thread.currentThread(), calls.get( "b" ).get( 0 ) );
+    }
+
+    @Test
+    public void testResultsAreReusedInTheSession()
+        throws Exception
+    {
+        setField( "resolverThreads", Integer.valueOf( 4 ) );
+        resolveArtifacts( createNodes( "a", MISSING, "b" ) );
+        assertEquals( 3, calls.size() );
+
+        // the same artifacts of another module
+        List nodes = createNodes( "a", MISSING, "b" );
+        resolveArtifacts( nodes );
+
+        assertEquals( 1, calls.get( "a" ).size() );
+        assertEquals( 1, calls.get( MISSING ).size() );
+        assertEquals( 1, calls.get( "b" ).size() );
+        Artifact a = ( (ResolutionNode) nodes.get( 0 ) ).getArtifact();
+        assertTrue( a.isResolved() );
+        assertEquals( new File( "a.jar" ), a.getFile() );
+        Artifact missing = ( (ResolutionNode) nodes.get( 1 ) ).getArtifact();
+        assertFalse( missing.isResolved() );
+        assertNull( missing.getFile() );
+    }
+
+    @Test
+    public void testAttachmentsAreResolvedConcurrently()
+        throws Exception
+    {
+        setField( "resolverThreads", Integer.valueOf( 4 ) );
+        mojo.setDownloadSources( true );
+        mojo.setDownloadJavadocs( true );
+        IdeDependency[] deps = createDependencies( "a", "b", "c" );
+
+        resolveSourceAndJavadocArtifacts( deps );
+
+        for ( IdeDependency dependency : deps )
+        {
+            assertEquals( new File( dependency.getArtifactId() + "-sources.jar" ), dependency.getSourceAttachment() );
+            assertNull( dependency.getJavadocAttachment() );
+            assertNotSame( Thread.currentThread(), calls.get( dependency.getArtifactId() + ":sources" ).get( 0 ) );
+            assertNotSame( Thread.currentThread(), calls.get( dependency.getArtifactId() + ":javadoc" ).get( 0 ) );
+        }
+        assertTrue( ( (List) getField( "missingSourceDependencies" ) ).isEmpty() );
+        // reported in the order of the dependencies
+        assertEquals( Arrays.asList( deps ), getField( "missingJavadocDependencies" ) );
+    }
+
+    @Test
+    public void testBaseArtifactIsResolvedOnceForBothAttachments()
+        throws Exception
+    {
+        setField( "resolverThreads", Integer.valueOf( 1 ) );
+        mojo.setDownloadSources( true );
+        mojo.setDownloadJavadocs( true );
+
+        resolveSourceAndJavadocArtifacts( createDependencies( "a" ) );
+
+        assertEquals( 1, calls.get( "a" ).size() );
+        assertEquals( 1, calls.get( "a:sources" ).size() );
+        assertEquals( 1, calls.get( "a:javadoc" ).size() );
+    }
+
+    @Test
+    public void testAttachmentsOfUnresolvedArtifactAreNotLookedUp()
+        throws Exception
+    {
+        setField( "resolverThreads", Integer.valueOf( 1 ) );
+        mojo.setDownloadSources( true );
+        mojo.setDownloadJavadocs( true );
+        resolveArtifacts( createNodes( MISSING ) );
+
+        IdeDependency[] deps = createDependencies( MISSING );
+        resolveSourceAndJavadocArtifacts( deps );
+
+        assertEquals( 1, calls.size() );
+        assertNull( deps[0].getSourceAttachment() );
+    }
+
+    @Test
+    public void testResolvedProjectArtifactsDoNotUseTheSessionGraphs()
+        throws Exception
+    {
+        initMojo( new EclipseResolvedPlugin() );
+        setField( "resolutionEngine", "legacy" );
+        final AtomicInteger cacheHits = new AtomicInteger();
+        setField( "phaseMetrics", new BuildMetrics.Phase()
+        {
+            public void cacheHit()
+            {
+                cacheHits.incrementAndGet();
+            }
+        } );
+        // a graph collected for another module with the same dependencies
+        ResolutionCache cache = new ResolutionCache();
+        String managedVersionsKey = ResolutionCache.managedVersionsKey( project.getDependencyManagement() );
+        String collectionKey =
+            "legacy#" + ResolutionCache.collectionKey( project.getDependencies(), managedVersionsKey,
+                                                       project.getRemoteArtifactRepositories() );
+        cache.putCollectedNodes( collectionKey, createNodes( "a" ) );
+        setField( "resolutionCache", cache );
+
+        IdeDependency[] deps = mojo.doDependencyResolution();
+
+        // the project has no resolved artifacts
+        assertEquals( 0, deps.length );
+        assertEquals( 0, cacheHits.get() );
+        assertTrue( calls.isEmpty() );
+    }
+
+    private ArtifactResolver createResolver()
+    {
+        return (ArtifactResolver) Proxy.newProxyInstance( getClass().getClassLoader(),
+                                                          new Class[] { ArtifactResolver.class },
+                                                          new RecordingResolver() );
+    }
+
+    private static List createNodes( String... artifactIds )
+    {
+        List nodes = new ArrayList();
+        for ( String artifactId : artifactIds )
+        {
+            Artifact artifact =
+                new DefaultArtifact( "g", artifactId, VersionRange.createFromVersion( "1.0" ), "compile", "jar", null,
+                                     new DefaultArtifactHandler( "jar" ) );
+            nodes.add( new ResolutionNode( artifact, Collections.EMPTY_LIST ) );
+        }
+        return nodes;
+    }
+
+    private static IdeDependency[] createDependencies( String... artifactIds )
+    {
+        IdeDependency[] deps = new IdeDependency[artifactIds.length];
+        for ( int i = 0; i < artifactIds.length; i++ )
+        {
+            deps[i] =
+                new IdeDependency( "g", artifactIds[i], "1.0", null, false, false, false, false, true,
+                                   new File( artifactIds[i] + ".jar" ), "jar", false, null, 1, artifactIds[i] );
+        }
+        return deps;
+    }
+
+    private void resolveArtifacts( List nodes )
+        throws Exception
+    {
+        invoke( "resolveArtifacts", List.class, nodes );
+    }
+
+    private void resolveSourceAndJavadocArtifacts( IdeDependency[] deps )
+        throws Exception
+    {
+        invoke( "resolveSourceAndJavadocArtifacts", IdeDependency[].class, deps );
+    }
+
+    private void initMojo( EclipsePlugin plugin )
+        throws Exception
+    {
+        mojo = plugin;
+        setField( "project", project );
+        setField( "artifactResolver", createResolver() );
+        setField( "artifactFactory", artifactFactory );
+        setField( "localRepository", new StubArtifactRepository( fileManager.createTempDir().getPath() ) );
+        setField( "remoteArtifactRepositories", Collections.EMPTY_LIST );
+        setField( "phaseMetrics", new BuildMetrics.Phase() );
+    }
+
+    private void invoke( String name, Class parameterType, Object argument )
+        throws Exception
+    {
+        Method method = AbstractIdeSupportMojo.class.getDeclaredMethod( name, parameterType );
+        method.setAccessible( true );
+        try
+        {
+            method.invoke( mojo, argument );
+        }
+        catch ( InvocationTargetException e )
+        {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private void setField( String name, Object value )
+        throws Exception
+    {
+        Field field = AbstractIdeSupportMojo.class.getDeclaredField( name );
+        field.setAccessible( true );
+        field.set( mojo, value );
+    }
+
+    private Object getField( String name )
+        throws Exception
+    {
+        Field field = AbstractIdeSupportMojo.class.getDeclaredField( name );
+        field.setAccessible( true );
+        return field.get( mojo );
+    }
+
+    /**
+     * Resolves the artifacts to a file named after their artifactId and classifier and records the threads it is called
+     * from. The javadoc attachments are never found.
+     */
+    private class RecordingResolver
+        implements InvocationHandler
+    {
+        public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable
+        {
+            if ( !"resolve".equals( method.getName() ) || args.length != 3 )
+            {
+                throw new UnsupportedOperationException( method.getName() );
+            }
+            Artifact artifact = (Artifact) args[0];
+            String key = artifact.getArtifactId() + ( artifact.hasClassifier() ? ":" + artifact.getClassifier() : "" );
+            calls.putIfAbsent( key, Collections.synchronizedList( new ArrayList<Thread>() ) );
+            calls.get( key ).add( Thread.currentThread() );
+            if ( MISSING.equals( artifact.getArtifactId() ) || "javadoc".equals( artifact.getClassifier() ) )
+            {
+                throw new ArtifactNotFoundException( "not found", artifact );
+            }
+            artifact.setFile( new File( key.replace( ':', '-' ) + ".jar" ) );
+            artifact.setResolved( true );
+            return null;
+        }
+    }
+}
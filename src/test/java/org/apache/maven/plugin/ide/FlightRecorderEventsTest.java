@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.apache.maven.plugin.eclipse.writers.EclipseClasspathWriter;
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test for the events recorded by {@link FlightRecorderEvents}
+ *
+ * @version $Id$
+ */
+public class FlightRecorderEventsTest
+{
+
+    private static final String PREFIX = "org.apache.maven.plugin.eclipse.";
+
+    private TestFileManager fileManager = new TestFileManager( "FlightRecorderEvents.unitTest.", "" );
+
+    @After
+    public void tearDown()
+        throws IOException
+    {
+        fileManager.cleanUp();
+    }
+
+    @Test
+    public void testEventsAreRecorded()
+        throws IOException
+    {
+        File recordingFile = new File( fileManager.createTempDir(), "events.jfr" );
+        File classpathFile = new File( "p", ".classpath" );
+        File projectFile = new File( "p", ".project" );
+        Recording recording = new Recording();
+        try
+        {
+            recording.enable( PREFIX + "DependencyCollection" ).withThreshold( Duration.ZERO );
+            recording.enable( PREFIX + "ArtifactResolution" ).withThreshold( Duration.ZERO );
+            recording.enable( PREFIX + "ClassifierLookup" ).withThreshold( Duration.ZERO );
+            recording.enable( PREFIX + "Writer" ).withThreshold( Duration.ZERO );
+            recording.start();
+
+            FlightRecorderEvents.end( FlightRecorderEvents.beginDependencyCollection( "g:p:1.0", "legacy" ) );
+            FlightRecorderEvents.endResolution( FlightRecorderEvents.beginArtifactResolution( "g:p:1.0",
+                                                                                              "g:a:jar:1.0" ),
+                                                true );
+            FlightRecorderEvents.endResolution( FlightRecorderEvents.beginClassifierLookup( "g:p:1.0",
+                                                                                            "g:a:jar:1.0",
+                                                                                            "sources" ),
+                                                false );
+            FlightRecorderEvents.endWriter( FlightRecorderEvents.beginWriter( "g:p:1.0",
+                                                                              EclipseClasspathWriter.class ),
+                                            Arrays.asList( new File[] { classpathFile, projectFile } ) );
+
+            recording.stop();
+            recording.dump( recordingFile.toPath() );
+        }
+        finally
+        {
+            recording.close();
+        }
+
+        Map<String, RecordedEvent> events = new HashMap<String, RecordedEvent>();
+        List<RecordedEvent> recordedEvents = RecordingFile.readAllEvents( recordingFile.toPath() );
+        for ( RecordedEvent event : recordedEvents )
+        {
+            events.put( event.getEventType().getName(), event );
+        }
+
+        RecordedEvent collection = events.get( PREFIX + "DependencyCollection" );
+        assertNotNull( collection );
+        assertEquals( "g:p:1.0", collection.getString( "project" ) );
+        assertEquals( "legacy", collection.getString( "engine" ) );
+
+        RecordedEvent resolution = events.get( PREFIX + "ArtifactResolution" );
+        assertNotNull( resolution );
+        assertEquals( "g:a:jar:1.0", resolution.getString( "artifact" ) );
+        assertTrue( resolution.getBoolean( "resolved" ) );
+
+        RecordedEvent lookup = events.get( PREFIX + "ClassifierLookup" );
+        assertNotNull( lookup );
+        assertEquals( "sources", lookup.getString( "classifier" ) );
+        assertFalse( lookup.getBoolean( "resolved" ) );
+
+        RecordedEvent writer = events.get( PREFIX + "Writer" );
+        assertNotNull( writer );
+        assertEquals( EclipseClasspathWriter.class.getName(), writer.getString( "writer" ) );
+        assertEquals( classpathFile.getPath() + File.pathSeparator + projectFile.getPath(),
+                      writer.getString( "files" ) );
+    }
+
+    @Test
+    public void testEndAcceptsMissingEvent()
+    {
+        FlightRecorderEvents.end( null );
+        FlightRecorderEvents.endResolution( null, true );
+        FlightRecorderEvents.endWriter( null, Collections.<File> emptyList() );
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.PropertyUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link ManifestIndex}
+ *
+ * @version $Id$
+ */
+public class ManifestIndexTest
+{
+
+    private TestFileManager fileManager = new TestFileManager( "ManifestIndex.unitTest.", "" );
+
+    private Log log = new SystemStreamLog();
+
+    private File directory;
+
+    private File indexFile;
+
+    private CountingPhase metrics = new CountingPhase();
+
+    @Before
+    public void setUp()
+    {
+        directory = fileManager.createTempDir();
+        indexFile = new File( directory, "manifest-index.properties" );
+    }
+
+    @After
+    public void tearDown()
+        throws IOException
+    {
+        fileManager.cleanUp();
+    }
+
+    @Test
+    public void testStoredEntriesAreReadAgain()
+        throws IOException
+    {
+        File bundle = createJar( "bundle.jar", "org.example.bundle" );
+        File plain = createJar( "plain.jar", null );
+
+        ManifestIndex index = new ManifestIndex( indexFile, log );
+        assertEquals( "org.example.bundle", index.getBundleSymbolicName( bundle, metrics, log ) );
+        assertNull( index.getBundleSymbolicName( plain, metrics, log ) );
+        assertEquals( 2, metrics.filesRead );
+        index.store( log );
+        assertTrue( indexFile.isFile() );
+
+        index = new ManifestIndex( indexFile, log );
+        assertEquals( "org.example.bundle", index.getBundleSymbolicName( bundle, metrics, log ) );
+        assertNull( index.getBundleSymbolicName( plain, metrics, log ) );
+        assertEquals( 2, metrics.filesRead );
+        assertEquals( 2, metrics.cacheHits );
+    }
+
+    @Test
+    public void testChangedSizeInvalidatesEntry()
+        throws IOException
+    {
+        File jar = createJar( "bundle.jar", "org.example.bundle" );
+        ManifestIndex index = new ManifestIndex( indexFile, log );
+        index.getBundleSymbolicName( jar, metrics, log );
+        index.store( log );
+
+        long lastModified = jar.lastModified();
+        createJar( "bundle.jar", "org.example.bundle.renamed" );
+        jar.setLastModified( lastModified );
+
+        index = new ManifestIndex( indexFile, log );
+        assertEquals( "org.example.bundle.renamed", index.getBundleSymbolicName( jar, metrics, log ) );
+        assertEquals( 2, metrics.filesRead );
+        assertEquals( 0, metrics.cacheHits );
+    }
+
+    @Test
+    public void testChangedModificationTimeInvalidatesEntry()
+        throws IOException
+    {
+        File jar = createJar( "bundle.jar", "org.example.one" );
+        ManifestIndex index = new ManifestIndex( indexFile, log );
+        index.getBundleSymbolicName( jar, metrics, log );
+        index.store( log );
+
+        // same size, only the modification time tells the jars apart
+        long length = jar.length();
+        long lastModified = jar.lastModified();
+        createJar( "bundle.jar", "org.example.two" );
+        assertEquals( length, jar.length() );
+        jar.setLastModified( lastModified );
+
+        index = new ManifestIndex( indexFile, log );
+        assertEquals( "org.example.one", index.getBundleSymbolicName( jar, metrics, log ) );
+        assertEquals( 1, metrics.cacheHits );
+
+        jar.setLastModified( lastModified + 10000L );
+        assertEquals( "org.example.two", index.getBundleSymbolicName( jar, metrics, log ) );
+        assertEquals( 2, metrics.filesRead );
+    }
+
+    @Test
+    public void testDeletedJarsAreDropped()
+        throws IOException
+    {
+        File kept = createJar( "kept.jar", "org.example.kept" );
+        File deleted = createJar( "deleted.jar", "org.example.deleted" );
+        ManifestIndex index = new ManifestIndex( indexFile, log );
+        index.getBundleSymbolicName( kept, metrics, log );
+        index.getBundleSymbolicName( deleted, metrics, log );
+        assertTrue( deleted.delete() );
+        index.store( log );
+
+        Properties props = PropertyUtils.loadProperties( indexFile );
+        assertTrue( props.containsKey( kept.getAbsolutePath() ) );
+        assertFalse( props.containsKey( deleted.getAbsolutePath() ) );
+    }
+
+    @Test
+    public void testUnreadableJarIsNotIndexed()
+        throws IOException
+    {
+        File jar = fileManager.createFile( directory, "broken.jar", "not a jar" );
+
+        ManifestIndex index = new ManifestIndex( indexFile, log );
+        assertNull( index.getBundleSymbolicName( jar, metrics, log ) );
+        assertNull( index.getBundleSymbolicName( jar, metrics, log ) );
+        assertEquals( 2, metrics.filesRead );
+        assertEquals( 0, metrics.cacheHits );
+        index.store( log );
+        assertFalse( indexFile.exists() );
+    }
+
+    private File createJar( String name, String symbolicName )
+        throws IOException
+    {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put( Attributes.Name.MANIFEST_VERSION, "1.0" );
+        if ( symbolicName != null )
+        {
+            manifest.getMainAttributes().put( new Attributes.Name( "Bundle-SymbolicName" ), symbolicName );
+        }
+        File jar = new File( directory, name );
+        JarOutputStream os = new JarOutputStream( new FileOutputStream( jar ), manifest );
+        IOUtil.close( os );
+        return jar;
+    }
+
+    /**
+     * Counts the jars read and the index hits.
+     */
+    private static class CountingPhase
+        extends BuildMetrics.Phase
+    {
+        private int cacheHits;
+
+        private int filesRead;
+
+        public void cacheHit()
+        {
+            cacheHits++;
+        }
+
+        public void fileRead()
+        {
+            filesRead++;
+        }
+    }
+}
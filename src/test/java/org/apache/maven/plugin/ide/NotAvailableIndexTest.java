@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link NotAvailableIndex}
+ *
+ * @version $Id$
+ */
+public class NotAvailableIndexTest
+{
+
+    private TestFileManager fileManager = new TestFileManager( "NotAvailableIndex.unitTest.", "" );
+
+    private Log log = new SystemStreamLog();
+
+    private File indexFile;
+
+    @Before
+    public void setUp()
+    {
+        indexFile = NotAvailableIndex.getIndexFile( fileManager.createTempDir().getPath() );
+    }
+
+    @After
+    public void tearDown()
+        throws IOException
+    {
+        fileManager.cleanUp();
+    }
+
+    @Test
+    public void testStoredEntriesAreReadAgain()
+    {
+        Artifact sources = createArtifact( "a", "sources" );
+        Artifact javadoc = createArtifact( "a", "javadoc" );
+
+        NotAvailableIndex index = new NotAvailableIndex( indexFile, log );
+        index.markNotAvailable( sources );
+        assertTrue( index.isNotAvailable( sources, 0 ) );
+        index.store( log );
+        assertTrue( indexFile.isFile() );
+
+        index = new NotAvailableIndex( indexFile, log );
+        assertTrue( index.isNotAvailable( sources, 0 ) );
+        assertFalse( index.isNotAvailable( javadoc, 0 ) );
+    }
+
+    @Test
+    public void testRemovedEntriesAreNotStored()
+    {
+        Artifact sources = createArtifact( "a", "sources" );
+
+        NotAvailableIndex index = new NotAvailableIndex( indexFile, log );
+        index.markNotAvailable( sources );
+        index.store( log );
+        index.remove( sources );
+        assertFalse( index.isNotAvailable( sources, 0 ) );
+        index.store( log );
+
+        assertFalse( new NotAvailableIndex( indexFile, log ).isNotAvailable( sources, 0 ) );
+    }
+
+    @Test
+    public void testEntriesOfOtherBuildsAreKept()
+    {
+        Artifact first = createArtifact( "a", "sources" );
+        Artifact second = createArtifact( "b", "sources" );
+
+        NotAvailableIndex index = new NotAvailableIndex( indexFile, log );
+        NotAvailableIndex otherIndex = new NotAvailableIndex( indexFile, log );
+        index.markNotAvailable( first );
+        index.store( log );
+        otherIndex.markNotAvailable( second );
+        otherIndex.store( log );
+
+        index = new NotAvailableIndex( indexFile, log );
+        assertTrue( index.isNotAvailable( first, 0 ) );
+        assertTrue( index.isNotAvailable( second, 0 ) );
+    }
+
+    @Test
+    public void testEntriesExpire()
+        throws InterruptedException
+    {
+        Artifact sources = createArtifact( "a", "sources" );
+
+        NotAvailableIndex index = new NotAvailableIndex( indexFile, log );
+        index.markNotAvailable( sources );
+        index.store( log );
+        Thread.sleep( 10 );
+
+        index = new NotAvailableIndex( indexFile, log );
+        assertTrue( index.isNotAvailable( sources, 0 ) );
+        assertTrue( index.isNotAvailable( sources, 60 * 1000 ) );
+        assertFalse( index.isNotAvailable( sources, 5 ) );
+    }
+
+    @Test
+    public void testRemoveMarkedBefore()
+    {
+        Artifact stored = createArtifact( "a", "sources" );
+        Artifact changed = createArtifact( "b", "sources" );
+
+        NotAvailableIndex index = new NotAvailableIndex( indexFile, log );
+        index.markNotAvailable( stored );
+        index.store( log );
+        index.markNotAvailable( changed );
+
+        assertEquals( 2, index.removeMarkedBefore( System.currentTimeMillis() + 1 ) );
+        index.store( log );
+
+        index = new NotAvailableIndex( indexFile, log );
+        assertFalse( index.isNotAvailable( stored, 0 ) );
+        assertFalse( index.isNotAvailable( changed, 0 ) );
+    }
+
+    @Test
+    public void testInvalidIndexIsIgnored()
+        throws IOException
+    {
+        indexFile.getParentFile().mkdirs();
+        fileManager.createFile( indexFile.getParentFile(), indexFile.getName(), "not an index" );
+
+        NotAvailableIndex index = new NotAvailableIndex( indexFile, log );
+        assertFalse( index.isNotAvailable( createArtifact( "a", "sources" ), 0 ) );
+    }
+
+    private static Artifact createArtifact( String artifactId, String classifier )
+    {
+        return new DefaultArtifact( "g", artifactId, VersionRange.createFromVersion( "1.0" ), "compile", "jar",
+                                    classifier, new DefaultArtifactHandler( "jar" ) );
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.factory.DefaultArtifactFactory;
+import org.apache.maven.artifact.handler.manager.DefaultArtifactHandlerManager;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link ResolutionCacheFile}
+ *
+ * @version $Id$
+ */
+public class ResolutionCacheFileTest
+{
+
+    private TestFileManager fileManager = new TestFileManager( "ResolutionCacheFile.unitTest.", "" );
+
+    private Log log = new SystemStreamLog();
+
+    private ArtifactFactory artifactFactory;
+
+    private File buildDirectory;
+
+    private File jar;
+
+    private File testJar;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        DefaultArtifactHandlerManager artifactHandlerManager = new DefaultArtifactHandlerManager();
+        ReflectionUtils.setVariableValueInObject( artifactHandlerManager, "artifactHandlers", new HashMap() );
+        artifactFactory = new DefaultArtifactFactory();
+        ReflectionUtils.setVariableValueInObject( artifactFactory, "artifactHandlerManager", artifactHandlerManager );
+
+        buildDirectory = new File( fileManager.createTempDir(), "target" );
+        File repository = fileManager.createTempDir();
+        jar = fileManager.createFile( repository, "a-1.0.jar", "jar" );
+        testJar = fileManager.createFile( repository, "a-1.0-tests.jar", "jar" );
+    }
+
+    @After
+    public void tearDown()
+        throws IOException
+    {
+        fileManager.cleanUp();
+    }
+
+    @Test
+    public void testStoredArtifactsAreReadAgain()
+    {
+        new ResolutionCacheFile( buildDirectory, log ).store( "key", createArtifacts() );
+
+        List<Artifact> artifacts = new ResolutionCacheFile( buildDirectory, log ).load( "key", artifactFactory );
+
+        assertEquals( 3, artifacts.size() );
+        Artifact artifact = artifacts.get( 0 );
+        assertEquals( "g:a:jar:1.0", artifact.getId() );
+        assertEquals( "compile", artifact.getScope() );
+        assertEquals( jar.getAbsoluteFile(), artifact.getFile() );
+        assertTrue( artifact.isResolved() );
+
+        artifact = artifacts.get( 1 );
+        assertEquals( "g:a:test-jar:tests:1.0", artifact.getId() );
+        assertEquals( "tests", artifact.getClassifier() );
+        assertEquals( "test", artifact.getScope() );
+        assertEquals( testJar.getAbsoluteFile(), artifact.getFile() );
+
+        // a reactor project, which is not resolved
+        artifact = artifacts.get( 2 );
+        assertEquals( "g:module:jar:1.0-SNAPSHOT", artifact.getId() );
+        assertNull( artifact.getFile() );
+        assertFalse( artifact.isResolved() );
+    }
+
+    @Test
+    public void testOtherKeyIsIgnored()
+    {
+        new ResolutionCacheFile( buildDirectory, log ).store( "key", createArtifacts() );
+
+        assertNull( new ResolutionCacheFile( buildDirectory, log ).load( "other", artifactFactory ) );
+    }
+
+    @Test
+    public void testRemovedArtifactFileIsIgnored()
+    {
+        new ResolutionCacheFile( buildDirectory, log ).store( "key", createArtifacts() );
+        assertTrue( testJar.delete() );
+
+        assertNull( new ResolutionCacheFile( buildDirectory, log ).load( "key", artifactFactory ) );
+    }
+
+    @Test
+    public void testInvalidFileIsIgnored()
+        throws IOException
+    {
+        buildDirectory.mkdirs();
+        fileManager.createFile( buildDirectory, ResolutionCacheFile.FILE_NAME, "key=key\ncount=2\n" );
+
+        assertNull( new ResolutionCacheFile( buildDirectory, log ).load( "key", artifactFactory ) );
+    }
+
+    @Test
+    public void testDelete()
+    {
+        ResolutionCacheFile cacheFile = new ResolutionCacheFile( buildDirectory, log );
+        assertNull( cacheFile.load( "key", artifactFactory ) );
+        cacheFile.store( "key", createArtifacts() );
+        assertTrue( new File( buildDirectory, ResolutionCacheFile.FILE_NAME ).isFile() );
+
+        cacheFile.delete();
+
+        assertFalse( new File( buildDirectory, ResolutionCacheFile.FILE_NAME ).exists() );
+        assertNull( cacheFile.load( "key", artifactFactory ) );
+    }
+
+    private List<Artifact> createArtifacts()
+    {
+        Artifact artifact = artifactFactory.createArtifactWithClassifier( "g", "a", "1.0", "jar", null );
+        artifact.setScope( "compile" );
+        artifact.setFile( jar );
+        Artifact testArtifact = artifactFactory.createArtifactWithClassifier( "g", "a", "1.0", "test-jar", "tests" );
+        testArtifact.setScope( "test" );
+        testArtifact.setFile( testJar );
+        Artifact module = artifactFactory.createArtifactWithClassifier( "g", "module", "1.0-SNAPSHOT", "jar", null );
+        return Arrays.asList( new Artifact[] { artifact, testArtifact, module } );
+    }
+}
@@ -0,0 +1,536 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.resolver.ResolutionNode;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.plugin.testing.stubs.StubArtifactRepository;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.tools.easymock.TestFileManager;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the session state kept in {@link ResolutionCache}
+ *
+ * @version $Id$
+ */
+public class ResolutionCacheTest
+{
+
+    private TestFileManager fileManager = new TestFileManager( "ResolutionCache.unitTest.", "" );
+
+    private Log log = new SystemStreamLog();
+
+    private File metricsReport;
+
+    @Before
+    public void setUp()
+    {
+        metricsReport = new File( fileManager.createTempDir(), "metrics.json" );
+    }
+
+    @After
+    public void tearDown()
+        throws IOException
+    {
+        fileManager.cleanUp();
+    }
+
+    @Test
+    public void testSequentialBuildCompletesOnLastProject()
+    {
+        ResolutionCache cache = new ResolutionCache();
+
+        cache.startProject();
+        assertFalse( cache.completeProject( 3, false ) );
+        cache.startProject();
+        assertFalse( cache.completeProject( 3, false ) );
+        cache.startProject();
+        assertTrue( cache.completeProject( 3, true ) );
+    }
+
+    @Test
+    public void testParallelBuildCompletesOnLastProjectToFinish()
+    {
+        ResolutionCache cache = new ResolutionCache();
+
+        cache.startProject();
+        cache.startProject();
+        cache.startProject();
+        // the last project of the reactor finishes first
+        assertFalse( cache.completeProject( 3, true ) );
+        assertFalse( cache.completeProject( 3, false ) );
+        assertTrue( cache.completeProject( 3, false ) );
+    }
+
+    @Test
+    public void testSubsetOfReactorCompletesOnLastProject()
+    {
+        ResolutionCache cache = new ResolutionCache();
+
+        // only some projects of the reactor run the goal
+        cache.startProject();
+        assertFalse( cache.completeProject( 5, false ) );
+        cache.startProject();
+        assertTrue( cache.completeProject( 5, true ) );
+    }
+
+    @Test
+    public void testConcurrentProjectsCompleteOnce()
+        throws InterruptedException
+    {
+        final int projects = 32;
+        final ResolutionCache cache = new ResolutionCache();
+        final CountDownLatch started = new CountDownLatch( projects );
+        final AtomicInteger completions = new AtomicInteger();
+
+        Thread[] threads = new Thread[projects];
+        for ( int i = 0; i < projects; i++ )
+        {
+            final boolean last = i == projects - 1;
+            threads[i] = new Thread()
+            {
+                public void run()
+                {
+                    cache.startProject();
+                    started.countDown();
+                    try
+                    {
+                        started.await();
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    if ( cache.completeProject( projects, last ) )
+                    {
+                        completions.incrementAndGet();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for ( int i = 0; i < projects; i++ )
+        {
+            threads[i].join();
+        }
+
+        assertEquals( 1, completions.get() );
+    }
+
+    @Test
+    public void testFailedProjectCompletesTheSession()
+        throws Exception
+    {
+        ResolutionCache cache = new ResolutionCache();
+        MavenProject first = createProject( "a" );
+        MavenProject last = createProject( "b" );
+        List reactorProjects = Arrays.asList( new MavenProject[] { first, last } );
+
+        try
+        {
+            createMojo( cache, first, reactorProjects, true, false ).execute();
+            fail( "setup should fail" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "setup failed", e.getMessage() );
+        }
+        assertFalse( metricsReport.exists() );
+
+        createMojo( cache, last, reactorProjects, false, false ).execute();
+
+        assertTrue( metricsReport.isFile() );
+    }
+
+    @Test
+    public void testSkippedProjectCompletesTheSession()
+        throws Exception
+    {
+        ResolutionCache cache = new ResolutionCache();
+        MavenProject first = createProject( "a" );
+        MavenProject last = createProject( "b" );
+        List reactorProjects = Arrays.asList( new MavenProject[] { first, last } );
+
+        createMojo( cache, first, reactorProjects, false, false ).execute();
+        assertFalse( metricsReport.exists() );
+        createMojo( cache, last, reactorProjects, false, true ).execute();
+
+        assertTrue( metricsReport.isFile() );
+    }
+
+    @Test
+    public void testBackgroundTasksAreTakenOnce()
+        throws Exception
+    {
+        final List<String> threadNames = Collections.synchronizedList( new ArrayList<String>() );
+        Callable<String> task = new Callable<String>()
+        {
+            public String call()
+            {
+                threadNames.add( Thread.currentThread().getName() );
+                return "report";
+            }
+        };
+        ResolutionCache cache = new ResolutionCache();
+        cache.submitBackgroundTask( task, 2, log );
+        cache.submitBackgroundTask( task, 2, log );
+
+        List<Future<String>> tasks = cache.takeBackgroundTasks();
+        assertEquals( 2, tasks.size() );
+        for ( Future<String> future : tasks )
+        {
+            assertEquals( "report", future.get() );
+        }
+        assertEquals( Arrays.asList( new String[] { "eclipse-attachments", "eclipse-attachments" } ), threadNames );
+        assertTrue( cache.takeBackgroundTasks().isEmpty() );
+
+        // the executor is created again for the next tasks
+        cache.submitBackgroundTask( task, 1, log );
+        tasks = cache.takeBackgroundTasks();
+        assertEquals( 1, tasks.size() );
+        tasks.get( 0 ).get();
+        assertEquals( 3, threadNames.size() );
+    }
+
+    @Test
+    public void testPendingBackgroundTasksAreReported()
+        throws Exception
+    {
+        final CountDownLatch release = new CountDownLatch( 1 );
+        Callable<String> blocked = new Callable<String>()
+        {
+            public String call()
+                throws InterruptedException
+            {
+                release.await();
+                return "";
+            }
+        };
+        ResolutionCache cache = new ResolutionCache();
+        cache.submitBackgroundTask( blocked, 1, log );
+        cache.submitBackgroundTask( blocked, 1, log );
+        try
+        {
+            assertEquals( 2, cache.reportPendingBackgroundTasks( log ) );
+        }
+        finally
+        {
+            release.countDown();
+        }
+
+        for ( Future<String> future : cache.takeBackgroundTasks() )
+        {
+            future.get();
+        }
+        assertEquals( 0, cache.reportPendingBackgroundTasks( log ) );
+    }
+
+    @Test
+    public void testWarContextRootIndex()
+        throws Exception
+    {
+        List reactorProjects =
+            Arrays.asList( new MavenProject[] {
+                createProject( "ear", "<configuration><modules>"
+                    + "<webModule><groupId>g</groupId><artifactId>web1</artifactId><contextRoot>/one</contextRoot>"
+                    + "</webModule><webModule><groupId>g</groupId><artifactId>web2</artifactId></webModule>"
+                    + "</modules></configuration>" ),
+                createProject( "war", "<configuration><modules><webModule><groupId>g</groupId>"
+                    + "<artifactId>web2</artifactId><contextRoot>/ignored</contextRoot></webModule>"
+                    + "</modules></configuration>" ),
+                createProject( "ear", "<configuration><modules><webModule><groupId>g</groupId>"
+                    + "<artifactId>web1</artifactId><contextRoot>/last</contextRoot></webModule>"
+                    + "</modules></configuration>" ) } );
+        ResolutionCache cache = new ResolutionCache();
+
+        Map<String, String> index = cache.getWarContextRootIndex( reactorProjects, log );
+
+        assertEquals( 1, index.size() );
+        assertEquals( "/last", index.get( ResolutionCache.reactorProjectKey( "g", "web1" ) ) );
+        assertNull( index.get( ResolutionCache.reactorProjectKey( "g", "web2" ) ) );
+        assertSame( index, cache.getWarContextRootIndex( reactorProjects, log ) );
+    }
+
+    @Test
+    public void testReactorProjectIndex()
+    {
+        MavenProject a1 = createReactorProject( "a", "1.0" );
+        MavenProject b = createReactorProject( "b", "1.0" );
+        MavenProject a2 = createReactorProject( "a", "2.0" );
+        List reactorProjects = Arrays.asList( new MavenProject[] { a1, b, a2 } );
+        ResolutionCache cache = new ResolutionCache();
+
+        Map<String, List<MavenProject>> index = cache.getReactorProjectIndex( reactorProjects );
+
+        assertEquals( 2, index.size() );
+        assertEquals( Arrays.asList( new MavenProject[] { a1, a2 } ),
+                      index.get( ResolutionCache.reactorProjectKey( "g", "a" ) ) );
+        assertEquals( Collections.singletonList( b ), index.get( ResolutionCache.reactorProjectKey( "g", "b" ) ) );
+        assertNull( index.get( ResolutionCache.reactorProjectKey( "g", "c" ) ) );
+        assertSame( index, cache.getReactorProjectIndex( reactorProjects ) );
+    }
+
+    @Test
+    public void testReactorProjectIndexIsRebuiltForOtherReactor()
+    {
+        ResolutionCache cache = new ResolutionCache();
+        cache.getReactorProjectIndex( Collections.singletonList( createReactorProject( "a", "1.0" ) ) );
+
+        Map<String, List<MavenProject>> index =
+            cache.getReactorProjectIndex( Collections.singletonList( createReactorProject( "b", "1.0" ) ) );
+
+        assertEquals( 1, index.size() );
+        assertNull( index.get( ResolutionCache.reactorProjectKey( "g", "a" ) ) );
+    }
+
+    @Test
+    public void testProjectsWithSameDependenciesShareTheCollectionKey()
+    {
+        assertEquals( collectionKey( createProject( "a", createDependency( "x", "1.0", "compile" ) ) ),
+                      collectionKey( createProject( "b", createDependency( "x", "1.0", "compile" ) ) ) );
+    }
+
+    @Test
+    public void testCollectionKeysOfDifferentDependenciesDoNotCollide()
+    {
+        Dependency excluded = createDependency( "x", "1.0", "compile" );
+        Exclusion exclusion = new Exclusion();
+        exclusion.setGroupId( "g" );
+        exclusion.setArtifactId( "y" );
+        excluded.addExclusion( exclusion );
+        Dependency optional = createDependency( "x", "1.0", "compile" );
+        optional.setOptional( true );
+        Dependency classified = createDependency( "x", "1.0", "compile" );
+        classified.setClassifier( "tests" );
+
+        String[] keys =
+            new String[] { collectionKey( createProject( "a", createDependency( "x", "1.0", "compile" ) ) ),
+                collectionKey( createProject( "a", createDependency( "x", "1.1", "compile" ) ) ),
+                collectionKey( createProject( "a", createDependency( "x", "1.0", "test" ) ) ),
+                collectionKey( createProject( "a", createDependency( "x1", "1.0", "compile" ) ) ),
+                collectionKey( createProject( "a", excluded ) ), collectionKey( createProject( "a", optional ) ),
+                collectionKey( createProject( "a", classified ) ),
+                collectionKey( createProject( "a", createDependency( "x", "1.0", "compile" ),
+                                              createDependency( "y", "1.0", "compile" ) ) ),
+                collectionKey( createProject( "a", createDependency( "y", "1.0", "compile" ),
+                                              createDependency( "x", "1.0", "compile" ) ) ) };
+
+        assertEquals( keys.length, new HashSet<String>( Arrays.asList( keys ) ).size() );
+    }
+
+    @Test
+    public void testCollectionKeysOfDifferentManagementAndRepositoriesDoNotCollide()
+    {
+        MavenProject project = createProject( "a", createDependency( "x", "1.0", "compile" ) );
+        DependencyManagement dependencyManagement = new DependencyManagement();
+        dependencyManagement.addDependency( createDependency( "y", "2.0", "compile" ) );
+        List<Dependency> dependencies = project.getDependencies();
+        List repositories = Collections.singletonList( new StubArtifactRepository( "repo" ) );
+
+        String[] keys =
+            new String[] { ResolutionCache.collectionKey( dependencies, ResolutionCache.managedVersionsKey( null ),
+                                                          null ),
+                ResolutionCache.collectionKey( dependencies,
+                                               ResolutionCache.managedVersionsKey( dependencyManagement ), null ),
+                ResolutionCache.collectionKey( dependencies, ResolutionCache.managedVersionsKey( null ),
+                                               repositories ) };
+
+        assertEquals( keys.length, new HashSet<String>( Arrays.asList( keys ) ).size() );
+    }
+
+    @Test
+    public void testCollectedNodesAreSharedWithSiblings()
+    {
+        MavenProject first = createProject( "a", createDependency( "x", "1.0", "compile" ) );
+        MavenProject second = createProject( "b", createDependency( "x", "1.0", "compile" ) );
+        List nodes = Collections.singletonList( createNode( "x" ) );
+        ResolutionCache cache = new ResolutionCache();
+
+        cache.putCollectedNodes( collectionKey( first ), nodes );
+
+        assertSame( nodes, cache.getCollectedNodes( collectionKey( second ), second ) );
+    }
+
+    @Test
+    public void testCollectedNodesContainingTheProjectAreNotShared()
+    {
+        // b depends on x which depends on a, the graph of a can't contain a itself
+        MavenProject first = createProject( "a", createDependency( "x", "1.0", "compile" ) );
+        MavenProject second = createProject( "b", createDependency( "x", "1.0", "compile" ) );
+        List nodes = Arrays.asList( new ResolutionNode[] { createNode( "x" ), createNode( "a" ) } );
+        ResolutionCache cache = new ResolutionCache();
+
+        cache.putCollectedNodes( collectionKey( second ), nodes );
+
+        assertNull( cache.getCollectedNodes( collectionKey( first ), first ) );
+        assertSame( nodes, cache.getCollectedNodes( collectionKey( second ), second ) );
+    }
+
+    private AbstractIdeSupportMojo createMojo( ResolutionCache cache, MavenProject project, List reactorProjects,
+                                               boolean fail, boolean skip )
+        throws IllegalAccessException
+    {
+        AbstractIdeSupportMojo mojo = new StubIdeSupportMojo( fail );
+        mojo.setProject( project );
+        mojo.setReactorProjects( reactorProjects );
+        mojo.metricsReport = metricsReport;
+        ReflectionUtils.setVariableValueInObject( mojo, "resolutionCache", cache );
+        ReflectionUtils.setVariableValueInObject( mojo, "skip", Boolean.valueOf( skip ) );
+        return mojo;
+    }
+
+    private static String collectionKey( MavenProject project )
+    {
+        return ResolutionCache.collectionKey( project.getDependencies(),
+                                              ResolutionCache.managedVersionsKey( project.getDependencyManagement() ),
+                                              project.getRemoteArtifactRepositories() );
+    }
+
+    private static MavenProject createReactorProject( String artifactId, String version )
+    {
+        MavenProject project = createProject( artifactId, new Dependency[0] );
+        project.setVersion( version );
+        return project;
+    }
+
+    private static MavenProject createProject( String artifactId, Dependency... dependencies )
+    {
+        Model model = new Model();
+        model.setGroupId( "g" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        model.setDependencies( Arrays.asList( dependencies ) );
+        return new MavenProject( model );
+    }
+
+    private static Dependency createDependency( String artifactId, String version, String scope )
+    {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "g" );
+        dependency.setArtifactId( artifactId );
+        dependency.setVersion( version );
+        dependency.setScope( scope );
+        return dependency;
+    }
+
+    private static ResolutionNode createNode( String artifactId )
+    {
+        return new ResolutionNode( new DefaultArtifact( "g", artifactId, VersionRange.createFromVersion( "1.0" ),
+                                                        "compile", "jar", null, new DefaultArtifactHandler( "jar" ) ),
+                                   Collections.EMPTY_LIST );
+    }
+
+    private static MavenProject createProject( String packaging, String earConfiguration )
+        throws Exception
+    {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( "org.apache.maven.plugins" );
+        plugin.setArtifactId( "maven-ear-plugin" );
+        plugin.setConfiguration( Xpp3DomBuilder.build( new StringReader( earConfiguration ) ) );
+
+        Model model = new Model();
+        model.setGroupId( "g" );
+        model.setArtifactId( packaging );
+        model.setPackaging( packaging );
+        model.setBuild( new Build() );
+        model.getBuild().addPlugin( plugin );
+        return new MavenProject( model );
+    }
+
+    /**
+     * Mojo which fails in its setup or stops there.
+     */
+    private static class StubIdeSupportMojo
+        extends AbstractIdeSupportMojo
+    {
+        private final boolean fail;
+
+        StubIdeSupportMojo( boolean fail )
+        {
+            this.fail = fail;
+        }
+
+        protected boolean getUseProjectReferences()
+        {
+            return true;
+        }
+
+        protected boolean setup()
+            throws MojoExecutionException
+        {
+            if ( fail )
+            {
+                throw new MojoExecutionException( "setup failed" );
+            }
+            return false;
+        }
+
+        protected void writeConfiguration( IdeDependency[] deps )
+        {
+        }
+
+        public String getProjectNameForArifact( Artifact artifact )
+        {
+            return artifact.getArtifactId();
+        }
+
+        public List getExcludes()
+        {
+            return Collections.EMPTY_LIST;
+        }
+    }
+}
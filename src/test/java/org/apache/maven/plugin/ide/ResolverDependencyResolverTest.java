@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.factory.DefaultArtifactFactory;
+import org.apache.maven.artifact.handler.manager.DefaultArtifactHandlerManager;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.artifact.DefaultArtifactType;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the conversion of the graph collected by {@link ResolverDependencyResolver}
+ *
+ * @version $Id$
+ */
+public class ResolverDependencyResolverTest
+{
+
+    private ArtifactFactory artifactFactory;
+
+    @Before
+    public void setUp()
+        throws IllegalAccessException
+    {
+        DefaultArtifactHandlerManager artifactHandlerManager = new DefaultArtifactHandlerManager();
+        ReflectionUtils.setVariableValueInObject( artifactHandlerManager, "artifactHandlers", new HashMap() );
+        artifactFactory = new DefaultArtifactFactory();
+        ReflectionUtils.setVariableValueInObject( artifactFactory, "artifactHandlerManager", artifactHandlerManager );
+    }
+
+    @Test
+    public void testNodesAreCollectedInPreOrder()
+    {
+        DefaultDependencyNode a = createNode( "a", "1.0" );
+        DefaultDependencyNode b = createNode( "b", "1.0" );
+        DefaultDependencyNode c = createNode( "c", "1.0" );
+        DefaultDependencyNode d = createNode( "d", "1.0" );
+        a.setChildren( children( c ) );
+        b.setChildren( children( d ) );
+        DependencyNode root = createRoot( a, b );
+
+        assertEquals( Arrays.asList( new DependencyNode[] { a, c, b, d } ),
+                      ResolverDependencyResolver.collectNodes( root ) );
+    }
+
+    @Test
+    public void testFirstOccurrenceOfAnArtifactWins()
+    {
+        DefaultDependencyNode a = createNode( "a", "1.0" );
+        DefaultDependencyNode b = createNode( "b", "1.0" );
+        DefaultDependencyNode nearest = createNode( "c", "1.0" );
+        DefaultDependencyNode farthest = createNode( "c", "2.0" );
+        a.setChildren( children( nearest ) );
+        b.setChildren( children( farthest ) );
+
+        List<DependencyNode> nodes = ResolverDependencyResolver.collectNodes( createRoot( a, b ) );
+
+        assertEquals( 3, nodes.size() );
+        assertTrue( nodes.contains( nearest ) );
+        assertFalse( nodes.contains( farthest ) );
+    }
+
+    @Test
+    public void testArtifactsWithOtherClassifiersAreKept()
+    {
+        DefaultDependencyNode jar = createNode( "a", "1.0" );
+        DefaultDependencyNode tests =
+            new DefaultDependencyNode( new Dependency( new DefaultArtifact( "g", "a", "tests", "jar", "1.0" ),
+                                                       "test" ) );
+
+        assertEquals( 2, ResolverDependencyResolver.collectNodes( createRoot( jar, tests ) ).size() );
+    }
+
+    @Test
+    public void testCyclicGraphIsVisitedOnce()
+    {
+        DefaultDependencyNode a = createNode( "a", "1.0" );
+        DefaultDependencyNode b = createNode( "b", "1.0" );
+        a.setChildren( children( b ) );
+        b.setChildren( children( a ) );
+
+        assertEquals( Arrays.asList( new DependencyNode[] { a, b } ),
+                      ResolverDependencyResolver.collectNodes( createRoot( a ) ) );
+    }
+
+    @Test
+    public void testLegacyArtifact()
+    {
+        File file = new File( "a-1.0.jar" );
+        Artifact artifact = new DefaultArtifact( "g", "a", "", "jar", "1.0" ).setFile( file );
+
+        org.apache.maven.artifact.Artifact legacy =
+            ResolverDependencyResolver.toLegacyArtifact( new Dependency( artifact, "provided", Boolean.TRUE ),
+                                                         artifactFactory );
+
+        assertEquals( "g", legacy.getGroupId() );
+        assertEquals( "a", legacy.getArtifactId() );
+        assertEquals( "1.0", legacy.getVersion() );
+        assertEquals( "jar", legacy.getType() );
+        assertNull( legacy.getClassifier() );
+        assertEquals( "provided", legacy.getScope() );
+        assertTrue( legacy.isOptional() );
+        assertSame( file, legacy.getFile() );
+    }
+
+    @Test
+    public void testLegacyArtifactKeepsTheType()
+    {
+        Artifact artifact =
+            new DefaultArtifact( "g", "a", "tests", "jar", "1.0", new DefaultArtifactType( "test-jar", "jar", "tests",
+                                                                                          "java" ) );
+
+        org.apache.maven.artifact.Artifact legacy =
+            ResolverDependencyResolver.toLegacyArtifact( new Dependency( artifact, "test" ), artifactFactory );
+
+        assertEquals( "test-jar", legacy.getType() );
+        assertEquals( "tests", legacy.getClassifier() );
+        assertEquals( "test", legacy.getScope() );
+        assertFalse( legacy.isOptional() );
+        assertNull( legacy.getFile() );
+    }
+
+    private static DependencyNode createRoot( DependencyNode... children )
+    {
+        DefaultDependencyNode root = new DefaultDependencyNode( new DefaultArtifact( "g", "root", "pom", "1.0" ) );
+        root.setChildren( children( children ) );
+        return root;
+    }
+
+    private static DefaultDependencyNode createNode( String artifactId, String version )
+    {
+        return new DefaultDependencyNode( new Dependency( new DefaultArtifact( "g", artifactId, "jar", version ),
+                                                          "compile" ) );
+    }
+
+    private static List<DependencyNode> children( DependencyNode... children )
+    {
+        List<DependencyNode> list = new ArrayList<DependencyNode>();
+        Collections.addAll( list, children );
+        return list;
+    }
+}